@@ -194,6 +194,14 @@ public final void appendHoverText(ItemStack stack, BlockGetter view, List<Compon
         return InteractionResult.SUCCESS;
     }
 
+    @Override
+    public void neighborChanged(BlockState state, Level world, BlockPos pos, Block block, BlockPos fromPos, boolean notify) {
+        super.neighborChanged(state, world, pos, block, fromPos, notify);
+        if (!world.isClientSide && world.getBlockEntity(pos) instanceof MachineBlockEntity machine) {
+            machine.wake(); // redstone or adjacent storages may have changed
+        }
+    }
+
     @Override
     public void playerWillDestroy(Level world, BlockPos pos, BlockState state, Player player) {
         super.playerWillDestroy(world, pos, state, player);
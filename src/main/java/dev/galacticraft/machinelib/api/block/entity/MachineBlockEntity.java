@@ -26,6 +26,7 @@
 import dev.galacticraft.machinelib.api.fluid.FluidStack;
 import dev.galacticraft.machinelib.api.machine.MachineStatus;
 import dev.galacticraft.machinelib.api.machine.MachineType;
+import dev.galacticraft.machinelib.api.machine.configuration.DistributionStrategy;
 import dev.galacticraft.machinelib.api.machine.configuration.MachineConfiguration;
 import dev.galacticraft.machinelib.api.machine.configuration.MachineIOConfig;
 import dev.galacticraft.machinelib.api.machine.configuration.RedstoneActivation;
@@ -47,6 +48,11 @@
 import dev.galacticraft.machinelib.client.api.screen.MachineScreen;
 import dev.galacticraft.machinelib.impl.Constant;
 import dev.galacticraft.machinelib.impl.MachineLib;
+import dev.galacticraft.machinelib.impl.block.entity.TransferPlan;
+import dev.galacticraft.machinelib.impl.energy.EnergyNetworkNode;
+import dev.galacticraft.machinelib.impl.transfer.PushBackoff;
+import dev.galacticraft.machinelib.impl.transfer.PushDistributor;
+import dev.galacticraft.machinelib.impl.transfer.routing.RoutingNode;
 import net.fabricmc.fabric.api.rendering.data.v1.RenderAttachmentBlockEntity;
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidStorage;
@@ -54,6 +60,7 @@
 import net.fabricmc.fabric.api.transfer.v1.item.ItemStorage;
 import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
+import net.fabricmc.fabric.api.transfer.v1.storage.TransferVariant;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
@@ -84,6 +91,7 @@
 import team.reborn.energy.api.EnergyStorageUtil;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * A block entity that represents a machine.
@@ -148,6 +156,61 @@ public abstract class MachineBlockEntity extends BlockEntity implements Extended
      */
     @ApiStatus.Internal
     private @Nullable AdjacentBlockApiCache<Storage<ItemVariant>> itemCache = null;
+    /**
+     * The energy network this machine is part of, if it {@link #joinsEnergyNetwork() joins energy networks}.
+     */
+    @ApiStatus.Internal
+    private @Nullable EnergyNetworkNode energyNetworkNode = null;
+    /**
+     * The routing network this machine is part of, if it {@link #joinsRoutingNetwork() joins routing networks}.
+     */
+    @ApiStatus.Internal
+    private @Nullable RoutingNode routingNode = null;
+    /**
+     * The faces this machine can push energy out of.
+     */
+    @ApiStatus.Internal
+    private final TransferPlan<EnergyStorage> energyPlan = new TransferPlan<>();
+    /**
+     * The faces this machine can push fluids out of.
+     */
+    @ApiStatus.Internal
+    private final TransferPlan<ExposedStorage<Fluid, FluidVariant>> fluidPlan = new TransferPlan<>();
+    /**
+     * The faces this machine can push items out of.
+     */
+    @ApiStatus.Internal
+    private final TransferPlan<ExposedStorage<Item, ItemVariant>> itemPlan = new TransferPlan<>();
+    /**
+     * Delays energy pushes out of faces that recently failed to move anything. Indexed by (world) direction.
+     */
+    @ApiStatus.Internal
+    private final PushBackoff[] energyBackoff = createBackoff();
+    /**
+     * Delays fluid pushes out of faces that recently failed to move anything. Indexed by (world) direction.
+     */
+    @ApiStatus.Internal
+    private final PushBackoff[] fluidBackoff = createBackoff();
+    /**
+     * Delays item pushes out of faces that recently failed to move anything. Indexed by (world) direction.
+     */
+    @ApiStatus.Internal
+    private final PushBackoff[] itemBackoff = createBackoff();
+    /**
+     * Pushes energy out of the faces in the {@link #energyPlan energy plan}.
+     */
+    @ApiStatus.Internal
+    private final PushDistributor energyDistributor = new EnergyDistributor();
+    /**
+     * Pushes fluids out of the faces in the {@link #fluidPlan fluid plan}.
+     */
+    @ApiStatus.Internal
+    private final PushDistributor fluidDistributor = new StorageDistributor<>(ResourceType.FLUID, this.fluidPlan, this.fluidBackoff, () -> this.fluidCache);
+    /**
+     * Pushes items out of the faces in the {@link #itemPlan item plan}.
+     */
+    @ApiStatus.Internal
+    private final PushDistributor itemDistributor = new StorageDistributor<>(ResourceType.ITEM, this.itemPlan, this.itemBackoff, () -> this.itemCache);
     /**
      * Whether the machine will not drop items when broken.
      * <p>
@@ -158,6 +221,28 @@ public abstract class MachineBlockEntity extends BlockEntity implements Extended
      */
     @ApiStatus.Internal
     private boolean disableDrops = false;
+    /**
+     * Whether the machine is currently asleep.
+     * A sleeping machine is not {@link #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller) ticked} until it is woken up.
+     *
+     * @see #canSleep(MachineStatus)
+     * @see #wake()
+     */
+    @ApiStatus.Internal
+    private boolean sleeping = false;
+    /**
+     * The value of {@link #dataReloads} when the machine went to sleep.
+     * A machine that slept through a datapack reload is woken up, as its recipes may have changed.
+     */
+    @ApiStatus.Internal
+    private int sleepDataReloads = 0;
+    /**
+     * The number of times datapacks have been reloaded.
+     *
+     * @see #wakeAll()
+     */
+    @ApiStatus.Internal
+    static int dataReloads = 0;
 
     /**
      * Constructs a new machine block entity with the name automatically derived from the passed {@link BlockState}.
@@ -272,6 +357,55 @@ public void setRedstone(@NotNull RedstoneActivation redstone) {
         this.configuration.setRedstoneActivation(redstone);
     }
 
+    /**
+     * Returns whether this machine is currently asleep.
+     *
+     * @return whether this machine is currently asleep.
+     * @see #canSleep(MachineStatus)
+     */
+    @Contract(pure = true)
+    public boolean isSleeping() {
+        return this.sleeping;
+    }
+
+    /**
+     * Wakes this machine up, so that it is {@link #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller) ticked} again.
+     * Called automatically when the machine is {@link #setChanged() changed} or an adjacent block is updated.
+     *
+     * @see #canSleep(MachineStatus)
+     */
+    @Contract(mutates = "this")
+    public void wake() {
+        this.sleeping = false;
+    }
+
+    /**
+     * Wakes every machine up on its next tick.
+     * Called after every datapack reload, as recipes and other data that sleeping machines rely on may have changed.
+     */
+    @ApiStatus.Internal
+    public static void wakeAll() {
+        dataReloads++;
+    }
+
+    /**
+     * Returns whether this machine may go to sleep after reporting the given status.
+     * A sleeping machine skips the redstone check and {@link #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller)}
+     * until one of its storages or its configuration is modified, an adjacent block is updated or datapacks are reloaded.
+     * {@link #tickConstant(ServerLevel, BlockPos, BlockState, ProfilerFiller)} is still called every tick.
+     * <p>
+     * Only return {@code true} for statuses that cannot change without one of the above happening.
+     * By default, machines never sleep.
+     *
+     * @param status the status returned by the last tick.
+     * @return whether this machine may go to sleep.
+     * @see #wake()
+     */
+    @Contract(pure = true)
+    protected boolean canSleep(@NotNull MachineStatus status) {
+        return false;
+    }
+
     /**
      * Returns the status of this machine. Machine status is calculated in {@link #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller)},
      * but may be modified manually by calling {@link #setStatus(MachineStatus)}.
@@ -425,12 +559,22 @@ public final void tickBase(@NotNull Level world, @NotNull BlockPos pos, @NotNull
             profiler.push("constant");
             ServerLevel serverWorld = (ServerLevel) world;
             this.tickConstant(serverWorld, pos, state, profiler);
+            if (this.sleeping) {
+                if (this.sleepDataReloads == dataReloads) {
+                    profiler.pop();
+                    return;
+                }
+                this.sleeping = false;
+            }
             if (this.isDisabled(world)) {
                 profiler.popPush("disabled");
                 this.tickDisabled(serverWorld, pos, state, profiler);
             } else {
                 profiler.popPush("active");
-                this.setStatus(this.tick(serverWorld, pos, state, profiler));
+                MachineStatus status = this.tick(serverWorld, pos, state, profiler);
+                this.setStatus(status);
+                this.sleeping = this.canSleep(status);
+                this.sleepDataReloads = dataReloads;
             }
         } else {
             profiler.push("client");
@@ -634,14 +778,129 @@ public void load(CompoundTag nbt) {
         if (nbt.contains(Constant.Nbt.FLUID_STORAGE, Tag.TAG_LIST))
             this.fluidStorage.readTag(Objects.requireNonNull(nbt.getList(Constant.Nbt.FLUID_STORAGE, Tag.TAG_LIST)));
         this.disableDrops = nbt.getBoolean(Constant.Nbt.DISABLE_DROPS);
+        this.wake();
 
         if (level != null && level.isClientSide()) {
             level.sendBlockUpdated(worldPosition, Blocks.AIR.defaultBlockState(), this.getBlockState(), Block.UPDATE_IMMEDIATE);
         }
     }
 
+    /**
+     * Returns a controlled/throttled energy storage exposed in the given (world) direction.
+     *
+     * @param direction the direction the storage is exposed in.
+     * @return a controlled/throttled energy storage exposed in the given direction.
+     */
+    @ApiStatus.Internal
+    public @Nullable EnergyStorage getExposedEnergyStorageTowards(@NotNull Direction direction) {
+        return this.getExposedEnergyStorage(this.getBlockState(), direction);
+    }
+
+    /**
+     * Returns how this machine splits the given resource between its output faces when pushing it to adjacent blocks.
+     *
+     * @param type the type of resource being pushed.
+     * @return the distribution strategy for the given resource.
+     */
+    public @NotNull DistributionStrategy getDistributionStrategy(@NotNull ResourceType type) {
+        return DistributionStrategy.FIRST_AVAILABLE;
+    }
+
+    /**
+     * Returns the maximum amount of the given resource that may be pushed out of the given face each tick.
+     *
+     * @param type the type of resource being pushed.
+     * @param face the face the resource is pushed out of.
+     * @return the maximum amount pushed out of the given face each tick.
+     */
+    public long getPushRateLimit(@NotNull ResourceType type, @NotNull BlockFace face) {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns whether this machine should join energy networks.
+     * Adjacent machines that join energy networks form a single network, which balances energy between all of its
+     * members once per tick instead of having each machine push energy to its neighbours.
+     * Two machines are only connected if the touching faces let energy flow from one to the other.
+     * Checked when the machine is loaded.
+     *
+     * @return whether this machine should join energy networks.
+     * @see #getEnergyNetworkPriority()
+     */
+    public boolean joinsEnergyNetwork() {
+        return false;
+    }
+
+    /**
+     * Returns the priority of this machine in an energy network.
+     * Machines with a higher priority are supplied with energy first.
+     * Checked when the machine joins a network.
+     *
+     * @return the priority of this machine in an energy network.
+     * @see #joinsEnergyNetwork()
+     */
+    public int getEnergyNetworkPriority() {
+        return 0;
+    }
+
+    @ApiStatus.Internal
+    public @Nullable EnergyNetworkNode getEnergyNetworkNode() {
+        return this.energyNetworkNode;
+    }
+
+    @ApiStatus.Internal
+    public void setEnergyNetworkNode(@Nullable EnergyNetworkNode energyNetworkNode) {
+        this.energyNetworkNode = energyNetworkNode;
+    }
+
+    /**
+     * Returns the item storage exposed in the given (world) direction.
+     *
+     * @param direction the direction the storage is exposed in.
+     * @return the item storage exposed in the given direction.
+     */
+    @ApiStatus.Internal
+    public @Nullable ExposedStorage<Item, ItemVariant> getExposedItemStorageTowards(@NotNull Direction direction) {
+        return this.getExposedItemStorage(this.getBlockState(), direction);
+    }
+
+    /**
+     * Returns the fluid storage exposed in the given (world) direction.
+     *
+     * @param direction the direction the storage is exposed in.
+     * @return the fluid storage exposed in the given direction.
+     */
+    @ApiStatus.Internal
+    public @Nullable ExposedStorage<Fluid, FluidVariant> getExposedFluidStorageTowards(@NotNull Direction direction) {
+        return this.getExposedFluidStorage(this.getBlockState(), direction);
+    }
+
+    /**
+     * Returns whether this machine should join item and fluid routing networks.
+     * Adjacent machines that join routing networks form a single network, which moves items and fluids from every
+     * output face to the touching input face of the neighbouring member in one pass per tick, instead of having each
+     * machine push resources to its neighbours.
+     * Checked when the machine is loaded.
+     *
+     * @return whether this machine should join routing networks.
+     */
+    public boolean joinsRoutingNetwork() {
+        return false;
+    }
+
+    @ApiStatus.Internal
+    public @Nullable RoutingNode getRoutingNode() {
+        return this.routingNode;
+    }
+
+    @ApiStatus.Internal
+    public void setRoutingNode(@Nullable RoutingNode routingNode) {
+        this.routingNode = routingNode;
+    }
+
     /**
      * Pushes energy from this machine to adjacent capacitor blocks.
+     * Neighbours that are part of the same energy network are skipped, as the network distributes energy between them.
      *
      * @param level the level.
      */
@@ -650,12 +909,11 @@ protected void trySpreadEnergy(@NotNull ServerLevel level, @NotNull BlockState s
             this.energyCache = AdjacentBlockApiCache.create(EnergyStorage.SIDED, level, this.worldPosition);
         }
         Direction facing = state.getValue(BlockStateProperties.HORIZONTAL_FACING);
-        for (Direction direction : Constant.Cache.DIRECTIONS) {
-            EnergyStorage storage = this.getExposedEnergyStorage(facing, direction);
-            if (storage != null && storage.supportsExtraction()) {
-                EnergyStorageUtil.move(storage, this.energyCache.find(direction), Long.MAX_VALUE, null);
-            }
+        long modifications = this.getIOConfig().getModifications();
+        if (!this.energyPlan.isValid(facing, modifications)) {
+            this.energyPlan.rebuild(facing, modifications, this::getExposedEnergyStorage, EnergyStorage::supportsExtraction);
         }
+        this.energyDistributor.push(this.getDistributionStrategy(ResourceType.ENERGY), this.energyPlan.size(), level.getGameTime());
     }
 
     /**
@@ -668,12 +926,11 @@ protected void trySpreadFluids(@NotNull ServerLevel level, @NotNull BlockState s
             this.fluidCache = AdjacentBlockApiCache.create(FluidStorage.SIDED, level, this.worldPosition);
         }
         Direction facing = state.getValue(BlockStateProperties.HORIZONTAL_FACING);
-        for (Direction direction : Constant.Cache.DIRECTIONS) {
-            ExposedStorage<Fluid, FluidVariant> storage = this.getExposedFluidStorage(facing, direction);
-            if (storage != null && storage.supportsExtraction()) {
-                GenericApiUtil.moveAll(storage, this.fluidCache.find(direction), Long.MAX_VALUE, null); //TODO: fluid I/O cap
-            }
+        long modifications = this.getIOConfig().getModifications();
+        if (!this.fluidPlan.isValid(facing, modifications)) {
+            this.fluidPlan.rebuild(facing, modifications, this::getExposedFluidStorage, Storage::supportsExtraction);
         }
+        this.fluidDistributor.push(this.getDistributionStrategy(ResourceType.FLUID), this.fluidPlan.size(), level.getGameTime());
     }
 
     /**
@@ -686,11 +943,101 @@ protected void trySpreadItems(@NotNull ServerLevel level, @NotNull BlockState st
             this.itemCache = AdjacentBlockApiCache.create(ItemStorage.SIDED, level, this.worldPosition);
         }
         Direction facing = state.getValue(BlockStateProperties.HORIZONTAL_FACING);
-        for (Direction direction : Constant.Cache.DIRECTIONS) {
-            Storage<ItemVariant> storage = this.getExposedItemStorage(facing, direction);
-            if (storage != null && storage.supportsExtraction()) {
-                GenericApiUtil.moveAll(storage, this.itemCache.find(direction), Long.MAX_VALUE, null);
-            }
+        long modifications = this.getIOConfig().getModifications();
+        if (!this.itemPlan.isValid(facing, modifications)) {
+            this.itemPlan.rebuild(facing, modifications, this::getExposedItemStorage, Storage::supportsExtraction);
+        }
+        this.itemDistributor.push(this.getDistributionStrategy(ResourceType.ITEM), this.itemPlan.size(), level.getGameTime());
+    }
+
+    private static PushBackoff @NotNull [] createBackoff() {
+        PushBackoff[] backoff = new PushBackoff[Constant.Cache.DIRECTIONS.length];
+        for (int i = 0; i < backoff.length; i++) {
+            backoff[i] = new PushBackoff();
+        }
+        return backoff;
+    }
+
+    /**
+     * Pushes energy out of the faces in the energy plan.
+     * Neighbours linked to the same energy network are skipped, as the network distributes energy between them.
+     */
+    private final class EnergyDistributor extends PushDistributor {
+        private EnergyDistributor() {
+            super(Constant.Cache.DIRECTIONS.length);
+        }
+
+        @Override
+        protected boolean shouldAttempt(int entry, long time) {
+            MachineBlockEntity machine = MachineBlockEntity.this;
+            Direction direction = machine.energyPlan.getDirection(entry);
+            if (machine.energyNetworkNode != null && machine.energyNetworkNode.isLinked(direction)) return false;
+            EnergyStorage target = machine.energyCache.find(direction);
+            return machine.energyBackoff[direction.ordinal()].shouldAttempt(time, machine.energyPlan.getStorage(entry), machine.energyStorage.getModifications(), target, PushBackoff.UNKNOWN_VERSION);
+        }
+
+        @Override
+        protected long getRateLimit(int entry) {
+            return MachineBlockEntity.this.getPushRateLimit(ResourceType.ENERGY, MachineBlockEntity.this.energyPlan.getFace(entry));
+        }
+
+        @Override
+        protected long getAmount(int entry) {
+            return MachineBlockEntity.this.energyPlan.getStorage(entry).getAmount();
+        }
+
+        @Override
+        protected void move(int entry, long limit, long time) {
+            MachineBlockEntity machine = MachineBlockEntity.this;
+            Direction direction = machine.energyPlan.getDirection(entry);
+            long moved = EnergyStorageUtil.move(machine.energyPlan.getStorage(entry), machine.energyCache.find(direction), limit, null);
+            machine.energyBackoff[direction.ordinal()].onAttempt(time, moved > 0);
+        }
+    }
+
+    /**
+     * Pushes fluids or items out of the faces in a transfer plan.
+     * Neighbours linked to the same routing network are skipped, as the network moves resources between them.
+     */
+    private final class StorageDistributor<Resource, Variant extends TransferVariant<Resource>> extends PushDistributor {
+        private final ResourceType type;
+        private final TransferPlan<ExposedStorage<Resource, Variant>> plan;
+        private final PushBackoff[] backoff;
+        private final Supplier<AdjacentBlockApiCache<Storage<Variant>>> cache;
+
+        private StorageDistributor(@NotNull ResourceType type, @NotNull TransferPlan<ExposedStorage<Resource, Variant>> plan, PushBackoff @NotNull [] backoff, @NotNull Supplier<AdjacentBlockApiCache<Storage<Variant>>> cache) {
+            super(Constant.Cache.DIRECTIONS.length);
+            this.type = type;
+            this.plan = plan;
+            this.backoff = backoff;
+            this.cache = cache;
+        }
+
+        @Override
+        protected boolean shouldAttempt(int entry, long time) {
+            Direction direction = this.plan.getDirection(entry);
+            RoutingNode routingNode = MachineBlockEntity.this.routingNode;
+            if (routingNode != null && routingNode.isLinked(direction)) return false;
+            ExposedStorage<Resource, Variant> storage = this.plan.getStorage(entry);
+            Storage<Variant> target = this.cache.get().find(direction);
+            return this.backoff[direction.ordinal()].shouldAttempt(time, storage, storage.getVersion(), target, PushBackoff.versionOf(target));
+        }
+
+        @Override
+        protected long getRateLimit(int entry) {
+            return MachineBlockEntity.this.getPushRateLimit(this.type, this.plan.getFace(entry));
+        }
+
+        @Override
+        protected long getAmount(int entry) {
+            return GenericApiUtil.getAmount(this.plan.getStorage(entry));
+        }
+
+        @Override
+        protected void move(int entry, long limit, long time) {
+            Direction direction = this.plan.getDirection(entry);
+            long moved = GenericApiUtil.moveAll(this.plan.getStorage(entry), this.cache.get().find(direction), Long.MAX_VALUE, limit, null);
+            this.backoff[direction.ordinal()].onAttempt(time, moved > 0);
         }
     }
 
@@ -756,6 +1103,16 @@ public boolean isFaceLocked(@NotNull BlockFace face) { // todo: locked faces
         return false;
     }
 
+    /**
+     * Marks this machine as changed and {@link #wake() wakes it up}.
+     * Called whenever one of the machine's storages or its configuration is modified.
+     */
+    @Override
+    public void setChanged() {
+        super.setChanged();
+        this.wake();
+    }
+
     @Override
     public void writeScreenOpeningData(ServerPlayer player, @NotNull FriendlyByteBuf buf) {
         if (!this.getSecurity().hasAccess(player)) {
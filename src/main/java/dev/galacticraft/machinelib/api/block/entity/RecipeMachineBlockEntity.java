@@ -26,7 +26,12 @@
 import dev.galacticraft.machinelib.api.machine.MachineStatuses;
 import dev.galacticraft.machinelib.api.machine.MachineType;
 import dev.galacticraft.machinelib.api.menu.RecipeMachineMenu;
+import dev.galacticraft.machinelib.api.storage.MachineItemStorage;
+import dev.galacticraft.machinelib.api.storage.Modifiable;
+import dev.galacticraft.machinelib.api.storage.ResourceStorage;
+import dev.galacticraft.machinelib.api.storage.slot.SlotGroupType;
 import dev.galacticraft.machinelib.impl.Constant;
+import dev.galacticraft.machinelib.impl.recipe.RecipeResultCache;
 import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
@@ -54,12 +59,28 @@
     private final @NotNull RecipeType<R> recipeType;
 
     /**
-     * The number of times the machine's inventory has been modified.
+     * The number of times the machine's recipe inputs have been modified.
      * Used to determine if the machine's active recipe must be recalculated.
+     *
+     * @see #getInputModifications()
      */
     @ApiStatus.Internal
     private long inventoryModCount = -1;
 
+    /**
+     * The number of times the machine's item storage has been modified (including output slots).
+     * Used to determine if the machine's output capacity must be checked again.
+     */
+    @ApiStatus.Internal
+    private long storageModCount = -1;
+
+    /**
+     * The number of datapack reloads when the machine last searched for a recipe.
+     * Used to search again after a reload, as the available recipes may have changed.
+     */
+    @ApiStatus.Internal
+    private int recipeDataReloads = dataReloads;
+
     /**
      * The machine's active recipe. If there is no active recipe, this will be {@code null}.
      */
@@ -181,6 +202,18 @@ protected RecipeMachineBlockEntity(@NotNull MachineType<? extends RecipeMachineB
         }
     }
 
+    /**
+     * Recipe machines may sleep while they have no valid recipe or their output is full,
+     * as both can only change when the machine's inventory is modified or recipes are reloaded.
+     *
+     * @param status the status returned by the last tick.
+     * @return whether this machine may go to sleep.
+     */
+    @Override
+    protected boolean canSleep(@NotNull MachineStatus status) {
+        return status == MachineStatuses.INVALID_RECIPE || status == MachineStatuses.OUTPUT_FULL;
+    }
+
     /**
      * Updates the currently active recipe if the inventory has changed.
      *
@@ -190,26 +223,77 @@ protected RecipeMachineBlockEntity(@NotNull MachineType<? extends RecipeMachineB
      */
     @Nullable
     protected MachineStatus testInventoryRecipe(@NotNull ServerLevel world, @NotNull ProfilerFiller profiler) {
-        if (this.inventoryModCount != this.itemStorage().getModifications()) { // includes output slots
-            this.inventoryModCount = this.itemStorage().getModifications();
+        if (this.recipeDataReloads != dataReloads) {
+            this.recipeDataReloads = dataReloads;
+            if (this.getActiveRecipe() == null) {
+                this.inventoryModCount = -1; // a recipe may have been added; a running recipe is left to finish
+                this.cachedRecipe = null;
+            }
+        }
+        long inputModifications = this.getInputModifications();
+        long storageModifications = this.itemStorage().getModifications();
+        if (this.inventoryModCount != inputModifications) {
+            this.inventoryModCount = inputModifications;
+            this.storageModCount = storageModifications;
             profiler.push("find_recipe");
             R recipe = this.findValidRecipe(world);
             profiler.pop();
             if (recipe != null) {
-                if (this.canOutputStacks(recipe)) {
-                    this.updateRecipe(recipe);
-                } else {
-                    this.resetRecipe();
-                    return MachineStatuses.OUTPUT_FULL;
-                }
+                return this.testOutput(recipe);
             } else {
                 this.resetRecipe();
                 return MachineStatuses.INVALID_RECIPE;
             }
+        } else if (this.storageModCount != storageModifications) { // only the outputs (or other slots) changed
+            this.storageModCount = storageModifications;
+            R recipe = this.getActiveRecipe();
+            if (recipe == null && this.getStatus() == MachineStatuses.OUTPUT_FULL) {
+                recipe = this.cachedRecipe; // the inputs have not changed, so the blocked recipe still matches
+            }
+            if (recipe != null) {
+                profiler.push("test_output");
+                MachineStatus status = this.testOutput(recipe);
+                profiler.pop();
+                return status;
+            }
         }
         return null;
     }
 
+    /**
+     * Activates the given recipe if its output fits in the machine's inventory.
+     *
+     * @param recipe The recipe to test.
+     * @return {@code null} if the recipe can be processed, or {@link MachineStatuses#OUTPUT_FULL} if it cannot.
+     */
+    private @Nullable MachineStatus testOutput(@NotNull R recipe) {
+        if (this.canOutputStacks(recipe)) {
+            this.updateRecipe(recipe);
+            return null;
+        } else {
+            this.resetRecipe();
+            this.cachedRecipe = recipe; // tested first once there is space
+            return MachineStatuses.OUTPUT_FULL;
+        }
+    }
+
+    /**
+     * Returns the number of times the machine's recipe inputs have been modified.
+     * When this changes, the machine's active recipe is recalculated.
+     * Changes to the rest of the item storage (such as output slots) only cause the output capacity to be checked again.
+     * <p>
+     * By default, this is the modification count of the {@link #craftingInv() crafting inventory} if it is tracked
+     * (like {@link MachineItemStorage#getCraftingView(SlotGroupType) crafting views}),
+     * or the modification count of the whole item storage otherwise.
+     *
+     * @return the number of times the machine's recipe inputs have been modified.
+     * @see ResourceStorage#getModifications(SlotGroupType)
+     */
+    @Contract(pure = true)
+    protected long getInputModifications() {
+        return this.craftingInv() instanceof Modifiable modifiable ? modifiable.getModifications() : this.itemStorage().getModifications();
+    }
+
     /**
      * Sets the current recipe to the given recipe.
      * If the recipe is different from the current recipe, the progress is reset.
@@ -267,6 +351,10 @@ protected void resetRecipe() {
     /**
      * Finds the first valid recipe in the machine's inventory.
      * Will always test for the current recipe first.
+     * Other recipes are looked up in a cache shared by all machines, falling back to an index of the recipe type's inputs,
+     * so only recipes that could match are tested.
+     * The cache ignores stack sizes, so machines whose recipe type picks a different recipe depending on the size of
+     * the input stacks should override this and search the recipes themselves.
      *
      * @param world The world.
      * @return The first valid recipe in the machine's inventory.
@@ -275,7 +363,7 @@ protected void resetRecipe() {
         if (this.cachedRecipe != null && this.cachedRecipe.matches(this.craftingInv(), world)) {
             return this.cachedRecipe;
         }
-        return world.getRecipeManager().getRecipeFor(this.getRecipeType(), this.craftingInv(), world).orElse(null);
+        return RecipeResultCache.find(world, this.getRecipeType(), this.craftingInv());
     }
 
     @Override
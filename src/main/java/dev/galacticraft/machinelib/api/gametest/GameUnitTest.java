@@ -74,7 +74,18 @@ public void invokeTestMethod(GameTestHelper context, Method method) {
                     }
                 }
 
-                if (method.getParameterTypes().length == 1) {
+                if (method.getParameterTypes().length == 1 && method.getParameterTypes()[0] == GameTestHelper.class) {
+                    tests.add(new TestFunction(this.id + subId, this.id + subId + '/' + NAME_CONVERSION.apply(method.getName()), structure, Rotation.NONE, 1, 0, true, 1, 1, helper -> {
+                        try {
+                            method.invoke(this, helper);
+                            helper.succeed();
+                        } catch (IllegalAccessException e) {
+                            throw new RuntimeException(e);
+                        } catch (InvocationTargetException e) {
+                            MachineGameTest.handleException(e);
+                        }
+                    }));
+                } else if (method.getParameterTypes().length == 1) {
                     assert this.supplier != null;
                     tests.add(new TestFunction(this.id + subId, this.id + subId + '/' + NAME_CONVERSION.apply(method.getName()), structure, Rotation.NONE, 1, 0, true, 1, 1, helper -> {
                         T t = this.supplier.get();
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.api.machine.configuration;
+
+/**
+ * Dictates how a machine splits the resources it pushes between its output faces.
+ */
+public enum DistributionStrategy {
+    /**
+     * Faces are served in a fixed order, and each one takes as much as it can (up to its rate limit).
+     */
+    FIRST_AVAILABLE,
+
+    /**
+     * Like {@link #FIRST_AVAILABLE}, but the face that is served first rotates every time the machine pushes.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Resources are split evenly between all output faces (up to each face's rate limit).
+     * Whatever a face does not accept is offered to the remaining faces.
+     */
+    PROPORTIONAL;
+
+    /**
+     * Returns how much the next face may take, given how much is left and how many faces have yet to be served.
+     *
+     * @param available the amount left to push
+     * @param faces the number of faces that have not been served yet (including the next one)
+     * @return the maximum amount the next face may take
+     */
+    public long share(long available, int faces) {
+        if (this != PROPORTIONAL) return Long.MAX_VALUE;
+        return faces <= 1 ? available : (available + faces - 1) / faces;
+    }
+}
@@ -25,6 +25,7 @@
 import dev.galacticraft.machinelib.api.machine.configuration.face.BlockFace;
 import dev.galacticraft.machinelib.api.machine.configuration.face.MachineIOFace;
 import dev.galacticraft.machinelib.api.menu.sync.MenuSynchronizable;
+import dev.galacticraft.machinelib.api.storage.Modifiable;
 import dev.galacticraft.machinelib.api.util.Deserializable;
 import dev.galacticraft.machinelib.impl.machine.MachineIOConfigImpl;
 import net.minecraft.nbt.CompoundTag;
@@ -35,7 +36,7 @@
 /**
  * Stores the configuration of a machine's I/O for all six faces.
  */
-public interface MachineIOConfig extends Deserializable<CompoundTag>, MenuSynchronizable {
+public interface MachineIOConfig extends Deserializable<CompoundTag>, MenuSynchronizable, Modifiable {
     /**
      * Constructs a new machine i/o configuration.
      *
@@ -54,4 +55,12 @@ public interface MachineIOConfig extends Deserializable<CompoundTag>, MenuSynchr
      * @return the I/O configuration for the given face.
      */
     @NotNull MachineIOFace get(@Nullable BlockFace face);
+
+    /**
+     * Returns a counter that changes whenever the configuration of any face changes.
+     *
+     * @return the modification count of this configuration.
+     */
+    @Override
+    long getModifications();
 }
@@ -27,6 +27,7 @@
 import dev.galacticraft.machinelib.api.fluid.FluidStack;
 import dev.galacticraft.machinelib.api.menu.sync.MenuSynchronizable;
 import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
+import dev.galacticraft.machinelib.api.storage.Modifiable;
 import dev.galacticraft.machinelib.api.storage.ResourceStorage;
 import dev.galacticraft.machinelib.api.storage.io.ResourceFlow;
 import dev.galacticraft.machinelib.api.storage.io.ResourceType;
@@ -55,7 +56,7 @@
  * Represents a face of a {@link MachineBlockEntity} that has been configured to
  * accept certain types of resources.
  */
-public interface MachineIOFace extends Deserializable<CompoundTag>, MenuSynchronizable {
+public interface MachineIOFace extends Deserializable<CompoundTag>, MenuSynchronizable, Modifiable {
     /**
      * Creates a new, blank {@link MachineIOFace}.
      *
@@ -50,6 +50,7 @@
 import org.jetbrains.annotations.*;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -62,6 +63,11 @@
  * @param <Machine> The type of machine block entity this menu is linked to.
  */
 public class MachineMenu<Machine extends MachineBlockEntity> extends AbstractContainerMenu {
+    /**
+     * The default number of ticks between two storage syncs.
+     */
+    public static final int DEFAULT_SYNC_INTERVAL = 4;
+
     public final @NotNull MachineType<?, ?> type;
 
     @ApiStatus.Internal
@@ -90,6 +96,18 @@
      * The storage sync handlers for this menu.
      */
     private final List<MenuSyncHandler> syncHandlers = new ArrayList<>(4);
+    /**
+     * The sync handlers that need syncing. Only used while syncing, but kept to avoid allocating a new set every time.
+     */
+    private final BitSet dirtyHandlers = new BitSet();
+    /**
+     * The number of ticks left until the storages are synced again.
+     */
+    private int syncCooldown = 0;
+    /**
+     * Whether the storages should be synced on the next tick, regardless of the sync interval.
+     */
+    private boolean syncRequested = false;
 
     /**
      * Constructs a new menu for a machine.
@@ -248,6 +266,7 @@ private void addSyncHandler(@Nullable MenuSyncHandler syncHandler) {
     @Override
     public void clicked(int i, int j, ClickType clickType, Player player) {
         super.clicked(i, j, clickType, player);
+        this.requestSync();
     }
 
     @Override
@@ -357,7 +376,29 @@ public boolean stillValid(Player player) {
     @Override
     public void broadcastChanges() {
         super.broadcastChanges();
-        this.syncStorages();
+        if (this.syncRequested || --this.syncCooldown <= 0) {
+            this.syncStorages();
+        }
+    }
+
+    /**
+     * Returns the number of ticks between two storage syncs.
+     * Changes made in between are coalesced, so only the latest state is sent.
+     * Player interactions with this menu are always synced on the next tick.
+     *
+     * @return the number of ticks between two storage syncs.
+     * @see #requestSync()
+     */
+    public int getSyncInterval() {
+        return DEFAULT_SYNC_INTERVAL;
+    }
+
+    /**
+     * Syncs the storages on the next tick, regardless of the sync interval.
+     * Should be called when a player interacts with this menu, so that the result is shown immediately.
+     */
+    public void requestSync() {
+        this.syncRequested = true;
     }
 
     /**
@@ -365,22 +406,21 @@ public void broadcastChanges() {
      */
     @ApiStatus.Internal
     private void syncStorages() {
+        this.syncCooldown = this.getSyncInterval();
+        this.syncRequested = false;
         if (this.player != null) {
-            int sync = 0;
-            for (MenuSyncHandler syncHandler : this.syncHandlers) {
-                if (syncHandler.needsSyncing()) sync++;
+            this.dirtyHandlers.clear();
+            for (int i = 0; i < this.syncHandlers.size(); i++) {
+                if (this.syncHandlers.get(i).needsSyncing()) this.dirtyHandlers.set(i);
             }
 
-            if (sync > 0) {
+            if (!this.dirtyHandlers.isEmpty()) {
                 FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
                 buf.writeByte(this.containerId);
-                buf.writeVarInt(sync);
-                for (int i = 0; i < this.syncHandlers.size(); i++) {
-                    MenuSyncHandler handler = this.syncHandlers.get(i);
-                    if (handler.needsSyncing()) {
-                        buf.writeVarInt(i);
-                        handler.sync(buf);
-                    }
+                buf.writeVarInt(this.dirtyHandlers.cardinality());
+                for (int i = this.dirtyHandlers.nextSetBit(0); i >= 0; i = this.dirtyHandlers.nextSetBit(i + 1)) {
+                    buf.writeVarInt(i);
+                    this.syncHandlers.get(i).sync(buf);
                 }
                 PacketSender.s2c(this.player).send(Constant.id("storage_sync"), buf);
             }
@@ -25,6 +25,7 @@
 import dev.galacticraft.machinelib.api.block.entity.RecipeMachineBlockEntity;
 import dev.galacticraft.machinelib.api.machine.MachineType;
 import dev.galacticraft.machinelib.api.menu.sync.MenuSyncHandler;
+import dev.galacticraft.machinelib.impl.menu.sync.RecipeProgressSyncHandler;
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerType;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
@@ -32,8 +33,10 @@
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.inventory.MenuType;
 import net.minecraft.world.item.crafting.Recipe;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -47,8 +50,27 @@
  * @see MachineMenu
  */
 public class RecipeMachineMenu<C extends Container, R extends Recipe<C>, Machine extends RecipeMachineBlockEntity<C, R>> extends MachineMenu<Machine> {
+    /**
+     * The default size (in pixels) of a progress bar. Matches the arrow of a furnace.
+     */
+    public static final int DEFAULT_PROGRESS_RESOLUTION = 24;
+
     private int progress = 0;
     private int maxProgress = 0;
+    /**
+     * Whether the machine was working when its progress was last synced (client only).
+     * While it is, progress is predicted to advance by one every tick.
+     */
+    private boolean working = false;
+    /**
+     * The game time at which the progress was last synced (client only).
+     */
+    private long progressSyncedAt = 0;
+    /**
+     * The handler syncing the progress of the machine, if it is predicted (server only).
+     * Assigned while the superclass constructor registers the sync handlers, so it must not have an initializer.
+     */
+    private @Nullable RecipeProgressSyncHandler progressHandler;
 
     /**
      * Constructs a new recipe menu.
@@ -87,12 +109,88 @@ protected RecipeMachineMenu(int syncId, @NotNull Inventory inventory, @NotNull F
     public void registerSyncHandlers(Consumer<MenuSyncHandler> consumer) {
         super.registerSyncHandlers(consumer);
 
-        consumer.accept(MenuSyncHandler.simple(this.machine::getProgress, this::setProgress));
-        consumer.accept(MenuSyncHandler.simple(this.machine::getMaxProgress, this::setMaxProgress));
+        if (this.predictsProgress()) {
+            this.progressHandler = new RecipeProgressSyncHandler(this.machine, this);
+            consumer.accept(this.progressHandler);
+        } else {
+            consumer.accept(MenuSyncHandler.quantized(this.machine::getProgress, this.machine::getMaxProgress, progress -> this.setProgress((int) progress), this.getProgressResolution()));
+            consumer.accept(MenuSyncHandler.simple(this.machine::getMaxProgress, this::setMaxProgress));
+        }
+    }
+
+    @Override
+    public void broadcastChanges() {
+        if (this.progressHandler != null && this.progressHandler.needsSyncing()) {
+            this.requestSync(); // a completed or reset recipe would otherwise show the wrong progress until the next sync
+        }
+        super.broadcastChanges();
+    }
+
+    /**
+     * Returns the size (in pixels) of this menu's progress bar.
+     * Progress is only synced once it moves the bar by at least one pixel, or once the synced progress is stale.
+     *
+     * @return the size of the progress bar, or {@code 0} to sync every change.
+     */
+    public int getProgressResolution() {
+        return DEFAULT_PROGRESS_RESOLUTION;
+    }
+
+    /**
+     * Returns whether the client predicts the machine's progress while it is working.
+     * If enabled, progress is only synced when the machine starts or stops working, or when the prediction is wrong.
+     * Should be disabled for machines whose progress does not advance by one every tick while working.
+     *
+     * @return whether the client predicts the machine's progress.
+     */
+    public boolean predictsProgress() {
+        return true;
     }
 
     public int getProgress() {
-        return this.progress;
+        return this.predictsProgress() ? (int) this.getProgress(0.0f) : this.progress;
+    }
+
+    /**
+     * Returns the (predicted) progress of the machine, interpolated between ticks.
+     * Screens should pass their render delta, so that progress bars move smoothly.
+     *
+     * @param partialTick the fraction of the current tick that has passed.
+     * @return the progress of the machine.
+     */
+    public float getProgress(float partialTick) {
+        if (!this.working) return this.progress;
+        return interpolateProgress(this.progress, this.maxProgress, this.playerInventory.player.level.getGameTime() - this.progressSyncedAt, partialTick);
+    }
+
+    /**
+     * Predicts the progress of a working machine.
+     * The prediction never goes backwards or past the maximum progress.
+     *
+     * @param progress    the synced progress.
+     * @param maxProgress the synced maximum progress.
+     * @param elapsed     the number of ticks since the progress was synced.
+     * @param partialTick the fraction of the current tick that has passed.
+     * @return the predicted progress.
+     */
+    @Contract(pure = true)
+    public static float interpolateProgress(int progress, int maxProgress, long elapsed, float partialTick) {
+        return Math.min(maxProgress, progress + Math.max(0.0f, elapsed + partialTick));
+    }
+
+    /**
+     * Updates the predicted progress of the machine. Called on the client.
+     *
+     * @param progress    the progress of the machine.
+     * @param maxProgress the maximum progress of the machine.
+     * @param working     whether the machine is working (and its progress is advancing).
+     */
+    @ApiStatus.Internal
+    public void predictProgress(int progress, int maxProgress, boolean working) {
+        this.progress = progress;
+        this.maxProgress = maxProgress;
+        this.working = working;
+        this.progressSyncedAt = this.playerInventory.player.level.getGameTime();
     }
 
     public void setProgress(int progress) {
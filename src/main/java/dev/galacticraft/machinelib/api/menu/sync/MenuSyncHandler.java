@@ -26,6 +26,7 @@
 import dev.galacticraft.machinelib.impl.menu.sync.simple.EnumMenuSyncHandler;
 import dev.galacticraft.machinelib.impl.menu.sync.simple.IntMenuSyncHandler;
 import dev.galacticraft.machinelib.impl.menu.sync.simple.LongMenuSyncHandler;
+import dev.galacticraft.machinelib.impl.menu.sync.simple.QuantizedMenuSyncHandler;
 import net.minecraft.network.FriendlyByteBuf;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -51,6 +52,22 @@ public interface MenuSyncHandler {
         return new EnumMenuSyncHandler<>(supplier, consumer, world);
     }
 
+    /**
+     * Creates a sync handler for a value that is rendered as a bar.
+     * Changes are only sent once they move the bar by at least one step (usually a pixel), or once the synced value
+     * is stale.
+     *
+     * @param supplier   supplies the current value (on the server).
+     * @param max        supplies the value of a full bar (on the server).
+     * @param consumer   accepts the synced value (on the client).
+     * @param resolution the number of steps in a full bar, or {@code 0} to sync every change.
+     * @return a new sync handler.
+     */
+    @Contract(value = "_, _, _, _ -> new", pure = true)
+    static @NotNull MenuSyncHandler quantized(LongSupplier supplier, LongSupplier max, LongConsumer consumer, int resolution) {
+        return new QuantizedMenuSyncHandler(supplier, max, consumer, resolution);
+    }
+
     @Contract(value = "_, _ -> new", pure = true)
     static @NotNull MenuSyncHandler booleans(boolean[] input, boolean[] output) {
         return new BooleansMenuSyncHandler(input, output);
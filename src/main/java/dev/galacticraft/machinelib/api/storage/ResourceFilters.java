@@ -22,7 +22,8 @@
 
 package dev.galacticraft.machinelib.api.storage;
 
-import dev.galacticraft.machinelib.impl.Utils;
+import dev.galacticraft.machinelib.impl.storage.CachingResourceFilter;
+import dev.galacticraft.machinelib.impl.storage.CompiledResourceFilter;
 import net.fabricmc.fabric.api.transfer.v1.context.ContainerItemContext;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidConstants;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidStorage;
@@ -30,6 +31,7 @@
 import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
 import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.tags.TagKey;
 import net.minecraft.world.item.Item;
@@ -40,12 +42,12 @@
 import team.reborn.energy.api.EnergyStorage;
 
 public final class ResourceFilters {
-    public static final ResourceFilter<Item> CAN_EXTRACT_ENERGY = (item, tag) -> {
+    public static final ResourceFilter<Item> CAN_EXTRACT_ENERGY = cachedAnyNBT((item, tag) -> {
         if (item == null) return false;
         EnergyStorage storage = ContainerItemContext.withConstant(ItemVariant.of(item, tag), 1).find(EnergyStorage.ITEM);
         return storage != null && storage.supportsExtraction();
-    };
-    public static final ResourceFilter<Item> CAN_EXTRACT_ENERGY_STRICT = (item, tag) -> {
+    });
+    public static final ResourceFilter<Item> CAN_EXTRACT_ENERGY_STRICT = cached((item, tag) -> {
         if (item == null) return false;
         EnergyStorage storage = ContainerItemContext.withConstant(ItemVariant.of(item, tag), 1).find(EnergyStorage.ITEM);
         if (storage == null || !storage.supportsExtraction()) return false;
@@ -53,13 +55,13 @@ public final class ResourceFilters {
             if (storage.extract(1, test) == 1) return true;
         }
         return false;
-    };
-    public static final ResourceFilter<Item> CAN_INSERT_ENERGY = (item, tag) -> {
+    });
+    public static final ResourceFilter<Item> CAN_INSERT_ENERGY = cachedAnyNBT((item, tag) -> {
         if (item == null) return false;
         EnergyStorage storage = ContainerItemContext.withConstant(ItemVariant.of(item, tag), 1).find(EnergyStorage.ITEM);
         return storage != null && storage.supportsInsertion();
-    };
-    public static final ResourceFilter<Item> CAN_INSERT_ENERGY_STRICT = (item, tag) -> {
+    });
+    public static final ResourceFilter<Item> CAN_INSERT_ENERGY_STRICT = cached((item, tag) -> {
         if (item == null) return false;
         EnergyStorage storage = ContainerItemContext.withConstant(ItemVariant.of(item, tag), 1).find(EnergyStorage.ITEM);
         if (storage == null || !storage.supportsInsertion()) return false;
@@ -67,7 +69,7 @@ public final class ResourceFilters {
             if (storage.insert(1, test) == 1) return true;
         }
         return false;
-    };
+    });
     private static final ResourceFilter<?> ANY = (resource, tag) -> true;
     private static final ResourceFilter<?> NONE = (resource, tag) -> false;
 
@@ -76,61 +78,61 @@ private ResourceFilters() {
 
     @Contract(pure = true)
     public static <Resource> @NotNull ResourceFilter<Resource> ofResourceAnyNBT(@NotNull Resource resource) {
-        return (r, ignored) -> r == resource;
+        return CompiledResourceFilter.resource(resource, true, null);
     }
 
     @Contract(pure = true)
     public static <Resource> @NotNull ResourceFilter<Resource> ofResource(@NotNull Resource resource, @Nullable CompoundTag tag) {
-        return (r, t) -> r == resource && Utils.tagsEqual(t, tag);
+        return CompiledResourceFilter.resource(resource, false, tag);
     }
 
     @Contract(pure = true)
     public static <Resource> @NotNull ResourceFilter<Resource> ofResource(@NotNull Resource resource) {
-        return (r, tag) -> r == resource && Utils.tagsEqual(tag, null);
+        return CompiledResourceFilter.resource(resource, false, null);
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Item> itemTagAnyNBT(@NotNull TagKey<Item> tag) {
-        return (r, nbt) -> r != null && r.builtInRegistryHolder().is(tag);
+        return CompiledResourceFilter.tag(BuiltInRegistries.ITEM, tag, true, null);
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Item> itemTag(@NotNull TagKey<Item> tag, @Nullable CompoundTag nbt) {
-        return (r, nbtC) -> r != null && r.builtInRegistryHolder().is(tag) && Utils.tagsEqual(nbtC, nbt);
+        return CompiledResourceFilter.tag(BuiltInRegistries.ITEM, tag, false, nbt);
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Item> itemTag(@NotNull TagKey<Item> tag) {
-        return (r, nbt) -> r != null && r.builtInRegistryHolder().is(tag) && Utils.tagsEqual(nbt, null);
+        return CompiledResourceFilter.tag(BuiltInRegistries.ITEM, tag, false, null);
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Fluid> fluidTagAnyNBT(@NotNull TagKey<Fluid> tag) {
-        return (r, nbt) -> r != null && r.builtInRegistryHolder().is(tag);
+        return CompiledResourceFilter.tag(BuiltInRegistries.FLUID, tag, true, null);
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Fluid> fluidTag(@NotNull TagKey<Fluid> tag, @Nullable CompoundTag nbt) {
-        return (r, nbtC) -> r != null && r.builtInRegistryHolder().is(tag) && Utils.tagsEqual(nbtC, nbt);
+        return CompiledResourceFilter.tag(BuiltInRegistries.FLUID, tag, false, nbt);
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Fluid> fluidTag(@NotNull TagKey<Fluid> tag) {
-        return (r, nbt) -> r != null && r.builtInRegistryHolder().is(tag) && Utils.tagsEqual(nbt, null);
+        return CompiledResourceFilter.tag(BuiltInRegistries.FLUID, tag, false, null);
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Item> isFluidStorage() {
-        return (r, nbt) -> {
+        return cachedAnyNBT((r, nbt) -> {
             if (r == null) return false;
             Storage<FluidVariant> storage = ContainerItemContext.withConstant(ItemVariant.of(r, nbt), 1).find(FluidStorage.ITEM);
             return storage != null;
-        };
+        });
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Item> canExtractFluidStrict(@NotNull Fluid fluid) {
-        return (r, nbt) -> {
+        return cached((r, nbt) -> {
             if (r == null) return false;
             Storage<FluidVariant> storage = ContainerItemContext.withConstant(ItemVariant.of(r, nbt), 1).find(FluidStorage.ITEM);
             if (storage == null || !storage.supportsExtraction()) return false;
@@ -140,12 +142,12 @@ private ResourceFilters() {
                 }
             }
             return false;
-        };
+        });
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Item> canExtractFluidStrict(@NotNull Fluid fluid, @Nullable CompoundTag nbt) {
-        return (r, nbtC) -> {
+        return cached((r, nbtC) -> {
             if (r == null) return false;
             Storage<FluidVariant> storage = ContainerItemContext.withConstant(ItemVariant.of(r, nbtC), 1).find(FluidStorage.ITEM);
             if (storage == null || !storage.supportsExtraction()) return false;
@@ -155,12 +157,12 @@ private ResourceFilters() {
                 }
             }
             return false;
-        };
+        });
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Item> canInsertFluidStrict(@NotNull Fluid fluid) {
-        return (r, nbt) -> {
+        return cached((r, nbt) -> {
             if (r == null) return false;
             Storage<FluidVariant> storage = ContainerItemContext.withConstant(ItemVariant.of(r, nbt), 1).find(FluidStorage.ITEM);
             if (storage == null || !storage.supportsExtraction()) return false;
@@ -170,12 +172,12 @@ private ResourceFilters() {
                 }
             }
             return false;
-        };
+        });
     }
 
     @Contract(pure = true)
     public static @NotNull ResourceFilter<Item> canInsertFluidStrict(@NotNull Fluid fluid, @Nullable CompoundTag nbt) {
-        return (r, nbtC) -> {
+        return cached((r, nbtC) -> {
             if (r == null) return false;
             Storage<FluidVariant> storage = ContainerItemContext.withConstant(ItemVariant.of(r, nbtC), 1).find(FluidStorage.ITEM);
             if (storage == null || !storage.supportsExtraction()) return false;
@@ -185,7 +187,94 @@ private ResourceFilters() {
                 }
             }
             return false;
-        };
+        });
+    }
+
+    /**
+     * Creates a filter that only accepts resources accepted by both filters.
+     * Resource and tag filters are combined into a single precompiled filter.
+     *
+     * @param a the first filter
+     * @param b the second filter
+     * @return the combined filter
+     * @param <Resource> the type of resource being filtered
+     */
+    @Contract(pure = true)
+    public static <Resource> @NotNull ResourceFilter<Resource> and(@NotNull ResourceFilter<Resource> a, @NotNull ResourceFilter<Resource> b) {
+        return CompiledResourceFilter.and(a, b);
+    }
+
+    /**
+     * Creates a filter that accepts resources accepted by either filter.
+     * Resource and tag filters are combined into a single precompiled filter.
+     *
+     * @param a the first filter
+     * @param b the second filter
+     * @return the combined filter
+     * @param <Resource> the type of resource being filtered
+     */
+    @Contract(pure = true)
+    public static <Resource> @NotNull ResourceFilter<Resource> or(@NotNull ResourceFilter<Resource> a, @NotNull ResourceFilter<Resource> b) {
+        return CompiledResourceFilter.or(a, b);
+    }
+
+    /**
+     * Creates a filter that accepts the resources that the given filter rejects.
+     * The inverse of a resource or tag filter that ignores NBT is still precompiled, but never accepts a {@code null} resource.
+     *
+     * @param filter the filter to invert
+     * @return the inverted filter
+     * @param <Resource> the type of resource being filtered
+     */
+    @Contract(pure = true)
+    public static <Resource> @NotNull ResourceFilter<Resource> not(@NotNull ResourceFilter<Resource> filter) {
+        return CompiledResourceFilter.not(filter);
+    }
+
+    /**
+     * Wraps a filter so that its result is remembered for every resource it is tested with (without NBT).
+     * Only use this for filters whose result depends solely on the resource and tag (such as item API lookups).
+     * Cached results are discarded whenever tags are reloaded.
+     *
+     * @param filter the filter to cache
+     * @return a caching filter
+     * @param <Resource> the type of resource being filtered
+     */
+    @Contract(pure = true)
+    public static <Resource> @NotNull ResourceFilter<Resource> cached(@NotNull ResourceFilter<Resource> filter) {
+        return cached(filter, CachingResourceFilter.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Wraps a filter so that its result is remembered for every resource it is tested with (without NBT).
+     *
+     * @param filter the filter to cache
+     * @param maxSize the maximum number of results to remember, after which the least recently used is forgotten
+     * @return a caching filter
+     * @param <Resource> the type of resource being filtered
+     * @see #cached(ResourceFilter)
+     */
+    @Contract(pure = true)
+    public static <Resource> @NotNull ResourceFilter<Resource> cached(@NotNull ResourceFilter<Resource> filter, int maxSize) {
+        if (filter instanceof CachingResourceFilter<Resource>) return filter;
+        return new CachingResourceFilter<>(filter, maxSize, false);
+    }
+
+    /**
+     * Wraps a filter so that its result is remembered for every resource it is tested with, regardless of NBT.
+     * Only use this for filters whose result depends solely on the resource (such as whether an item exposes an
+     * energy storage at all), as the result for one tag is reused for every other tag.
+     * Cached results are discarded whenever tags are reloaded.
+     *
+     * @param filter the filter to cache
+     * @return a caching filter
+     * @param <Resource> the type of resource being filtered
+     * @see #cached(ResourceFilter)
+     */
+    @Contract(pure = true)
+    public static <Resource> @NotNull ResourceFilter<Resource> cachedAnyNBT(@NotNull ResourceFilter<Resource> filter) {
+        if (filter instanceof CachingResourceFilter<Resource> caching && caching.ignoresNbt()) return filter;
+        return new CachingResourceFilter<>(filter, CachingResourceFilter.DEFAULT_MAX_SIZE, true);
     }
 
     @Contract(pure = true)
@@ -34,6 +34,8 @@
 
     @NotNull Group getGroup(@NotNull SlotGroupType type);
 
+    long getModifications(@NotNull SlotGroupType type);
+
     @NotNull Slot getSlot(@NotNull SlotGroupType type);
 
     @NotNull SlotGroupType @NotNull [] getTypes();
@@ -29,6 +29,8 @@
 import dev.galacticraft.machinelib.api.util.Deserializable;
 import dev.galacticraft.machinelib.impl.storage.slot.FluidSlotGroupImpl;
 import dev.galacticraft.machinelib.impl.storage.slot.ItemSlotGroupImpl;
+import dev.galacticraft.machinelib.impl.storage.slot.PackedFluidSlotGroupImpl;
+import dev.galacticraft.machinelib.impl.storage.slot.PackedItemSlotGroupImpl;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -58,6 +60,29 @@
         return new Builder<>(SlotGroup::ofFluid, FluidResourceSlot[]::new);
     }
 
+    /**
+     * Creates a builder for an item slot group that stores its slots' contents in parallel arrays.
+     * The slots passed to the builder only provide the slot definitions (display, filters and capacity);
+     * the group exposes its own views over the packed state.
+     *
+     * @return a new packed item slot group builder
+     */
+    @Contract(value = " -> new", pure = true)
+    static @NotNull Builder<Item, ItemStack, ItemResourceSlot> packedItem() {
+        return new Builder<>(PackedItemSlotGroupImpl::new, ItemResourceSlot[]::new);
+    }
+
+    /**
+     * Creates a builder for a fluid slot group that stores its slots' contents in parallel arrays.
+     *
+     * @return a new packed fluid slot group builder
+     * @see #packedItem()
+     */
+    @Contract(value = " -> new", pure = true)
+    static @NotNull Builder<Fluid, FluidStack, FluidResourceSlot> packedFluid() {
+        return new Builder<>(PackedFluidSlotGroupImpl::new, FluidResourceSlot[]::new);
+    }
+
     @Contract("_ -> new")
     @SafeVarargs
     static <Slot extends ResourceSlot<Fluid, FluidStack>> @NotNull SlotGroup<Fluid, FluidStack, Slot> ofFluid(@NotNull Slot... slots) {
@@ -24,8 +24,7 @@
 
 import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
 import dev.galacticraft.machinelib.api.storage.slot.SlotGroup;
-import it.unimi.dsi.fastutil.longs.LongArrayList;
-import it.unimi.dsi.fastutil.longs.LongList;
+import dev.galacticraft.machinelib.impl.transfer.exposed.DirectTransfer;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
 import net.fabricmc.fabric.api.transfer.v1.storage.StoragePreconditions;
 import net.fabricmc.fabric.api.transfer.v1.storage.StorageView;
@@ -33,8 +32,11 @@
 import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Iterator;
+
 /**
  * Utility methods for dealing with {@link Storage storages}.
  */
@@ -132,12 +134,13 @@ public static <Resource, Variant extends TransferVariant<Resource>, S extends St
     public static <T, S extends Storage<T>> long move(T variant, @Nullable S from, @Nullable S to, long maxAmount, @Nullable TransactionContext context) {
         if (from == null || to == null) return 0;
         StoragePreconditions.notNegative(maxAmount);
-
-        long maxExtracted;
-        try (Transaction extractionTestTransaction = Transaction.openNested(context)) {
-            maxExtracted = from.extract(variant, maxAmount, extractionTestTransaction);
+        if (variant instanceof TransferVariant<?> transferVariant && DirectTransfer.isSupported(from) && DirectTransfer.isSupported(to)) {
+            if (transferVariant.isBlank() || maxAmount == 0) return 0;
+            return DirectTransfer.move(transferVariant.getObject(), transferVariant.getNbt(), from, to, maxAmount, context);
         }
 
+        long maxExtracted = from.simulateExtract(variant, maxAmount, context);
+
         try (Transaction moveTransaction = Transaction.openNested(context)) {
             long accepted = to.insert(variant, maxExtracted, moveTransaction);
 
@@ -150,22 +153,86 @@ public static <T, S extends Storage<T>> long move(T variant, @Nullable S from, @
         return 0;
     }
 
-    public static <T, S extends Storage<T>> void moveAll(@Nullable S from, @Nullable S to, long maxPerTransaction, @Nullable TransactionContext context) {
-        if (from == null || to == null || !from.supportsExtraction() || !to.supportsInsertion()) return;
+    /**
+     * Moves as many resources as possible from one storage to another, at most {@code maxPerTransaction} per view.
+     * Works in a single pass over the source: each view's extractable amount is simulated (without a throwaway
+     * transaction when the view supports it), offered to the target, and then extracted.
+     * Transfers between two exposed MachineLib storages skip the transfer API and move directly between slots.
+     *
+     * @param from the storage to extract from
+     * @param to the storage to insert into
+     * @param maxPerTransaction the maximum amount to move out of each view
+     * @param context the transaction to move in, or {@code null} to open a new one
+     * @return the total amount moved
+     */
+    public static <T, S extends Storage<T>> long moveAll(@Nullable S from, @Nullable S to, long maxPerTransaction, @Nullable TransactionContext context) {
+        return moveAll(from, to, maxPerTransaction, Long.MAX_VALUE, context);
+    }
+
+    /**
+     * Moves resources like {@link #moveAll(Storage, Storage, long, TransactionContext)}, but stops once
+     * {@code maxAmount} units have been moved in total.
+     *
+     * @param from the storage to extract from
+     * @param to the storage to insert into
+     * @param maxPerTransaction the maximum amount to move out of each view
+     * @param maxAmount the maximum amount to move in total
+     * @param context the transaction to move in, or {@code null} to open a new one
+     * @return the total amount moved
+     */
+    public static <T, S extends Storage<T>> long moveAll(@Nullable S from, @Nullable S to, long maxPerTransaction, long maxAmount, @Nullable TransactionContext context) {
+        if (from == null || to == null || !from.supportsExtraction() || !to.supportsInsertion()) return 0;
         StoragePreconditions.notNegative(maxPerTransaction);
-        LongList list = new LongArrayList();
-        try (Transaction indexingTransaction = Transaction.openNested(context)) {
-            for (StorageView<T> view : from) {
-                list.add(to.insert(view.getResource(), view.extract(view.getResource(), maxPerTransaction, indexingTransaction), indexingTransaction));
-            }
+        StoragePreconditions.notNegative(maxAmount);
+        if (maxPerTransaction == 0 || maxAmount == 0) return 0;
+        if (DirectTransfer.isSupported(from) && DirectTransfer.isSupported(to)) {
+            return DirectTransfer.moveAll(from, to, maxPerTransaction, maxAmount, context);
         }
 
-        int i = 0;
+        long moved = 0;
         try (Transaction transaction = Transaction.openNested(context)) {
             for (StorageView<T> view : from) {
-                list.add(to.insert(view.getResource(), view.extract(view.getResource(), list.getLong(i++), transaction), transaction));
+                if (moved == maxAmount) break;
+                if (view.isResourceBlank()) continue;
+                T resource = view.getResource();
+                long limit = Math.min(maxPerTransaction, maxAmount - moved);
+
+                long extractable;
+                if (view instanceof Storage<?>) {
+                    //noinspection unchecked
+                    extractable = ((Storage<T>) view).simulateExtract(resource, limit, transaction);
+                } else {
+                    try (Transaction test = transaction.openNested()) {
+                        extractable = view.extract(resource, limit, test);
+                    }
+                }
+                if (extractable == 0) continue;
+
+                try (Transaction step = transaction.openNested()) {
+                    long accepted = to.insert(resource, extractable, step);
+                    if (accepted > 0 && view.extract(resource, accepted, step) == accepted) {
+                        step.commit();
+                        moved += accepted;
+                    }
+                }
             }
             transaction.commit();
         }
+        return moved;
+    }
+
+    /**
+     * Returns the total amount of resources held by the given storage.
+     *
+     * @param storage the storage to count
+     * @return the total amount held by the storage, or {@link Long#MAX_VALUE} if it overflows
+     */
+    public static <T> long getAmount(@NotNull Storage<T> storage) {
+        long amount = 0;
+        for (Iterator<StorageView<T>> iterator = storage.nonEmptyIterator(); iterator.hasNext(); ) {
+            amount += iterator.next().getAmount();
+            if (amount < 0) return Long.MAX_VALUE;
+        }
+        return amount;
     }
 }
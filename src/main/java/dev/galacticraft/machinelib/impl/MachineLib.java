@@ -22,11 +22,18 @@
 
 package dev.galacticraft.machinelib.impl;
 
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
 import dev.galacticraft.machinelib.api.machine.MachineStatus;
 import dev.galacticraft.machinelib.api.machine.MachineStatuses;
 import dev.galacticraft.machinelib.api.storage.slot.SlotGroupType;
+import dev.galacticraft.machinelib.impl.energy.EnergyNetworkManager;
 import dev.galacticraft.machinelib.impl.network.MachineLibC2SPackets;
+import dev.galacticraft.machinelib.impl.storage.CachingResourceFilter;
+import dev.galacticraft.machinelib.impl.storage.CompiledResourceFilter;
+import dev.galacticraft.machinelib.impl.transfer.routing.RoutingNetworkManager;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.registry.FabricRegistryBuilder;
 import net.fabricmc.fabric.api.event.registry.RegistryAttribute;
 import net.minecraft.core.DefaultedRegistry;
@@ -50,5 +57,12 @@ public final class MachineLib implements ModInitializer {
     public void onInitialize() {
         MachineLibC2SPackets.register();
         MachineStatuses.initialize();
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            CompiledResourceFilter.invalidateAll();
+            CachingResourceFilter.invalidateAll();
+        });
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> MachineBlockEntity.wakeAll());
+        EnergyNetworkManager.register();
+        RoutingNetworkManager.register();
     }
 }
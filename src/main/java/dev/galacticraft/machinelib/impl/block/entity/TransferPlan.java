@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.block.entity;
+
+import dev.galacticraft.machinelib.api.machine.configuration.face.BlockFace;
+import dev.galacticraft.machinelib.impl.Constant;
+import net.minecraft.core.Direction;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * The (world) directions a machine can push a resource out of, along with the exposed storage of each.
+ * Only rebuilt when the machine's facing or I/O configuration changes, so that machines do not need to resolve all six
+ * faces every tick.
+ *
+ * @param <S> the type of exposed storage
+ */
+@ApiStatus.Internal
+public final class TransferPlan<S> {
+    private final Direction[] directions = new Direction[Constant.Cache.DIRECTIONS.length];
+    private final BlockFace[] faces = new BlockFace[Constant.Cache.DIRECTIONS.length];
+    private final Object[] storages = new Object[Constant.Cache.DIRECTIONS.length];
+    private int size = 0;
+
+    private @Nullable Direction facing = null;
+    private long modifications = -1;
+
+    /**
+     * {@return whether this plan was built for the given facing and I/O configuration}
+     *
+     * @param facing the current facing of the machine
+     * @param modifications the current modification count of the machine's I/O configuration
+     */
+    public boolean isValid(@NotNull Direction facing, long modifications) {
+        return this.facing == facing && this.modifications == modifications;
+    }
+
+    /**
+     * Rebuilds this plan.
+     *
+     * @param facing the current facing of the machine
+     * @param modifications the current modification count of the machine's I/O configuration
+     * @param resolver resolves the exposed storage of a face, given the facing and (world) direction
+     * @param active whether a resolved storage can push resources
+     */
+    public void rebuild(@NotNull Direction facing, long modifications, @NotNull BiFunction<Direction, Direction, @Nullable S> resolver, @NotNull Predicate<S> active) {
+        this.facing = facing;
+        this.modifications = modifications;
+        this.size = 0;
+        for (Direction direction : Constant.Cache.DIRECTIONS) {
+            S storage = resolver.apply(facing, direction);
+            if (storage != null && active.test(storage)) {
+                this.directions[this.size] = direction;
+                this.faces[this.size] = BlockFace.toFace(facing, direction);
+                this.storages[this.size++] = storage;
+            }
+        }
+        for (int i = this.size; i < this.storages.length; i++) {
+            this.directions[i] = null;
+            this.faces[i] = null;
+            this.storages[i] = null;
+        }
+    }
+
+    /**
+     * {@return the number of directions in this plan}
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * {@return the (world) direction of the given entry}
+     *
+     * @param i the index of the entry
+     */
+    public @NotNull Direction getDirection(int i) {
+        return this.directions[i];
+    }
+
+    /**
+     * {@return the (machine-relative) face of the given entry}
+     *
+     * @param i the index of the entry
+     */
+    public @NotNull BlockFace getFace(int i) {
+        return this.faces[i];
+    }
+
+    /**
+     * {@return the exposed storage of the given entry}
+     *
+     * @param i the index of the entry
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull S getStorage(int i) {
+        return (S) this.storages[i];
+    }
+}
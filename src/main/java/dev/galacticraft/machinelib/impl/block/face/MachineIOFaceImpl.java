@@ -77,6 +77,7 @@ public final class MachineIOFaceImpl implements MachineIOFace {
     private @Nullable ExposedStorage<Item, ItemVariant> cachedItemStorage = null;
     private @Nullable ExposedStorage<Fluid, FluidVariant> cachedFluidStorage = null;
     private @Nullable EnergyStorage cachedEnergyStorage = null;
+    private long modifications = 0;
 
     public MachineIOFaceImpl(@NotNull ResourceType type, @NotNull ResourceFlow flow) {
         this.type = type;
@@ -92,6 +93,12 @@ public void setOption(@NotNull ResourceType type, @NotNull ResourceFlow flow) {
         this.cachedItemStorage = null;
         this.cachedFluidStorage = null;
         this.cachedEnergyStorage = null;
+        this.modifications++;
+    }
+
+    @Override
+    public long getModifications() {
+        return this.modifications;
     }
 
     @Override
@@ -115,6 +122,7 @@ public void setSelection(@Nullable StorageSelection selection) {
         this.cachedItemStorage = null;
         this.cachedFluidStorage = null;
         this.cachedEnergyStorage = null;
+        this.modifications++;
     }
 
     @Override
@@ -198,6 +206,7 @@ public void readTag(@NotNull CompoundTag tag) {
         this.cachedItemStorage = null;
         this.cachedFluidStorage = null;
         this.cachedEnergyStorage = null;
+        this.modifications++;
     }
 
     @Override
@@ -232,6 +241,7 @@ public void readPacket(@NotNull FriendlyByteBuf buf) {
         this.cachedItemStorage = null;
         this.cachedFluidStorage = null;
         this.cachedEnergyStorage = null;
+        this.modifications++;
     }
 
     @Contract(" -> new")
@@ -71,6 +71,11 @@ public NullMachineIOFaceImpl() {
     public void setOption(@NotNull ResourceType type, @NotNull ResourceFlow flow) {
     }
 
+    @Override
+    public long getModifications() {
+        return 0;
+    }
+
     @Override
     public @NotNull ResourceType getType() {
         return ResourceType.ANY;
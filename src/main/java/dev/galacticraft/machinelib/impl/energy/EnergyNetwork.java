@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.energy;
+
+import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
+import dev.galacticraft.machinelib.impl.Constant;
+import dev.galacticraft.machinelib.impl.grid.Grid;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import net.minecraft.core.Direction;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group of connected machines that share energy.
+ * Instead of every machine pushing energy to its neighbours, the network balances energy between its members once per
+ * tick: every provider gives up a share proportional to what it can provide, and receivers are filled in order of
+ * descending priority, proportionally to what they can accept within each priority.
+ * Energy only flows along links from a face that allows extraction into a face that allows insertion, so providers
+ * are grouped by the receivers they can reach that way, and each group is balanced on its own.
+ * Providers never give up more than the push rate limits of their linked faces allow. Distribution strategies do not
+ * apply, as the network splits energy itself.
+ */
+@ApiStatus.Internal
+public final class EnergyNetwork extends Grid<EnergyNetworkNode> {
+    private static final long[] EMPTY = new long[0];
+    private static final int[] EMPTY_INT = new int[0];
+
+    private long[] supply = EMPTY;
+    private long[] demand = EMPTY;
+    private int[] priority = EMPTY_INT;
+    private long[] provided = EMPTY;
+    private long[] received = EMPTY;
+    private long[] groupSupply = EMPTY;
+    private long[] groupDemand = EMPTY;
+    private long[] totalProvided = EMPTY;
+    private long[] totalReceived = EMPTY;
+
+    /**
+     * The providers of each group, and the receivers they can reach.
+     */
+    private final List<Group> groups = new ArrayList<>();
+    private boolean dirty = true;
+
+    /**
+     * Adds a node, keeping the members sorted by descending priority.
+     */
+    @Override
+    protected void add(@NotNull EnergyNetworkNode node) {
+        super.add(node);
+        int i = this.members.size() - 1;
+        while (i > 0 && this.members.get(i - 1).priority < node.priority) {
+            this.members.set(i, this.members.get(i - 1));
+            i--;
+        }
+        this.members.set(i, node);
+        this.dirty = true;
+    }
+
+    @Override
+    protected void remove(@NotNull EnergyNetworkNode node) {
+        super.remove(node);
+        this.dirty = true;
+    }
+
+    /**
+     * Distributes energy between the members of this network.
+     */
+    @Override
+    protected void tick() {
+        int n = this.members.size();
+        if (n < 2) return;
+        if (this.supply.length < n) {
+            this.supply = new long[n];
+            this.demand = new long[n];
+            this.priority = new int[n];
+            this.provided = new long[n];
+            this.received = new long[n];
+            this.groupSupply = new long[n];
+            this.groupDemand = new long[n];
+            this.totalProvided = new long[n];
+            this.totalReceived = new long[n];
+        }
+
+        for (int i = 0; i < n; i++) {
+            this.dirty |= this.members.get(i).updateRoles();
+        }
+        if (this.dirty) {
+            this.dirty = false;
+            this.buildGroups();
+        }
+
+        for (int i = 0; i < n; i++) {
+            EnergyNetworkNode node = this.members.get(i);
+            MachineEnergyStorage storage = node.getMachine().energyStorage();
+            this.supply[i] = node.provides() ? storage.tryExtract(node.getSupplyLimit()) : 0;
+            this.demand[i] = node.receives() ? storage.tryInsert(Long.MAX_VALUE) : 0;
+            this.priority[i] = node.priority;
+            this.totalProvided[i] = 0;
+            this.totalReceived[i] = 0;
+        }
+
+        long moved = 0;
+        for (Group group : this.groups) {
+            for (int i = 0; i < n; i++) {
+                this.groupSupply[i] = group.providers.get(i) ? this.supply[i] : 0;
+                this.groupDemand[i] = group.receivers.get(i) ? this.demand[i] - this.totalReceived[i] : 0;
+            }
+            moved += distribute(this.groupSupply, this.groupDemand, this.priority, n, this.provided, this.received);
+            for (int i = 0; i < n; i++) {
+                this.totalProvided[i] += this.provided[i];
+                this.totalReceived[i] += this.received[i];
+            }
+        }
+        if (moved == 0) return;
+
+        // a member may both provide and receive energy, so only apply the difference
+        for (int i = 0; i < n; i++) {
+            long net = this.totalReceived[i] - this.totalProvided[i];
+            if (net > 0) {
+                this.members.get(i).getMachine().energyStorage().insert(net);
+            } else if (net < 0) {
+                this.members.get(i).getMachine().energyStorage().extract(-net);
+            }
+        }
+    }
+
+    /**
+     * Groups the providers by the set of receivers they can reach along links that go from a face that allows
+     * extraction into a face that allows insertion (possibly through other members).
+     * In a network where every link works both ways, this results in a single group.
+     */
+    private void buildGroups() {
+        this.groups.clear();
+        int n = this.members.size();
+        for (int i = 0; i < n; i++) {
+            this.members.get(i).index = i;
+        }
+
+        Map<BitSet, Group> byReceivers = new LinkedHashMap<>();
+        IntArrayFIFOQueue queue = new IntArrayFIFOQueue();
+        for (int i = 0; i < n; i++) {
+            if (!this.members.get(i).provides()) continue;
+            BitSet visited = new BitSet(n);
+            visited.set(i);
+            queue.enqueue(i);
+            while (!queue.isEmpty()) {
+                EnergyNetworkNode node = this.members.get(queue.dequeueInt());
+                for (Direction direction : Constant.Cache.DIRECTIONS) {
+                    if (!node.canSupply(direction)) continue;
+                    int next = ((EnergyNetworkNode) node.getNeighbour(direction)).index;
+                    if (!visited.get(next)) {
+                        visited.set(next);
+                        queue.enqueue(next);
+                    }
+                }
+            }
+
+            BitSet receivers = new BitSet(n);
+            for (int j = visited.nextSetBit(0); j >= 0; j = visited.nextSetBit(j + 1)) {
+                if (j != i && this.members.get(j).receives()) receivers.set(j);
+            }
+            if (receivers.isEmpty()) continue;
+            byReceivers.computeIfAbsent(receivers, r -> {
+                Group group = new Group(new BitSet(n), r);
+                this.groups.add(group);
+                return group;
+            }).providers.set(i);
+        }
+    }
+
+    /**
+     * Decides how much energy each member provides and receives.
+     * The total amount moved is the lesser of the total supply and demand.
+     * Providers contribute proportionally to their supply, while receivers are filled in order of priority
+     * (proportionally to their demand within each priority).
+     *
+     * @param supply the amount of energy each member can provide
+     * @param demand the amount of energy each member can receive
+     * @param priority the priority of each member, sorted in descending order
+     * @param n the number of members
+     * @param provided receives the amount of energy each member should provide
+     * @param received receives the amount of energy each member should receive
+     * @return the total amount of energy moved
+     */
+    public static long distribute(long @NotNull [] supply, long @NotNull [] demand, int @NotNull [] priority, int n, long @NotNull [] provided, long @NotNull [] received) {
+        long totalSupply = sum(supply, 0, n);
+        long totalDemand = sum(demand, 0, n);
+        long moved = Math.min(totalSupply, totalDemand);
+
+        share(supply, 0, n, totalSupply, moved, provided);
+
+        long remaining = moved;
+        int start = 0;
+        while (start < n) {
+            int end = start + 1;
+            while (end < n && priority[end] == priority[start]) end++;
+            long groupDemand = sum(demand, start, end);
+            long groupMoved = Math.min(remaining, groupDemand);
+            share(demand, start, end, groupDemand, groupMoved, received);
+            remaining -= groupMoved;
+            start = end;
+        }
+        return moved;
+    }
+
+    /**
+     * Splits the given amount between the given range of values, proportionally to each value.
+     * Assumes that the amount does not exceed the total.
+     */
+    private static void share(long @NotNull [] values, int from, int to, long total, long amount, long @NotNull [] out) {
+        long assigned = 0;
+        for (int i = from; i < to; i++) {
+            long share = total == 0 ? 0 : (long) ((double) values[i] * amount / total);
+            out[i] = Math.min(Math.min(values[i], share), amount - assigned);
+            assigned += out[i];
+        }
+        // hand out whatever was lost to rounding
+        for (int i = from; i < to && assigned < amount; i++) {
+            long extra = Math.min(amount - assigned, values[i] - out[i]);
+            out[i] += extra;
+            assigned += extra;
+        }
+    }
+
+    private static long sum(long @NotNull [] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+            if (sum < 0) return Long.MAX_VALUE;
+        }
+        return sum;
+    }
+
+    /**
+     * Providers that can reach exactly the same receivers.
+     *
+     * @param providers the indices of the providers
+     * @param receivers the indices of the receivers they can reach
+     */
+    private record Group(@NotNull BitSet providers, @NotNull BitSet receivers) {
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.energy;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.impl.grid.GridManager;
+import net.minecraft.core.Direction;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import team.reborn.energy.api.EnergyStorage;
+
+/**
+ * Keeps track of the energy networks in a level.
+ * Adjacent machines are only part of the same network if energy can flow between the touching faces in at least one
+ * direction.
+ *
+ * @see MachineBlockEntity#joinsEnergyNetwork()
+ */
+@ApiStatus.Internal
+public final class EnergyNetworkManager extends GridManager<EnergyNetworkNode, EnergyNetwork> {
+    public static void register() {
+        register(MachineBlockEntity::joinsEnergyNetwork, EnergyNetworkManager::new);
+    }
+
+    @Override
+    protected @NotNull EnergyNetworkNode createNode(@NotNull MachineBlockEntity machine, long pos) {
+        return new EnergyNetworkNode(machine, pos, machine.getEnergyNetworkPriority());
+    }
+
+    @Override
+    protected @NotNull EnergyNetwork createGrid() {
+        return new EnergyNetwork();
+    }
+
+    @Override
+    protected boolean connects(@NotNull EnergyNetworkNode node, @NotNull Direction direction, @NotNull EnergyNetworkNode neighbour) {
+        EnergyStorage a = node.getMachine().getExposedEnergyStorageTowards(direction);
+        if (a == null) return false;
+        EnergyStorage b = neighbour.getMachine().getExposedEnergyStorageTowards(direction.getOpposite());
+        if (b == null) return false;
+        return (a.supportsExtraction() && b.supportsInsertion()) || (a.supportsInsertion() && b.supportsExtraction());
+    }
+
+    @Override
+    protected @Nullable EnergyNetworkNode getNode(@NotNull MachineBlockEntity machine) {
+        return machine.getEnergyNetworkNode();
+    }
+
+    @Override
+    protected void setNode(@NotNull MachineBlockEntity machine, @Nullable EnergyNetworkNode node) {
+        machine.setEnergyNetworkNode(node);
+    }
+}
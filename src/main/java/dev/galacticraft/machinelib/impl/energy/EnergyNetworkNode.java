@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.energy;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.machine.configuration.face.BlockFace;
+import dev.galacticraft.machinelib.api.storage.io.ResourceType;
+import dev.galacticraft.machinelib.impl.Constant;
+import dev.galacticraft.machinelib.impl.grid.GridNode;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import team.reborn.energy.api.EnergyStorage;
+
+/**
+ * A machine that is part of an {@link EnergyNetwork}.
+ */
+@ApiStatus.Internal
+public final class EnergyNetworkNode extends GridNode {
+    final int priority;
+
+    private long modifications = -1;
+    private @Nullable Direction facing = null;
+    private int roleLinks = -1;
+    /**
+     * The linked (world) directions whose face allows extraction, as a bitmask.
+     */
+    private int outputs = 0;
+    /**
+     * The linked (world) directions whose face allows insertion, as a bitmask.
+     */
+    private int inputs = 0;
+    /**
+     * The index of this node in its network's member list. Only valid while the network's groups are up to date.
+     */
+    int index = -1;
+
+    private long linkModifications;
+    private @NotNull Direction linkFacing;
+
+    EnergyNetworkNode(@NotNull MachineBlockEntity machine, long pos, int priority) {
+        super(machine, pos);
+        this.priority = priority;
+        this.linkModifications = machine.getIOConfig().getModifications();
+        this.linkFacing = machine.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Links depend on the energy I/O configuration of the faces, so they change with the I/O configuration or facing.
+     */
+    @Override
+    protected boolean connectionsChanged() {
+        long modifications = this.machine.getIOConfig().getModifications();
+        Direction facing = this.machine.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+        if (modifications == this.linkModifications && facing == this.linkFacing) return false;
+        this.linkModifications = modifications;
+        this.linkFacing = facing;
+        return true;
+    }
+
+    /**
+     * {@return whether this machine can provide energy to the network}
+     * Only valid after {@link #updateRoles()}.
+     */
+    boolean provides() {
+        return this.outputs != 0;
+    }
+
+    /**
+     * {@return whether this machine can receive energy from the network}
+     * Only valid after {@link #updateRoles()}.
+     */
+    boolean receives() {
+        return this.inputs != 0;
+    }
+
+    /**
+     * {@return whether energy can flow out of this machine into the member in the given direction}
+     * Energy only flows from a face that allows extraction into a touching face that allows insertion.
+     * Only valid after {@link #updateRoles()} was called on both nodes.
+     *
+     * @param direction the (world) direction of the neighbour
+     */
+    boolean canSupply(@NotNull Direction direction) {
+        if ((this.outputs & 1 << direction.ordinal()) == 0) return false;
+        EnergyNetworkNode neighbour = (EnergyNetworkNode) this.getNeighbour(direction);
+        return neighbour != null && (neighbour.inputs & 1 << direction.getOpposite().ordinal()) != 0;
+    }
+
+    /**
+     * Returns the most energy this machine may provide to the network this tick.
+     * The network does not track how much energy leaves through each face, so this is the sum of the
+     * {@linkplain MachineBlockEntity#getPushRateLimit(ResourceType, BlockFace) push rate limits} of the faces that lead
+     * to other members and allow extraction.
+     *
+     * @return the most energy this machine may provide
+     */
+    long getSupplyLimit() {
+        Direction facing = this.machine.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+        long limit = 0;
+        for (Direction direction : Constant.Cache.DIRECTIONS) {
+            if (!this.isLinked(direction)) continue;
+            EnergyStorage storage = this.machine.getExposedEnergyStorageTowards(direction);
+            if (storage == null || !storage.supportsExtraction()) continue;
+            limit += this.machine.getPushRateLimit(ResourceType.ENERGY, BlockFace.toFace(facing, direction));
+            if (limit < 0) return Long.MAX_VALUE;
+        }
+        return limit;
+    }
+
+    /**
+     * Re-evaluates which linked faces of this machine allow extraction and insertion, if its I/O configuration, facing
+     * or links changed.
+     * A machine provides (receives) energy if any face leading to another member allows extraction (insertion).
+     *
+     * @return whether the faces were re-evaluated
+     */
+    boolean updateRoles() {
+        long modifications = this.machine.getIOConfig().getModifications();
+        Direction facing = this.machine.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+        if (modifications == this.modifications && facing == this.facing && this.getLinks() == this.roleLinks) return false;
+        this.modifications = modifications;
+        this.facing = facing;
+        this.roleLinks = this.getLinks();
+
+        this.outputs = 0;
+        this.inputs = 0;
+        for (Direction direction : Constant.Cache.DIRECTIONS) {
+            if (!this.isLinked(direction)) continue;
+            EnergyStorage storage = this.machine.getExposedEnergyStorageTowards(direction);
+            if (storage != null) {
+                if (storage.supportsExtraction()) this.outputs |= 1 << direction.ordinal();
+                if (storage.supportsInsertion()) this.inputs |= 1 << direction.ordinal();
+            }
+        }
+        return true;
+    }
+}
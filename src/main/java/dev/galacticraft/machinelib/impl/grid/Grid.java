@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.grid;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A group of adjacent machines that is ticked as a whole.
+ *
+ * @param <N> the type of node in this grid
+ */
+@ApiStatus.Internal
+public abstract class Grid<N extends GridNode> {
+    protected final List<N> members = new ArrayList<>();
+
+    /**
+     * Adds a node to this grid.
+     * Subclasses may override this to keep the members in a specific order.
+     *
+     * @param node the node to add
+     */
+    protected void add(@NotNull N node) {
+        this.members.add(node);
+        node.grid = this;
+    }
+
+    protected void remove(@NotNull N node) {
+        this.members.remove(node);
+        node.grid = null;
+    }
+
+    public @NotNull List<N> members() {
+        return this.members;
+    }
+
+    public int size() {
+        return this.members.size();
+    }
+
+    /**
+     * Called once at the end of every level tick.
+     */
+    protected abstract void tick();
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.grid;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.impl.Constant;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the grids in a level.
+ * Grids are updated incrementally as member machines are loaded and unloaded: a joining machine merges the grids of
+ * its neighbours, and a leaving machine splits its grid into connected components if needed.
+ * Adjacent machines are only linked if {@link #connects(GridNode, Direction, GridNode)} allows it, which is checked
+ * again whenever a node reports that its {@linkplain GridNode#connectionsChanged() connections may have changed}.
+ *
+ * @param <N> the type of node
+ * @param <G> the type of grid
+ */
+@ApiStatus.Internal
+public abstract class GridManager<N extends GridNode, G extends Grid<N>> {
+    private final Long2ObjectMap<N> nodes = new Long2ObjectOpenHashMap<>();
+    private final Set<G> grids = new ReferenceLinkedOpenHashSet<>();
+
+    /**
+     * Creates a manager for every server level that contains a machine that joins the grid, and keeps it up to date.
+     * Grids are ticked at the end of every level tick.
+     *
+     * @param joins whether a machine joins the grid
+     * @param factory creates a new manager
+     */
+    protected static void register(@NotNull Predicate<MachineBlockEntity> joins, @NotNull Supplier<? extends GridManager<?, ?>> factory) {
+        Reference2ObjectMap<ServerLevel, GridManager<?, ?>> managers = new Reference2ObjectOpenHashMap<>();
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, level) -> {
+            if (blockEntity instanceof MachineBlockEntity machine && joins.test(machine)) {
+                managers.computeIfAbsent(level, l -> factory.get()).join(machine);
+            }
+        });
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, level) -> {
+            if (blockEntity instanceof MachineBlockEntity machine) {
+                GridManager<?, ?> manager = managers.get(level);
+                if (manager != null) manager.leave(machine);
+            }
+        });
+        ServerTickEvents.END_WORLD_TICK.register(level -> {
+            GridManager<?, ?> manager = managers.get(level);
+            if (manager != null) manager.tick();
+        });
+        ServerWorldEvents.UNLOAD.register((server, level) -> managers.remove(level));
+    }
+
+    protected abstract @NotNull N createNode(@NotNull MachineBlockEntity machine, long pos);
+
+    protected abstract @NotNull G createGrid();
+
+    protected abstract @Nullable N getNode(@NotNull MachineBlockEntity machine);
+
+    protected abstract void setNode(@NotNull MachineBlockEntity machine, @Nullable N node);
+
+    /**
+     * Returns whether two adjacent machines should be part of the same grid.
+     * Must give the same result when called with the nodes swapped (and the direction reversed).
+     * By default, all adjacent machines are linked.
+     *
+     * @param node the first machine
+     * @param direction the (world) direction from the first machine to the second
+     * @param neighbour the second machine
+     * @return whether the machines should be linked
+     */
+    protected boolean connects(@NotNull N node, @NotNull Direction direction, @NotNull N neighbour) {
+        return true;
+    }
+
+    /**
+     * Adds a machine to the grid of its neighbours, merging their grids if there is more than one.
+     *
+     * @param machine the machine to add
+     */
+    public void join(@NotNull MachineBlockEntity machine) {
+        long pos = machine.getBlockPos().asLong();
+        N stale = this.nodes.get(pos);
+        if (stale != null) this.leave(stale.machine);
+
+        N node = this.createNode(machine, pos);
+        this.nodes.put(pos, node);
+        this.setNode(machine, node);
+
+        G grid = null;
+        for (Direction direction : Constant.Cache.DIRECTIONS) {
+            N neighbour = this.nodes.get(BlockPos.offset(pos, direction));
+            if (neighbour == null || !this.connects(node, direction, neighbour)) continue;
+            node.link(direction, neighbour);
+            neighbour.link(direction.getOpposite(), node);
+
+            G other = this.gridOf(neighbour);
+            if (grid == null) {
+                grid = other;
+            } else if (other != grid) {
+                grid = this.merge(grid, other);
+            }
+        }
+        if (grid == null) {
+            grid = this.createGrid();
+            this.grids.add(grid);
+        }
+        grid.add(node);
+    }
+
+    /**
+     * Removes a machine from its grid, splitting the grid if the machine connected separate parts of it.
+     *
+     * @param machine the machine to remove
+     */
+    public void leave(@NotNull MachineBlockEntity machine) {
+        N node = this.getNode(machine);
+        this.setNode(machine, null);
+        if (node == null || this.nodes.get(node.pos) != node) return;
+        this.nodes.remove(node.pos);
+
+        G grid = this.gridOf(node);
+        grid.remove(node);
+
+        int neighbours = 0;
+        for (Direction direction : Constant.Cache.DIRECTIONS) {
+            GridNode neighbour = node.getNeighbour(direction);
+            if (neighbour != null) {
+                neighbour.unlink(direction.getOpposite());
+                node.unlink(direction);
+                neighbours++;
+            }
+        }
+
+        if (grid.size() == 0) {
+            this.grids.remove(grid);
+        } else if (neighbours > 1) {
+            this.split(grid);
+        }
+    }
+
+    /**
+     * Ticks every grid in this level, after re-evaluating the links of any machine whose connections may have changed.
+     */
+    public void tick() {
+        for (N node : this.nodes.values()) {
+            if (node.connectionsChanged()) this.relink(node);
+        }
+        for (G grid : this.grids) {
+            grid.tick();
+        }
+    }
+
+    /**
+     * Re-evaluates the links between a machine and its neighbours, merging or splitting grids as needed.
+     *
+     * @param node the machine to re-evaluate
+     */
+    private void relink(@NotNull N node) {
+        boolean unlinked = false;
+        for (Direction direction : Constant.Cache.DIRECTIONS) {
+            N neighbour = this.nodes.get(BlockPos.offset(node.pos, direction));
+            if (neighbour == null) continue;
+            boolean connects = this.connects(node, direction, neighbour);
+            if (connects == node.isLinked(direction)) continue;
+
+            if (connects) {
+                node.link(direction, neighbour);
+                neighbour.link(direction.getOpposite(), node);
+                G grid = this.gridOf(node);
+                G other = this.gridOf(neighbour);
+                if (other != grid) this.merge(grid, other);
+            } else {
+                node.unlink(direction);
+                neighbour.unlink(direction.getOpposite());
+                unlinked = true;
+            }
+        }
+        if (unlinked) this.split(this.gridOf(node));
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NotNull G gridOf(@NotNull N node) {
+        assert node.grid != null;
+        return (G) node.grid;
+    }
+
+    private @NotNull G merge(@NotNull G a, @NotNull G b) {
+        G into = a.size() >= b.size() ? a : b;
+        G from = into == a ? b : a;
+        for (N node : new ArrayList<>(from.members())) {
+            from.remove(node);
+            into.add(node);
+        }
+        this.grids.remove(from);
+        return into;
+    }
+
+    /**
+     * Rebuilds the given grid as one grid per connected component.
+     */
+    @SuppressWarnings("unchecked")
+    private void split(@NotNull G grid) {
+        List<N> members = new ArrayList<>(grid.members());
+        for (N member : members) {
+            grid.remove(member);
+        }
+        this.grids.remove(grid);
+
+        Set<N> visited = new ReferenceOpenHashSet<>(members.size());
+        ArrayDeque<N> queue = new ArrayDeque<>();
+        for (N start : members) {
+            if (!visited.add(start)) continue;
+            G component = this.createGrid();
+            this.grids.add(component);
+
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                N node = queue.poll();
+                component.add(node);
+                for (Direction direction : Constant.Cache.DIRECTIONS) {
+                    N neighbour = (N) node.getNeighbour(direction);
+                    if (neighbour != null && visited.add(neighbour)) {
+                        queue.add(neighbour);
+                    }
+                }
+            }
+        }
+    }
+}
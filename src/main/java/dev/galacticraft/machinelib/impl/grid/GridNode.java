@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.grid;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.impl.Constant;
+import net.minecraft.core.Direction;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A machine that is part of a {@link Grid}.
+ */
+@ApiStatus.Internal
+public class GridNode {
+    protected final @NotNull MachineBlockEntity machine;
+    final long pos;
+    @Nullable Grid<?> grid = null;
+
+    /**
+     * The adjacent members of the same grid, indexed by (world) direction.
+     */
+    private final GridNode[] neighbours = new GridNode[Constant.Cache.DIRECTIONS.length];
+    private int links = 0;
+
+    protected GridNode(@NotNull MachineBlockEntity machine, long pos) {
+        this.machine = machine;
+        this.pos = pos;
+    }
+
+    public @NotNull MachineBlockEntity getMachine() {
+        return this.machine;
+    }
+
+    /**
+     * {@return whether the given direction leads to another member of the same grid}
+     *
+     * @param direction the (world) direction to check
+     */
+    public boolean isLinked(@NotNull Direction direction) {
+        return this.neighbours[direction.ordinal()] != null;
+    }
+
+    /**
+     * {@return the member of the same grid in the given direction, if any}
+     *
+     * @param direction the (world) direction to check
+     */
+    public @Nullable GridNode getNeighbour(@NotNull Direction direction) {
+        return this.neighbours[direction.ordinal()];
+    }
+
+    /**
+     * {@return a bitmask of the (world) directions that lead to another member of the same grid}
+     */
+    protected int getLinks() {
+        return this.links;
+    }
+
+    /**
+     * Checks whether anything that decides which neighbours this machine is linked to changed since the last call.
+     * Called once per tick by the {@link GridManager}. By default, links only change when machines join or leave.
+     *
+     * @return whether the links of this machine should be re-evaluated
+     */
+    protected boolean connectionsChanged() {
+        return false;
+    }
+
+    void link(@NotNull Direction direction, @NotNull GridNode neighbour) {
+        this.neighbours[direction.ordinal()] = neighbour;
+        this.links |= 1 << direction.ordinal();
+    }
+
+    void unlink(@NotNull Direction direction) {
+        this.neighbours[direction.ordinal()] = null;
+        this.links &= ~(1 << direction.ordinal());
+    }
+}
@@ -58,6 +58,12 @@ public final class MachineIOConfigImpl implements MachineIOConfig {
         };
     }
 
+    @Override
+    public long getModifications() {
+        return this.front.getModifications() + this.back.getModifications() + this.left.getModifications()
+                + this.right.getModifications() + this.top.getModifications() + this.bottom.getModifications();
+    }
+
     @Override
     public @NotNull CompoundTag createTag() {
         CompoundTag nbt = new CompoundTag();
@@ -24,31 +24,41 @@
 
 import dev.galacticraft.machinelib.api.menu.sync.MenuSyncHandler;
 import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
+import dev.galacticraft.machinelib.impl.Constant;
+import dev.galacticraft.machinelib.impl.menu.sync.simple.QuantizedMenuSyncHandler;
+import net.minecraft.Util;
 import net.minecraft.network.FriendlyByteBuf;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Syncs the amount of energy in a storage.
+ * Changes are only sent once they move the energy bar by at least one pixel, or once the synced amount is stale.
+ */
 public class MachineEnergyStorageSyncHandler implements MenuSyncHandler {
     private final MachineEnergyStorage storage;
     private long prevValue;
+    private long syncedAt;
 
     public MachineEnergyStorageSyncHandler(MachineEnergyStorage storage) {
         this.storage = storage;
         this.prevValue = storage.getAmount();
+        this.syncedAt = Util.getMillis();
     }
 
     @Override
     public boolean needsSyncing() {
-        return this.prevValue != this.storage.getAmount();
+        return QuantizedMenuSyncHandler.shouldSync(this.prevValue, this.storage.getAmount(), this.storage.getCapacity(), Constant.TextureCoordinate.OVERLAY_HEIGHT, this.syncedAt);
     }
 
     @Override
     public void sync(@NotNull FriendlyByteBuf buf) {
         this.prevValue = this.storage.getAmount();
-        buf.writeLong(this.storage.getAmount());
+        this.syncedAt = Util.getMillis();
+        buf.writeVarLong(this.prevValue);
     }
 
     @Override
     public void read(@NotNull FriendlyByteBuf buf) {
-        this.storage.setEnergy(buf.readLong());
+        this.storage.setEnergy(buf.readVarLong());
     }
 }
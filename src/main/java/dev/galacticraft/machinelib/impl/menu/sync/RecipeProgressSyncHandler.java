@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.menu.sync;
+
+import dev.galacticraft.machinelib.api.block.entity.RecipeMachineBlockEntity;
+import dev.galacticraft.machinelib.api.menu.RecipeMachineMenu;
+import dev.galacticraft.machinelib.api.menu.sync.MenuSyncHandler;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Syncs the progress of a recipe machine, letting the client predict it in between.
+ * While the machine is working, its progress advances by one every tick, so an update is only sent when the machine
+ * starts or stops working, its maximum progress changes, or its progress deviates from the prediction
+ * (e.g. when a recipe completes or is reset).
+ * {@link RecipeMachineMenu} requests an immediate sync whenever this handler needs syncing, so that a completed recipe
+ * does not leave a full progress bar on the client until the next regular sync.
+ */
+public class RecipeProgressSyncHandler implements MenuSyncHandler {
+    private final RecipeMachineBlockEntity<?, ?> machine;
+    private final LongSupplier clock;
+    private final ProgressReceiver receiver;
+    private int progress;
+    private int maxProgress;
+    private boolean working = false;
+    private long syncedAt;
+
+    public RecipeProgressSyncHandler(@NotNull RecipeMachineBlockEntity<?, ?> machine, @NotNull RecipeMachineMenu<?, ?, ?> menu) {
+        this(machine, () -> {
+            Level level = machine.getLevel();
+            return level != null ? level.getGameTime() : 0;
+        }, menu::predictProgress);
+    }
+
+    /**
+     * Creates a progress sync handler with a custom clock and receiver.
+     *
+     * @param machine  the machine whose progress is synced.
+     * @param clock    the current game time.
+     * @param receiver receives the synced progress on the client.
+     */
+    @ApiStatus.Internal
+    public RecipeProgressSyncHandler(@NotNull RecipeMachineBlockEntity<?, ?> machine, @NotNull LongSupplier clock, @NotNull ProgressReceiver receiver) {
+        this.machine = machine;
+        this.clock = clock;
+        this.receiver = receiver;
+        this.progress = machine.getProgress();
+        this.maxProgress = machine.getMaxProgress();
+        this.syncedAt = clock.getAsLong();
+    }
+
+    /**
+     * Returns the progress the client predicts, given the last synced state.
+     *
+     * @param progress    the synced progress.
+     * @param maxProgress the synced maximum progress.
+     * @param working     whether the machine was working when it was synced.
+     * @param elapsed     the number of ticks since the last sync.
+     * @return the predicted progress.
+     */
+    @Contract(pure = true)
+    public static long expectedProgress(int progress, int maxProgress, boolean working, long elapsed) {
+        return working ? Math.min(progress + elapsed, maxProgress) : progress;
+    }
+
+    @Override
+    public boolean needsSyncing() {
+        if (this.isWorking() != this.working || this.machine.getMaxProgress() != this.maxProgress) return true;
+        return this.machine.getProgress() != expectedProgress(this.progress, this.maxProgress, this.working, this.clock.getAsLong() - this.syncedAt);
+    }
+
+    @Override
+    public void sync(@NotNull FriendlyByteBuf buf) {
+        this.progress = this.machine.getProgress();
+        this.maxProgress = this.machine.getMaxProgress();
+        this.working = this.isWorking();
+        this.syncedAt = this.clock.getAsLong();
+
+        buf.writeVarInt(this.progress);
+        buf.writeVarInt(this.maxProgress);
+        buf.writeBoolean(this.working);
+    }
+
+    @Override
+    public void read(@NotNull FriendlyByteBuf buf) {
+        this.receiver.predictProgress(buf.readVarInt(), buf.readVarInt(), buf.readBoolean());
+    }
+
+    private boolean isWorking() {
+        return this.machine.getActiveRecipe() != null && this.machine.getStatus().type().isActive();
+    }
+
+    /**
+     * Receives the progress of a machine on the client.
+     *
+     * @see RecipeMachineMenu#predictProgress(int, int, boolean)
+     */
+    @FunctionalInterface
+    public interface ProgressReceiver {
+        void predictProgress(int progress, int maxProgress, boolean working);
+    }
+}
@@ -26,19 +26,78 @@
 import dev.galacticraft.machinelib.api.storage.ResourceStorage;
 import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
 import dev.galacticraft.machinelib.api.storage.slot.SlotGroup;
+import dev.galacticraft.machinelib.impl.Utils;
+import dev.galacticraft.machinelib.impl.menu.sync.simple.QuantizedMenuSyncHandler;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.Util;
+import net.minecraft.core.IdMap;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
+/**
+ * Syncs the slots of a resource storage to a single player.
+ * Resources are sent as raw registry ids (which are kept consistent by registry sync), and tags are only sent if
+ * they differ from the last tag sent for that slot.
+ * Slots are only compared once the modification count of the whole storage has changed.
+ * Slots with a resolution (such as tanks) only send amount changes once they move the rendered level by at least one
+ * pixel, or once the synced amount is stale.
+ */
 public class ResourceStorageSyncHandler<Resource, Stack, Slot extends ResourceSlot<Resource, Stack>, Group extends SlotGroup<Resource, Stack, Slot>> implements MenuSyncHandler {
+    private final ResourceStorage<Resource, Stack, Slot, Group> storage;
+    private final IdMap<Resource> registry;
     private final List<Slot> slots = new ArrayList<>();
     private final long[] modifications;
+    /**
+     * The slots that have changed since the last sync.
+     */
+    private final BitSet dirty = new BitSet();
+    private long storageModifications;
+    /**
+     * The last tag sent (or received) for each slot.
+     */
+    private final CompoundTag[] tags;
+    /**
+     * The number of steps (usually pixels) each slot is rendered with, or {@code 0} to sync every change.
+     */
+    private final int[] resolutions;
+    /**
+     * The last resource sent for each slot.
+     */
+    private final Object[] resources;
+    /**
+     * The last amount sent for each slot.
+     */
+    private final long[] amounts;
+    /**
+     * When each slot was last sent (see {@link Util#getMillis()}).
+     */
+    private final long[] syncedAt;
+    /**
+     * The slots with amount changes that are being held back.
+     */
+    private final BitSet deferred = new BitSet();
+    /**
+     * The number of times the slots were scanned for changes.
+     */
+    private int scans = 0;
+
+    public ResourceStorageSyncHandler(ResourceStorage<Resource, Stack, Slot, Group> storage, IdMap<Resource> registry) {
+        this(storage, registry, slot -> 0);
+    }
 
-    public ResourceStorageSyncHandler(ResourceStorage<Resource, Stack, Slot, Group> storage) {
+    public ResourceStorageSyncHandler(ResourceStorage<Resource, Stack, Slot, Group> storage, IdMap<Resource> registry, ToIntFunction<? super Slot> resolution) {
+        this.storage = storage;
+        this.registry = registry;
+        this.storageModifications = storage.getModifications();
         LongList list = new LongArrayList();
 
         for (Group group : storage) {
@@ -48,31 +107,52 @@ public ResourceStorageSyncHandler(ResourceStorage<Resource, Stack, Slot, Group>
             }
         }
         this.modifications = list.toLongArray();
+        int size = this.slots.size();
+        this.tags = new CompoundTag[size];
+        this.resolutions = new int[size];
+        this.resources = new Object[size];
+        this.amounts = new long[size];
+        this.syncedAt = new long[size];
+        long now = Util.getMillis();
+        for (int i = 0; i < size; i++) {
+            Slot slot = this.slots.get(i);
+            this.tags[i] = copy(slot.getTag());
+            this.resolutions[i] = resolution.applyAsInt(slot);
+            this.resources[i] = slot.getResource();
+            this.amounts[i] = slot.getAmount();
+            this.syncedAt[i] = now;
+        }
     }
 
     @Override
     public boolean needsSyncing() {
-        for (int i = 0; i < this.slots.size(); i++) {
-            if (this.slots.get(i).getModifications() != this.modifications[i]) return true;
-        }
-        return false;
+        this.update();
+        return !this.dirty.isEmpty();
     }
 
     @Override
     public void sync(@NotNull FriendlyByteBuf buf) {
-        int total = 0;
-        for (int i = 0; i < this.slots.size(); i++) {
-            if (this.slots.get(i).getModifications() != this.modifications[i]) total++;
-        }
-        buf.writeVarInt(total);
-        for (int i = 0; i < this.slots.size(); i++) {
+        buf.writeVarInt(this.dirty.cardinality());
+        long now = Util.getMillis();
+        for (int i = this.dirty.nextSetBit(0); i >= 0; i = this.dirty.nextSetBit(i + 1)) {
             Slot slot = this.slots.get(i);
-            if (slot.getModifications() != this.modifications[i]) {
-                this.modifications[i] = slot.getModifications();
-                buf.writeVarInt(i);
-                slot.writePacket(buf);
+            this.resources[i] = slot.getResource();
+            this.amounts[i] = slot.getAmount();
+            this.syncedAt[i] = now;
+            buf.writeVarInt(i);
+            buf.writeVarLong(slot.getAmount());
+            if (slot.isEmpty()) continue;
+            buf.writeVarInt(this.registry.getId(slot.getResource()));
+            CompoundTag tag = slot.getTag();
+            if (Utils.tagsEqual(tag, this.tags[i])) {
+                buf.writeBoolean(false);
+            } else {
+                buf.writeBoolean(true);
+                buf.writeNbt(tag);
+                this.tags[i] = copy(tag);
             }
         }
+        this.dirty.clear();
     }
 
     @Override
@@ -81,8 +161,62 @@ public void read(@NotNull FriendlyByteBuf buf) {
         for (int i = 0; i < total; i++) {
             int j = buf.readVarInt();
             Slot slot = this.slots.get(j);
-            slot.readPacket(buf);
-            slot.markModified(); // modification count on the server and client do not have to match - it just needs to change.
+            long amount = buf.readVarLong();
+            if (amount == 0) {
+                slot.set(null, null, 0);
+            } else {
+                Resource resource = this.registry.byId(buf.readVarInt());
+                if (buf.readBoolean()) this.tags[j] = buf.readNbt();
+                slot.set(resource, copy(this.tags[j]), amount);
+            }
         }
     }
+
+    /**
+     * {@return the number of times the slots were scanned for changes}
+     */
+    public int getScans() {
+        return this.scans;
+    }
+
+    /**
+     * Marks the slots that have changed since they were last checked as dirty.
+     * Slot modifications are propagated to the storage, so the slots are only scanned if its modification count
+     * changed (or a change is being held back).
+     */
+    private void update() {
+        long modifications = this.storage.getModifications();
+        if (modifications == this.storageModifications && this.deferred.isEmpty()) return;
+        this.storageModifications = modifications;
+        this.scans++;
+        for (int i = 0; i < this.slots.size(); i++) {
+            Slot slot = this.slots.get(i);
+            long slotModifications = slot.getModifications();
+            if (slotModifications != this.modifications[i] || this.deferred.get(i)) {
+                this.modifications[i] = slotModifications;
+                if (this.isMinorChange(i, slot)) {
+                    this.deferred.set(i, slot.getAmount() != this.amounts[i]);
+                } else {
+                    this.deferred.clear(i);
+                    this.dirty.set(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the slot only changed by an amount too small to be seen since it was last sent.
+     */
+    private boolean isMinorChange(int index, @NotNull Slot slot) {
+        return this.resolutions[index] > 0
+                && !slot.isEmpty()
+                && slot.getResource() == this.resources[index]
+                && !QuantizedMenuSyncHandler.shouldSync(this.amounts[index], slot.getAmount(), slot.getCapacity(), this.resolutions[index], this.syncedAt[index])
+                && Utils.tagsEqual(slot.getTag(), this.tags[index]);
+    }
+
+    @Contract("null -> null; !null -> new")
+    private static @Nullable CompoundTag copy(@Nullable CompoundTag tag) {
+        return tag == null ? null : tag.copy();
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.menu.sync.simple;
+
+import dev.galacticraft.machinelib.api.menu.sync.MenuSyncHandler;
+import net.minecraft.Util;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Syncs a value that is rendered as a bar of a fixed size.
+ * Changes are only sent once they move the bar by at least one step, or once the synced value is older than
+ * {@link #MAX_STALENESS} milliseconds.
+ */
+public final class QuantizedMenuSyncHandler implements MenuSyncHandler {
+    /**
+     * The longest time (in milliseconds) a changed value is held back for.
+     */
+    public static final long MAX_STALENESS = 1000;
+
+    private final LongSupplier supplier;
+    private final LongSupplier max;
+    private final LongConsumer consumer;
+    private final int resolution;
+    private long value;
+    private long maxValue;
+    private long syncedAt;
+
+    public QuantizedMenuSyncHandler(LongSupplier supplier, LongSupplier max, LongConsumer consumer, int resolution) {
+        this.supplier = supplier;
+        this.max = max;
+        this.consumer = consumer;
+        this.resolution = resolution;
+        this.value = supplier.getAsLong();
+        this.maxValue = max.getAsLong();
+        this.syncedAt = Util.getMillis();
+    }
+
+    /**
+     * Returns the step of a bar with the given resolution that a value falls into.
+     *
+     * @param value the value
+     * @param max the value of a full bar
+     * @param resolution the number of steps (usually pixels) in a full bar, or {@code 0} to not quantize the value
+     * @return the step the value falls into
+     */
+    public static long step(long value, long max, int resolution) {
+        if (resolution <= 0 || max <= 0) return value;
+        return (long) ((double) value / max * resolution);
+    }
+
+    /**
+     * Returns whether a change from one value to another should be sent.
+     *
+     * @param from the value that was last sent
+     * @param to the current value
+     * @param max the value of a full bar
+     * @param resolution the number of steps in a full bar
+     * @param syncedAt when the last value was sent (see {@link Util#getMillis()})
+     * @return whether the change should be sent
+     */
+    public static boolean shouldSync(long from, long to, long max, int resolution, long syncedAt) {
+        if (from == to) return false;
+        return step(from, max, resolution) != step(to, max, resolution) || Util.getMillis() - syncedAt >= MAX_STALENESS;
+    }
+
+    @Override
+    public boolean needsSyncing() {
+        long max = this.max.getAsLong();
+        return max != this.maxValue || shouldSync(this.value, this.supplier.getAsLong(), max, this.resolution, this.syncedAt);
+    }
+
+    @Override
+    public void sync(@NotNull FriendlyByteBuf buf) {
+        this.value = this.supplier.getAsLong();
+        this.maxValue = this.max.getAsLong();
+        this.syncedAt = Util.getMillis();
+        buf.writeVarLong(this.value);
+    }
+
+    @Override
+    public void read(@NotNull FriendlyByteBuf buf) {
+        this.value = buf.readVarLong();
+        this.consumer.accept(this.value);
+    }
+}
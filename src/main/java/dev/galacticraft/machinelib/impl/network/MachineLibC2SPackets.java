@@ -75,6 +75,7 @@ public static void register() {
                 BlockFace face = Constant.Cache.BLOCK_FACES[f];
                 server.execute(() -> {
                     if (player.containerMenu instanceof MachineMenu<?> sHandler) {
+                        sHandler.requestSync();
                         MachineBlockEntity machine = sHandler.machine;
                         if (machine.getSecurity().hasAccess(player)) {
                             MachineIOFace machineFace = machine.getIOConfig().get(face);
@@ -113,6 +114,7 @@ public static void register() {
                 BlockFace face = Constant.Cache.BLOCK_FACES[f];
                 server.execute(() -> {
                     if (player.containerMenu instanceof MachineMenu<?> sHandler) {
+                        sHandler.requestSync();
                         MachineBlockEntity machine = sHandler.machine;
                         if (machine.getSecurity().hasAccess(player)) {
                             ServerLevel level = (ServerLevel) machine.getLevel();
@@ -146,6 +148,7 @@ public static void register() {
                 BlockFace face = Constant.Cache.BLOCK_FACES[b];
                 server.execute(() -> {
                     if (player.containerMenu instanceof MachineMenu<?> sHandler) {
+                        sHandler.requestSync();
                         MachineBlockEntity machine = sHandler.machine;
                         if (machine.getSecurity().hasAccess(player)) {
                             MachineIOFace machineFace = machine.getIOConfig().get(face);
@@ -177,6 +180,7 @@ public static void register() {
                 BlockFace face = Constant.Cache.BLOCK_FACES[b];
                 server.execute(() -> {
                     if (player.containerMenu instanceof MachineMenu<?> sHandler) {
+                        sHandler.requestSync();
                         MachineBlockEntity machine = sHandler.machine;
                         if (machine.getSecurity().hasAccess(player)) {
                             MachineIOFace machineFace = machine.getIOConfig().get(face);
@@ -197,6 +201,7 @@ public static void register() {
             RedstoneActivation redstoneActivation = RedstoneActivation.values()[buf.readByte()];
             server.execute(() -> {
                 if (player.containerMenu instanceof MachineMenu<?> sHandler) {
+                    sHandler.requestSync();
                     MachineBlockEntity machine = sHandler.machine;
                     if (machine.getSecurity().hasAccess(player)) {
                         machine.setRedstone(redstoneActivation);
@@ -210,6 +215,7 @@ public static void register() {
             AccessLevel accessLevel = AccessLevel.values()[buf.readByte()];
             server.execute(() -> {
                 if (player.containerMenu instanceof MachineMenu<?> sHandler) {
+                    sHandler.requestSync();
                     MachineBlockEntity machine = sHandler.machine;
                     if (machine.getSecurity().isOwner(player)) {
                         machine.getSecurity().setAccessLevel(accessLevel);
@@ -224,6 +230,7 @@ public static void register() {
             int index = buf.readInt();
             server.execute(() -> {
                 if (player.containerMenu instanceof MachineMenu<?> sHandler) {
+                    sHandler.requestSync();
                     if (sHandler.containerId == syncId) {
                         acceptStack(sHandler.tanks.get(index), ContainerItemContext.ofPlayerCursor(player, player.containerMenu));
                     }
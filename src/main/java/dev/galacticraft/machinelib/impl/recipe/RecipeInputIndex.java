@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package dev.galacticraft.machinelib.impl.recipe;
+
+import dev.galacticraft.machinelib.api.storage.slot.ContainerSlotGroup;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inverted index of every recipe of a single {@link RecipeType}, keyed by the items their ingredients accept.
+ * Used to only test the recipes that could possibly match a container, rather than every recipe of the type.
+ * <p>
+ * Ingredients are indexed by the items returned by {@link Ingredient#getItems()} (which expands tags),
+ * as those are the same items an ingredient is tested against.
+ * Recipes without any ingredients are always tested.
+ * <p>
+ * Indices are bound to the {@link RecipeManager} they were built from, and are rebuilt lazily after every datapack reload.
+ * Only accessed from the server thread.
+ *
+ * @param <C> The type of inventory the recipes use.
+ * @param <R> The type of recipe.
+ */
+@ApiStatus.Internal
+public final class RecipeInputIndex<C extends Container, R extends Recipe<C>> {
+    /**
+     * The recipe manager the current indices were built from.
+     */
+    private static @Nullable RecipeManager manager = null;
+    /**
+     * The indices built from the current recipe manager.
+     */
+    private static final Map<RecipeType<?>, RecipeInputIndex<?, ?>> INDICES = new IdentityHashMap<>();
+
+    /**
+     * Every recipe of the type, in the order the recipe manager returns them.
+     */
+    private final List<R> recipes;
+    /**
+     * The (ascending) indices of the recipes that accept each item.
+     */
+    private final Map<Item, int[]> byItem;
+    /**
+     * The indices of the recipes without any ingredients. These are always candidates.
+     */
+    private final int[] unindexed;
+    /**
+     * Re-used set of candidate recipes for the current lookup.
+     */
+    private final BitSet candidates;
+
+    private RecipeInputIndex(@NotNull List<R> recipes) {
+        this.recipes = recipes;
+        this.candidates = new BitSet(recipes.size());
+
+        Map<Item, IntList> byItem = new IdentityHashMap<>();
+        IntList unindexed = new IntArrayList();
+        for (int i = 0; i < recipes.size(); i++) {
+            boolean indexed = false;
+            for (Ingredient ingredient : recipes.get(i).getIngredients()) {
+                if (ingredient.isEmpty()) continue;
+                for (ItemStack stack : ingredient.getItems()) {
+                    IntList list = byItem.computeIfAbsent(stack.getItem(), item -> new IntArrayList());
+                    if (list.isEmpty() || list.getInt(list.size() - 1) != i) list.add(i);
+                    indexed = true;
+                }
+            }
+            if (!indexed) unindexed.add(i);
+        }
+
+        this.byItem = new IdentityHashMap<>(byItem.size());
+        for (Map.Entry<Item, IntList> entry : byItem.entrySet()) {
+            this.byItem.put(entry.getKey(), entry.getValue().toIntArray());
+        }
+        this.unindexed = unindexed.toIntArray();
+    }
+
+    /**
+     * Returns the index of the given recipe type, (re)building it if the recipe manager has changed.
+     *
+     * @param manager The current recipe manager.
+     * @param type    The type of recipe to index.
+     * @param <C>     The type of inventory the recipes use.
+     * @param <R>     The type of recipe.
+     * @return The index of the given recipe type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Container, R extends Recipe<C>> @NotNull RecipeInputIndex<C, R> get(@NotNull RecipeManager manager, @NotNull RecipeType<R> type) {
+        if (RecipeInputIndex.manager != manager) {
+            RecipeInputIndex.manager = manager;
+            INDICES.clear();
+        }
+        RecipeInputIndex<C, R> index = (RecipeInputIndex<C, R>) INDICES.get(type);
+        if (index == null) {
+            index = new RecipeInputIndex<>(manager.getAllRecipesFor(type));
+            INDICES.put(type, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the first recipe (in recipe manager order) that matches the given container.
+     *
+     * @param container The container to match.
+     * @param level     The level.
+     * @return the first matching recipe, or {@code null} if there is none.
+     */
+    public @Nullable R findFirst(@NotNull C container, @NotNull Level level) {
+        BitSet candidates = this.candidates;
+        candidates.clear();
+        for (int i : this.unindexed) {
+            candidates.set(i);
+        }
+
+        int size = container.getContainerSize();
+        for (int slot = 0; slot < size; slot++) {
+            Item item = getItem(container, slot);
+            if (item != null) {
+                int[] recipes = this.byItem.get(item);
+                if (recipes != null) {
+                    for (int i : recipes) {
+                        candidates.set(i);
+                    }
+                }
+            }
+        }
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            R recipe = this.recipes.get(i);
+            if (recipe.matches(container, level)) {
+                return recipe;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether any recipe could match the given container, based on its items alone.
+     * If this returns {@code false}, no recipe matches the container regardless of counts, NBT or level.
+     *
+     * @param container The container to check.
+     * @return whether any recipe accepts an item in the container, or has no ingredients.
+     */
+    public boolean hasCandidates(@NotNull C container) {
+        if (this.unindexed.length > 0) return true;
+        int size = container.getContainerSize();
+        for (int slot = 0; slot < size; slot++) {
+            Item item = getItem(container, slot);
+            if (item != null && this.byItem.containsKey(item)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the item in the given slot, without copying the stack if the container is a slot group.
+     *
+     * @param container The container.
+     * @param slot      The slot to get the item of.
+     * @return the item in the slot, or {@code null} if the slot is empty.
+     */
+    private static @Nullable Item getItem(@NotNull Container container, int slot) {
+        if (container instanceof ContainerSlotGroup<?> group) {
+            return group.isEmpty(slot) ? null : group.getResource(slot);
+        }
+        ItemStack stack = container.getItem(slot);
+        return stack.isEmpty() ? null : stack.getItem();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package dev.galacticraft.machinelib.impl.recipe;
+
+import dev.galacticraft.machinelib.api.storage.slot.ContainerSlotGroup;
+import dev.galacticraft.machinelib.impl.MachineLib;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A server-wide, bounded LRU cache of recipe lookups, shared between all recipe machines.
+ * Keyed by the recipe type and a fingerprint of the crafting inventory (the item and NBT of every slot).
+ * Counts are not part of the key, so changing the size of a stack does not miss the cache.
+ * This assumes that counts never decide <em>which</em> recipe matches: a cached recipe is returned as long as it still
+ * matches, even if an earlier recipe of the type would also match the new counts. Recipe types where a larger stack can
+ * match a different recipe should not be looked up through this cache.
+ * <p>
+ * Cached recipes are re-tested against the inventory (and level) before being returned, so an entry can never
+ * produce a recipe that does not match.
+ * Lookups that found no recipe are only cached if no recipe of the type accepts any of the items in the inventory,
+ * as that result does not depend on the counts, NBT or level. Any other lookup that found no recipe is repeated.
+ * The cache is bound to the {@link RecipeManager} it was filled from, and is cleared after every datapack reload.
+ * Only accessed from the server thread.
+ *
+ * @see RecipeInputIndex
+ */
+@ApiStatus.Internal
+public final class RecipeResultCache {
+    /**
+     * The maximum number of lookups to cache.
+     * Can be changed with the {@code machinelib.recipeCacheSize} system property.
+     */
+    private static final int MAX_SIZE = Integer.getInteger("machinelib.recipeCacheSize", 1024);
+    /**
+     * Cached value for lookups that cannot find a recipe, as no recipe accepts any of the items.
+     */
+    private static final Object NO_RECIPE = new Object();
+    /**
+     * The cached recipe lookups, in access order.
+     */
+    private static final Map<Fingerprint, Object> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Fingerprint, Object> eldest) {
+            return this.size() > MAX_SIZE;
+        }
+    };
+    /**
+     * Re-used fingerprint of the inventory currently being looked up.
+     */
+    private static final Fingerprint PROBE = new Fingerprint();
+
+    /**
+     * The recipe manager the current entries were computed with.
+     */
+    private static @Nullable RecipeManager manager = null;
+    /**
+     * The number of lookups answered by the cache since it was last cleared.
+     */
+    private static long hits = 0;
+    /**
+     * The number of lookups that had to search for a recipe since the cache was last cleared.
+     */
+    private static long misses = 0;
+
+    private RecipeResultCache() {
+    }
+
+    /**
+     * Returns the first recipe of the given type that matches the given container,
+     * using a cached result for identical inventories if possible.
+     *
+     * @param level     The level.
+     * @param type      The type of recipe to find.
+     * @param container The container to match.
+     * @param <C>       The type of inventory the recipes use.
+     * @param <R>       The type of recipe.
+     * @return the first matching recipe, or {@code null} if there is none.
+     */
+    public static <C extends Container, R extends Recipe<C>> @Nullable R find(@NotNull Level level, @NotNull RecipeType<R> type, @NotNull C container) {
+        return find(level.getRecipeManager(), level, type, container);
+    }
+
+    /**
+     * Returns the first recipe of the given type in the given recipe manager that matches the given container,
+     * using a cached result for identical inventories if possible.
+     *
+     * @param manager   The recipe manager to search.
+     * @param level     The level.
+     * @param type      The type of recipe to find.
+     * @param container The container to match.
+     * @param <C>       The type of inventory the recipes use.
+     * @param <R>       The type of recipe.
+     * @return the first matching recipe, or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Container, R extends Recipe<C>> @Nullable R find(@NotNull RecipeManager manager, @NotNull Level level, @NotNull RecipeType<R> type, @NotNull C container) {
+        if (RecipeResultCache.manager != manager) {
+            if (RecipeResultCache.manager != null) {
+                MachineLib.LOGGER.debug("Clearing recipe cache ({} entries, {} hits, {} misses)", CACHE.size(), hits, misses);
+            }
+            RecipeResultCache.manager = manager;
+            clear();
+        }
+
+        PROBE.set(type, container);
+        Object cached = CACHE.get(PROBE);
+        if (cached == NO_RECIPE) {
+            hits++;
+            return null;
+        } else if (cached != null && ((R) cached).matches(container, level)) {
+            hits++;
+            return (R) cached;
+        }
+
+        misses++;
+        RecipeInputIndex<C, R> index = RecipeInputIndex.get(manager, type);
+        R recipe = index.findFirst(container, level);
+        if (recipe != null) {
+            CACHE.put(PROBE.copy(), recipe);
+        } else if (!index.hasCandidates(container)) {
+            CACHE.put(PROBE.copy(), NO_RECIPE);
+        } else if (cached != null) {
+            CACHE.remove(PROBE);
+        }
+        return recipe;
+    }
+
+    /**
+     * Removes every entry from the cache and resets the hit/miss counters.
+     */
+    public static void clear() {
+        CACHE.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Returns the number of lookups answered by the cache since it was last cleared.
+     *
+     * @return the number of cache hits.
+     */
+    @Contract(pure = true)
+    public static long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that had to search for a recipe since the cache was last cleared.
+     *
+     * @return the number of cache misses.
+     */
+    @Contract(pure = true)
+    public static long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of cached lookups.
+     *
+     * @return the number of cached lookups.
+     */
+    @Contract(pure = true)
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * The contents of a crafting inventory.
+     * Only the first {@link #size} entries of each array are significant.
+     * The probe refers to the tags of the inventory itself, while {@linkplain #copy() copies} own a copy of them.
+     */
+    private static final class Fingerprint {
+        private RecipeType<?> type;
+        private int size;
+        private Item[] items;
+        private @Nullable CompoundTag[] tags;
+        private int hash;
+
+        private Fingerprint() {
+            this(null, 0, new Item[0], new CompoundTag[0], 0);
+        }
+
+        private Fingerprint(RecipeType<?> type, int size, Item[] items, @Nullable CompoundTag[] tags, int hash) {
+            this.type = type;
+            this.size = size;
+            this.items = items;
+            this.tags = tags;
+            this.hash = hash;
+        }
+
+        private void set(@NotNull RecipeType<?> type, @NotNull Container container) {
+            int size = container.getContainerSize();
+            if (this.items.length < size) {
+                this.items = new Item[size];
+                this.tags = new CompoundTag[size];
+            }
+            this.type = type;
+            this.size = size;
+
+            int hash = type.hashCode();
+            if (container instanceof ContainerSlotGroup<?> group) {
+                for (int i = 0; i < size; i++) {
+                    boolean empty = group.isEmpty(i);
+                    hash = this.setSlot(hash, i, empty ? null : group.getResource(i), empty ? null : group.getTag(i));
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    ItemStack stack = container.getItem(i);
+                    boolean empty = stack.isEmpty();
+                    hash = this.setSlot(hash, i, empty ? null : stack.getItem(), empty ? null : stack.getTag());
+                }
+            }
+            this.hash = hash;
+        }
+
+        private int setSlot(int hash, int slot, @Nullable Item item, @Nullable CompoundTag tag) {
+            if (tag != null && tag.isEmpty()) tag = null;
+            this.items[slot] = item;
+            this.tags[slot] = tag;
+            return (hash * 31 + System.identityHashCode(item)) * 31 + (tag == null ? 0 : tag.hashCode());
+        }
+
+        private @NotNull Fingerprint copy() {
+            CompoundTag[] tags = new CompoundTag[this.size];
+            for (int i = 0; i < this.size; i++) {
+                if (this.tags[i] != null) tags[i] = this.tags[i].copy();
+            }
+            return new Fingerprint(this.type, this.size, Arrays.copyOf(this.items, this.size), tags, this.hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Fingerprint that)) return false;
+            if (this.hash != that.hash || this.type != that.type || this.size != that.size) return false;
+            for (int i = 0; i < this.size; i++) {
+                if (this.items[i] != that.items[i] || !Objects.equals(this.tags[i], that.tags[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
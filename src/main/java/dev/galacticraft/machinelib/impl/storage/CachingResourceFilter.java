@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage;
+
+import dev.galacticraft.machinelib.api.storage.ResourceFilter;
+import net.minecraft.nbt.CompoundTag;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A resource filter that remembers the result of its delegate for every resource it has tested without NBT.
+ * The delegate must be deterministic for a given resource and tag (e.g. an item API lookup on a constant context).
+ * <p>
+ * Resources with NBT are passed to the delegate: their tags often change constantly (such as the charge of an
+ * energy item), so caching them would only churn the cache.
+ * Filters that {@linkplain #ignoresNbt() ignore NBT} instead cache their result by the resource alone, so that the
+ * result for a charged battery is shared with an empty one.
+ * Every cache is cleared after tags are (re)loaded (see {@link #invalidateAll()}), and evicts the least recently used
+ * result once it is full.
+ * Filters are tested from both the server and the client thread, so the cache is thread-safe.
+ *
+ * @param <Resource> the type of resource being filtered
+ */
+@ApiStatus.Internal
+public final class CachingResourceFilter<Resource> implements ResourceFilter<Resource> {
+    /**
+     * The default maximum number of cached results per filter.
+     * Can be changed with the {@code machinelib.filterCacheSize} system property.
+     */
+    public static final int DEFAULT_MAX_SIZE = Integer.getInteger("machinelib.filterCacheSize", 512);
+    /**
+     * Incremented to invalidate every cache.
+     */
+    private static volatile int generation = 0;
+
+    private final @NotNull ResourceFilter<Resource> delegate;
+    private final boolean ignoresNbt;
+    /**
+     * The cached results, in access order. Guarded by itself.
+     */
+    private final Map<Resource, Boolean> cache;
+    private volatile int cacheGeneration = generation;
+
+    public CachingResourceFilter(@NotNull ResourceFilter<Resource> delegate, int maxSize, boolean ignoresNbt) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize <= 0!");
+        this.delegate = delegate;
+        this.ignoresNbt = ignoresNbt;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Resource, Boolean> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Invalidates the results of every caching filter.
+     * Called whenever tags are loaded, on both the client and the server.
+     */
+    public static void invalidateAll() {
+        generation++;
+    }
+
+    @Override
+    public boolean test(@Nullable Resource resource, @Nullable CompoundTag tag) {
+        if (resource == null || (!this.ignoresNbt && tag != null && !tag.isEmpty())) return this.delegate.test(resource, tag);
+
+        synchronized (this.cache) {
+            if (this.cacheGeneration != generation) {
+                this.cache.clear();
+                this.cacheGeneration = generation;
+            }
+
+            Boolean result = this.cache.get(resource);
+            if (result == null) {
+                result = this.delegate.test(resource, tag);
+                this.cache.put(resource, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * {@return whether the delegate's result only depends on the resource, so it is cached for resources with NBT too}
+     */
+    public boolean ignoresNbt() {
+        return this.ignoresNbt;
+    }
+
+    /**
+     * {@return the number of cached results}
+     */
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public void clear() {
+        synchronized (this.cache) {
+            this.cache.clear();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage;
+
+import dev.galacticraft.machinelib.api.storage.ResourceFilter;
+import dev.galacticraft.machinelib.impl.Utils;
+import net.minecraft.core.Registry;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.tags.TagKey;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * A resource filter made of a membership test (which only depends on the resource) and an NBT requirement.
+ * <p>
+ * When the registry of the resource is known, the membership test is evaluated once for every registry entry
+ * and stored in a bitset indexed by raw id, so testing a resource is a single bit read.
+ * Bitsets are shared between all filters with the same membership test (e.g. every filter of the same tag),
+ * and are rebuilt lazily after tags are (re)loaded (see {@link #invalidateAll()}).
+ * <p>
+ * Compiled filters can be combined (see {@link #and(ResourceFilter, ResourceFilter)}, {@link #or(ResourceFilter, ResourceFilter)}
+ * and {@link #not(ResourceFilter)}) into a single compiled filter with a single bitset.
+ * A compiled filter never accepts a {@code null} resource.
+ *
+ * @param <Resource> the type of resource being filtered
+ */
+@ApiStatus.Internal
+public final class CompiledResourceFilter<Resource> implements ResourceFilter<Resource> {
+    /**
+     * Incremented whenever tags are bound, to invalidate every compiled bitset.
+     */
+    private static volatile int generation = 0;
+    /**
+     * The bitsets compiled since tags were last bound, keyed by registry and membership test.
+     */
+    private static final Map<CompileKey, Bits> COMPILED = new ConcurrentHashMap<>();
+
+    /**
+     * The registry that the resources belong to, or {@code null} if the membership test should be evaluated directly.
+     */
+    private final @Nullable Registry<Resource> registry;
+    private final @NotNull Membership<Resource> membership;
+    private final boolean anyNbt;
+    private final @Nullable CompoundTag nbt;
+    /**
+     * The shared bitset of this filter's membership test, as last looked up.
+     */
+    private volatile @Nullable Bits bits = null;
+
+    private CompiledResourceFilter(@Nullable Registry<Resource> registry, @NotNull Membership<Resource> membership, boolean anyNbt, @Nullable CompoundTag nbt) {
+        this.registry = registry;
+        this.membership = membership;
+        this.anyNbt = anyNbt;
+        this.nbt = anyNbt || nbt == null || nbt.isEmpty() ? null : nbt;
+    }
+
+    @Contract("_, _, _, _ -> new")
+    public static <Resource> @NotNull CompiledResourceFilter<Resource> tag(@NotNull Registry<Resource> registry, @NotNull TagKey<Resource> tag, boolean anyNbt, @Nullable CompoundTag nbt) {
+        return new CompiledResourceFilter<>(registry, new TagMembership<>(registry, tag), anyNbt, nbt);
+    }
+
+    @Contract("_, _, _ -> new")
+    public static <Resource> @NotNull CompiledResourceFilter<Resource> resource(@NotNull Resource resource, boolean anyNbt, @Nullable CompoundTag nbt) {
+        return new CompiledResourceFilter<>(null, new ResourceMembership<>(resource), anyNbt, nbt);
+    }
+
+    /**
+     * Invalidates the bitsets of every compiled filter.
+     * Called whenever tags are loaded, on both the client and the server.
+     */
+    public static void invalidateAll() {
+        generation++;
+        COMPILED.clear();
+    }
+
+    /**
+     * Combines two filters, compiling them into one filter if possible.
+     */
+    public static <Resource> @NotNull ResourceFilter<Resource> and(@NotNull ResourceFilter<Resource> a, @NotNull ResourceFilter<Resource> b) {
+        if (a instanceof CompiledResourceFilter<Resource> ca && b instanceof CompiledResourceFilter<Resource> cb && ca.compatibleRegistry(cb)) {
+            if (ca.anyNbt || cb.anyNbt || Utils.tagsEqual(ca.nbt, cb.nbt)) {
+                CompiledResourceFilter<Resource> nbtSource = ca.anyNbt ? cb : ca;
+                return new CompiledResourceFilter<>(ca.registry != null ? ca.registry : cb.registry, new AndMembership<>(ca.membership, cb.membership), nbtSource.anyNbt, nbtSource.nbt);
+            }
+            return (resource, tag) -> false; // mutually exclusive NBT requirements
+        }
+        return (resource, tag) -> a.test(resource, tag) && b.test(resource, tag);
+    }
+
+    /**
+     * Combines two filters, compiling them into one filter if possible.
+     */
+    public static <Resource> @NotNull ResourceFilter<Resource> or(@NotNull ResourceFilter<Resource> a, @NotNull ResourceFilter<Resource> b) {
+        if (a instanceof CompiledResourceFilter<Resource> ca && b instanceof CompiledResourceFilter<Resource> cb && ca.compatibleRegistry(cb)
+                && ca.anyNbt == cb.anyNbt && Utils.tagsEqual(ca.nbt, cb.nbt)) {
+            return new CompiledResourceFilter<>(ca.registry != null ? ca.registry : cb.registry, new OrMembership<>(ca.membership, cb.membership), ca.anyNbt, ca.nbt);
+        }
+        return (resource, tag) -> a.test(resource, tag) || b.test(resource, tag);
+    }
+
+    /**
+     * Inverts a filter, compiling it if possible.
+     * Note that the inverse of a compiled filter still does not accept a {@code null} resource.
+     */
+    public static <Resource> @NotNull ResourceFilter<Resource> not(@NotNull ResourceFilter<Resource> filter) {
+        if (filter instanceof CompiledResourceFilter<Resource> c && c.anyNbt) {
+            return new CompiledResourceFilter<>(c.registry, new NotMembership<>(c.membership), true, null);
+        }
+        return (resource, tag) -> !filter.test(resource, tag);
+    }
+
+    @Override
+    public boolean test(@Nullable Resource resource, @Nullable CompoundTag tag) {
+        if (resource == null) return false;
+        if (!this.anyNbt && !Utils.tagsEqual(tag, this.nbt)) return false;
+        if (this.registry == null) return this.membership.test(resource);
+
+        Bits bits = this.bits;
+        if (bits == null || bits.generation != generation) {
+            bits = this.bits = this.lookup();
+        }
+        int id = this.registry.getId(resource);
+        return id >= 0 && id < bits.size && (bits.words[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Returns the shared bitset of this filter's membership test, compiling it if no filter has done so since tags
+     * were last bound.
+     */
+    private @NotNull Bits lookup() {
+        assert this.registry != null;
+        return COMPILED.compute(new CompileKey(this.registry, this.membership), (key, bits) -> bits != null && bits.generation == generation ? bits : compile(this.registry, this.membership));
+    }
+
+    private static <Resource> @NotNull Bits compile(@NotNull Registry<Resource> registry, @NotNull Membership<Resource> membership) {
+        int generation = CompiledResourceFilter.generation; // read before building, so a concurrent reload causes another rebuild
+        int size = 0;
+        for (Resource resource : registry) {
+            size = Math.max(size, registry.getId(resource) + 1);
+        }
+        long[] words = new long[(size + 63) >>> 6];
+        for (Resource resource : registry) {
+            if (membership.test(resource)) {
+                int id = registry.getId(resource);
+                words[id >>> 6] |= 1L << id;
+            }
+        }
+        return new Bits(generation, size, words);
+    }
+
+    private boolean compatibleRegistry(@NotNull CompiledResourceFilter<Resource> other) {
+        return this.registry == null || other.registry == null || Objects.equals(this.registry, other.registry);
+    }
+
+    private record Bits(int generation, int size, long[] words) {
+    }
+
+    private record CompileKey(@NotNull Registry<?> registry, @NotNull Membership<?> membership) {
+    }
+
+    /**
+     * A membership test that can be compared with others, so that equal tests can share a bitset.
+     */
+    private sealed interface Membership<Resource> extends Predicate<Resource> permits TagMembership, ResourceMembership, AndMembership, OrMembership, NotMembership {
+    }
+
+    private record TagMembership<Resource>(@NotNull Registry<Resource> registry, @NotNull TagKey<Resource> tag) implements Membership<Resource> {
+        @Override
+        public boolean test(Resource resource) {
+            return this.registry.wrapAsHolder(resource).is(this.tag);
+        }
+    }
+
+    private record ResourceMembership<Resource>(@NotNull Resource resource) implements Membership<Resource> {
+        @Override
+        public boolean test(Resource resource) {
+            return resource == this.resource;
+        }
+    }
+
+    private record AndMembership<Resource>(@NotNull Membership<Resource> a, @NotNull Membership<Resource> b) implements Membership<Resource> {
+        @Override
+        public boolean test(Resource resource) {
+            return this.a.test(resource) && this.b.test(resource);
+        }
+    }
+
+    private record OrMembership<Resource>(@NotNull Membership<Resource> a, @NotNull Membership<Resource> b) implements Membership<Resource> {
+        @Override
+        public boolean test(Resource resource) {
+            return this.a.test(resource) || this.b.test(resource);
+        }
+    }
+
+    private record NotMembership<Resource>(@NotNull Membership<Resource> membership) implements Membership<Resource> {
+        @Override
+        public boolean test(Resource resource) {
+            return !this.membership.test(resource);
+        }
+    }
+}
@@ -66,6 +66,11 @@ public void setListener(Runnable listener) {
 
     }
 
+    @Override
+    public long getModifications(@NotNull SlotGroupType type) {
+        return -1;
+    }
+
     @Override
     public int groups() {
         return 0;
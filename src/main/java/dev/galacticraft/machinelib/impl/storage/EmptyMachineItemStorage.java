@@ -50,6 +50,11 @@ public long getModifications() {
         return -1;
     }
 
+    @Override
+    public long getModifications(@NotNull SlotGroupType type) {
+        return -1;
+    }
+
     @Override
     public int groups() {
         return 0;
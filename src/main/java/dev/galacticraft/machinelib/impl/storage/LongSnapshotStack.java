@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Arrays;
+
+/**
+ * Stores at most one {@code long} per transaction nesting depth, without boxing.
+ * The backing array grows to the deepest depth seen and is then re-used for every transaction.
+ */
+@ApiStatus.Internal
+public final class LongSnapshotStack {
+    private static final long NONE = Long.MIN_VALUE;
+    private static final long[] EMPTY = new long[0];
+
+    private long[] values = EMPTY;
+
+    /**
+     * Saves the given value at the given depth, unless a value is already saved there.
+     *
+     * @param depth the nesting depth of the transaction.
+     * @param value the value to save. Must not be {@link Long#MIN_VALUE}.
+     * @return {@code true} if the value was saved, meaning that the caller should register a close callback.
+     */
+    public boolean save(int depth, long value) {
+        assert value != NONE;
+        if (depth >= this.values.length) {
+            int length = this.values.length;
+            this.values = Arrays.copyOf(this.values, Math.max(depth + 1, length * 2));
+            Arrays.fill(this.values, length, this.values.length, NONE);
+        }
+        if (this.values[depth] == NONE) {
+            this.values[depth] = value;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes and returns the value saved at the given depth.
+     *
+     * @param depth the nesting depth of the transaction.
+     * @return the saved value.
+     */
+    public long take(int depth) {
+        long value = this.values[depth];
+        assert value != NONE;
+        this.values[depth] = NONE;
+        return value;
+    }
+}
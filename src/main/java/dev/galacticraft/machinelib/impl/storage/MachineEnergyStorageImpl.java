@@ -28,7 +28,6 @@
 import dev.galacticraft.machinelib.api.transfer.exposed.ExposedEnergyStorage;
 import dev.galacticraft.machinelib.impl.menu.sync.MachineEnergyStorageSyncHandler;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
-import net.fabricmc.fabric.api.transfer.v1.transaction.base.SnapshotParticipant;
 import net.minecraft.nbt.LongTag;
 import net.minecraft.network.FriendlyByteBuf;
 import org.jetbrains.annotations.ApiStatus;
@@ -37,13 +36,14 @@
 import team.reborn.energy.api.EnergyStorage;
 
 @ApiStatus.Internal
-public final class MachineEnergyStorageImpl extends SnapshotParticipant<Long> implements MachineEnergyStorage {
+public final class MachineEnergyStorageImpl implements MachineEnergyStorage, TransactionContext.CloseCallback, TransactionContext.OuterCloseCallback {
     public final long capacity;
     private final long maxInput;
     private final long maxOutput;
     private final boolean insert;
     private final boolean extract;
 
+    private final LongSnapshotStack snapshots = new LongSnapshotStack();
     public long amount = 0;
     private Runnable listener;
 
@@ -55,16 +55,6 @@ public MachineEnergyStorageImpl(long capacity, long maxInput, long maxOutput, bo
         this.extract = extract;
     }
 
-    @Override
-    protected Long createSnapshot() {
-        return this.amount;
-    }
-
-    @Override
-    protected void readSnapshot(Long snapshot) {
-        this.amount = snapshot;
-    }
-
     @Override
     public boolean supportsInsertion() {
         return this.maxInput > 0;
@@ -87,7 +77,7 @@ public long tryExtract(long amount) {
 
     @Override
     public long tryInsert(long amount) {
-        return Math.min(this.maxInput, Math.min(this.amount + amount, this.capacity) - this.amount);
+        return Math.min(this.maxInput, Math.min(amount, this.capacity - this.amount)); // avoid overflowing for large amounts
     }
 
     @Override
@@ -260,9 +250,29 @@ public void readPacket(@NotNull FriendlyByteBuf buf) {
         this.amount = buf.readLong();
     }
 
+    private void updateSnapshots(@NotNull TransactionContext transaction) {
+        if (this.snapshots.save(transaction.nestingDepth(), this.amount)) {
+            transaction.addCloseCallback(this);
+        }
+    }
+
+    @Override
+    public void onClose(TransactionContext transaction, TransactionContext.Result result) {
+        int depth = transaction.nestingDepth();
+        long amount = this.snapshots.take(depth);
+        if (result.wasAborted()) {
+            this.amount = amount;
+        } else if (depth > 0) {
+            if (this.snapshots.save(depth - 1, amount)) {
+                transaction.getOpenTransaction(depth - 1).addCloseCallback(this);
+            }
+        } else {
+            transaction.addOuterCloseCallback(this);
+        }
+    }
+
     @Override
-    protected void onFinalCommit() {
-        super.onFinalCommit();
+    public void afterOuterClose(TransactionContext.Result result) {
         this.markModified();
     }
 
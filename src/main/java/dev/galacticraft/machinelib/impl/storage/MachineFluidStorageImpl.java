@@ -31,6 +31,7 @@
 import dev.galacticraft.machinelib.api.storage.slot.SlotGroupType;
 import dev.galacticraft.machinelib.impl.menu.sync.ResourceStorageSyncHandler;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.level.material.Fluid;
@@ -41,12 +42,12 @@
 import java.util.Iterator;
 import java.util.Map;
 
-public class MachineFluidStorageImpl implements MachineFluidStorage {
+public class MachineFluidStorageImpl implements MachineFluidStorage, TransactionContext.CloseCallback, TransactionContext.OuterCloseCallback {
     private final SlotGroup<Fluid, FluidStack, FluidResourceSlot>[] groups;
     private final SlotGroupType[] types;
     private final Map<SlotGroupType, SlotGroup<Fluid, FluidStack, FluidResourceSlot>> typeToGroup;
     private final FluidResourceSlot[] allSlots;
-    private TransactionContext cachedTransaction = null;
+    private final LongSnapshotStack snapshots = new LongSnapshotStack();
     private long modifications = 0;
     private Runnable listener;
 
@@ -88,6 +89,11 @@ public int groups() {
         return group;
     }
 
+    @Override
+    public long getModifications(@NotNull SlotGroupType type) {
+        return this.getGroup(type).getModifications();
+    }
+
     @Override
     public @NotNull FluidResourceSlot getSlot(@NotNull SlotGroupType type) {
         SlotGroup<Fluid, FluidStack, FluidResourceSlot> group = this.getGroup(type);
@@ -129,27 +135,36 @@ public void revertModification() {
     @Override
     public void markModified(@Nullable TransactionContext context) {
         if (context != null) {
+            if (this.snapshots.save(context.nestingDepth(), this.modifications)) {
+                context.addCloseCallback(this);
+            }
             this.modifications++;
-            context.addCloseCallback((context1, result) -> {
-                if (result.wasAborted()) {
-                    this.modifications--;
-                } else {
-                    if (this.listener != null) {
-                        TransactionContext outer = context1.nestingDepth() != 0 ? context1.getOpenTransaction(0) : context1;
-                        if (this.cachedTransaction != outer) {
-                            this.cachedTransaction = outer;
-                            context.addOuterCloseCallback((result1) -> {
-                                if (result1.wasCommitted()) this.listener.run();
-                            });
-                        }
-                    }
-                }
-            });
         } else {
             this.markModified();
         }
     }
 
+    @Override
+    public void onClose(TransactionContext transaction, TransactionContext.Result result) {
+        int depth = transaction.nestingDepth();
+        long modifications = this.snapshots.take(depth);
+        if (result.wasAborted()) {
+            this.modifications = modifications;
+        } else if (depth > 0) {
+            if (this.snapshots.save(depth - 1, modifications)) {
+                transaction.getOpenTransaction(depth - 1).addCloseCallback(this);
+            }
+        } else if (this.listener != null) {
+            transaction.addOuterCloseCallback(this);
+        }
+    }
+
+    @Override
+    public void afterOuterClose(TransactionContext.Result result) {
+        assert result.wasCommitted();
+        if (this.listener != null) this.listener.run();
+    }
+
     @Override
     public void markModified() {
         this.modifications++;
@@ -188,6 +203,6 @@ public void readPacket(@NotNull FriendlyByteBuf buf) {
 
     @Override
     public @Nullable MenuSyncHandler createSyncHandler() {
-        return new ResourceStorageSyncHandler<>(this);
+        return new ResourceStorageSyncHandler<>(this, BuiltInRegistries.FLUID, slot -> slot.getDisplay().height());
     }
 }
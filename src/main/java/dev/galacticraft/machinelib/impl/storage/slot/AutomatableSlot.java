@@ -97,7 +97,6 @@ public void set(ItemStack stack) {
         } else {
             this.slot.set(stack.getItem(), stack.getTag(), stack.getCount());
         }
-        this.slot.markModified();
     }
 
     @Override
@@ -110,21 +110,21 @@ public void readTag(@NotNull CompoundTag tag) {
     @Override
     public void writePacket(@NotNull FriendlyByteBuf buf) {
         if (this.getAmount() > 0) {
-            buf.writeInt((int) this.getAmount());
-            buf.writeUtf(BuiltInRegistries.FLUID.getKey(this.getResource()).toString());
+            buf.writeVarLong(this.getAmount());
+            buf.writeVarInt(BuiltInRegistries.FLUID.getId(this.getResource()));
             buf.writeNbt(this.getTag());
         } else {
-            buf.writeInt(0);
+            buf.writeVarLong(0);
         }
     }
 
     @Override
     public void readPacket(@NotNull FriendlyByteBuf buf) {
-        int amount = buf.readInt();
+        long amount = buf.readVarLong();
         if (amount == 0) {
             this.setEmpty();
         } else {
-            Fluid resource = BuiltInRegistries.FLUID.get(new ResourceLocation(buf.readUtf()));
+            Fluid resource = BuiltInRegistries.FLUID.byId(buf.readVarInt());
             CompoundTag tag = buf.readNbt();
             this.set(resource, tag, amount);
         }
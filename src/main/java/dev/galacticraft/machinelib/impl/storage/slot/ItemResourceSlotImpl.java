@@ -45,12 +45,12 @@
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 
 public class ItemResourceSlotImpl extends ResourceSlotImpl<Item, ItemStack> implements ItemResourceSlot {
     private final @NotNull ItemSlotDisplay display;
     private long cachedExpiry = -1;
     private SingleSlotStorage<ItemVariant> cachedStorage = null;
+    private final VariantCache<Item, ItemVariant> cachedVariant = new VariantCache<>((item, tag) -> item != null ? ItemVariant.of(item, tag) : ItemVariant.blank());
     private ItemApiLookup<?, ContainerItemContext> cachedLookup = null;
     private Object cachedApi = null;
 
@@ -134,21 +134,21 @@ public void readTag(@NotNull CompoundTag tag) {
     @Override
     public void writePacket(@NotNull FriendlyByteBuf buf) {
         if (this.getAmount() > 0) {
-            buf.writeInt((int) this.getAmount());
-            buf.writeUtf(BuiltInRegistries.ITEM.getKey(this.getResource()).toString());
+            buf.writeVarLong(this.getAmount());
+            buf.writeVarInt(BuiltInRegistries.ITEM.getId(this.getResource()));
             buf.writeNbt(this.getTag());
         } else {
-            buf.writeInt(0);
+            buf.writeVarLong(0);
         }
     }
 
     @Override
     public void readPacket(@NotNull FriendlyByteBuf buf) {
-        int amount = buf.readInt();
+        long amount = buf.readVarLong();
         if (amount == 0) {
             this.setEmpty();
         } else {
-            Item resource = BuiltInRegistries.ITEM.get(new ResourceLocation(buf.readUtf()));
+            Item resource = BuiltInRegistries.ITEM.byId(buf.readVarInt());
             CompoundTag tag = buf.readNbt();
             this.set(resource, tag, amount);
         }
@@ -185,7 +185,7 @@ public boolean isResourceBlank() {
 
                 @Override
                 public ItemVariant getResource() {
-                    return ItemResourceSlotImpl.this.isEmpty() ? ItemVariant.blank() : ItemVariant.of(Objects.requireNonNull(ItemResourceSlotImpl.this.getResource()), ItemResourceSlotImpl.this.getTag());
+                    return ItemResourceSlotImpl.this.getItemVariant();
                 }
 
                 @Override
@@ -219,7 +219,7 @@ public long getVersion() {
 
     @Override
     public ItemVariant getItemVariant() {
-        return ItemResourceSlotImpl.this.isEmpty() ? ItemVariant.blank() : ItemVariant.of(Objects.requireNonNull(ItemResourceSlotImpl.this.getResource()), ItemResourceSlotImpl.this.getTag());
+        return this.cachedVariant.get(this);
     }
 
     @Override
@@ -237,7 +237,7 @@ public long exchange(ItemVariant newVariant, long maxAmount, TransactionContext
 
         if (this.getAmount() == maxAmount && this.getCapacityFor(newVariant.getItem()) >= maxAmount) {
             this.updateSnapshots(transaction);
-            this.set(newVariant.getItem(), newVariant.getNbt(), maxAmount);
+            this.replace(newVariant.getItem(), newVariant.getNbt(), maxAmount);
             return maxAmount;
         }
 
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage.slot;
+
+import dev.galacticraft.machinelib.api.fluid.FluidStack;
+import dev.galacticraft.machinelib.api.storage.slot.FluidResourceSlot;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.Fluids;
+import org.jetbrains.annotations.NotNull;
+
+public class PackedFluidSlotGroupImpl extends PackedSlotGroupImpl<Fluid, FluidStack, FluidResourceSlot> {
+    public PackedFluidSlotGroupImpl(@NotNull FluidResourceSlot @NotNull [] slots) {
+        super(slots);
+    }
+
+    @Override
+    protected @NotNull FluidResourceSlot createView(int slot, @NotNull FluidResourceSlot definition) {
+        return new PackedFluidResourceSlotImpl(this, slot, definition.getDisplay());
+    }
+
+    @Override
+    public long getCapacityFor(int slot, @NotNull Fluid fluid) {
+        return this.getCapacity(slot);
+    }
+
+    @Override
+    public long getRealCapacity(int slot) {
+        return this.getCapacity(slot);
+    }
+
+    @Override
+    public @NotNull FluidStack createStack(int slot) {
+        return FluidStack.create(this.getResource(slot), this.getTag(slot), this.getAmount(slot));
+    }
+
+    @Override
+    public @NotNull FluidStack copyStack(int slot) {
+        return FluidStack.create(this.getResource(slot), this.copyTag(slot), this.getAmount(slot));
+    }
+
+    @Override
+    public boolean canInsertStack(@NotNull FluidStack stack) {
+        if (stack.isEmpty()) return true;
+        assert stack.getFluid() != null && stack.getFluid() != Fluids.EMPTY && stack.getAmount() > 0;
+        return this.canInsert(stack.getFluid(), stack.getTag(), stack.getAmount());
+    }
+
+    @Override
+    public long tryInsertStack(@NotNull FluidStack stack) {
+        if (stack.isEmpty()) return 0;
+        assert stack.getFluid() != null && stack.getFluid() != Fluids.EMPTY && stack.getAmount() > 0;
+        return this.tryInsert(stack.getFluid(), stack.getTag(), stack.getAmount());
+    }
+
+    @Override
+    public long insertStack(@NotNull FluidStack stack) {
+        if (stack.isEmpty()) return 0;
+        assert stack.getFluid() != null && stack.getFluid() != Fluids.EMPTY && stack.getAmount() > 0;
+        return this.insert(stack.getFluid(), stack.getTag(), stack.getAmount());
+    }
+
+    @Override
+    public boolean canInsertStack(int slot, @NotNull FluidStack stack) {
+        if (stack.isEmpty()) return true;
+        assert stack.getFluid() != null;
+        return this.canInsert(slot, stack.getFluid(), stack.getTag(), stack.getAmount());
+    }
+
+    @Override
+    public long tryInsertStack(int slot, @NotNull FluidStack stack) {
+        if (stack.isEmpty()) return 0;
+        assert stack.getFluid() != null;
+        return this.tryInsert(slot, stack.getFluid(), stack.getTag(), stack.getAmount());
+    }
+
+    @Override
+    public long insertStack(int slot, @NotNull FluidStack stack) {
+        if (stack.isEmpty()) return 0;
+        assert stack.getFluid() != null;
+        return this.insert(slot, stack.getFluid(), stack.getTag(), stack.getAmount());
+    }
+
+    @Override
+    protected @NotNull CompoundTag createTag(int slot) {
+        CompoundTag tag = new CompoundTag();
+        if (this.isEmpty(slot)) return tag;
+        tag.putString(ResourceSlotImpl.RESOURCE_KEY, BuiltInRegistries.FLUID.getKey(this.getResource(slot)).toString());
+        tag.putInt(ResourceSlotImpl.AMOUNT_KEY, (int) this.getAmount(slot));
+        CompoundTag fluidTag = this.getTag(slot);
+        if (fluidTag != null && !fluidTag.isEmpty()) tag.put(ResourceSlotImpl.TAG_KEY, fluidTag);
+        return tag;
+    }
+
+    @Override
+    protected void readTag(int slot, @NotNull CompoundTag tag) {
+        if (tag.isEmpty()) {
+            this.set(slot, null, null, 0);
+        } else {
+            this.set(slot, BuiltInRegistries.FLUID.get(new ResourceLocation(tag.getString(ResourceSlotImpl.RESOURCE_KEY))), tag.contains(ResourceSlotImpl.TAG_KEY, Tag.TAG_COMPOUND) ? tag.getCompound(ResourceSlotImpl.TAG_KEY) : null, tag.getInt(ResourceSlotImpl.AMOUNT_KEY));
+        }
+    }
+
+    @Override
+    protected void writePacket(int slot, @NotNull FriendlyByteBuf buf) {
+        if (this.getAmount(slot) > 0) {
+            buf.writeVarLong(this.getAmount(slot));
+            buf.writeVarInt(BuiltInRegistries.FLUID.getId(this.getResource(slot)));
+            buf.writeNbt(this.getTag(slot));
+        } else {
+            buf.writeVarLong(0);
+        }
+    }
+
+    @Override
+    protected void readPacket(int slot, @NotNull FriendlyByteBuf buf) {
+        long amount = buf.readVarLong();
+        if (amount == 0) {
+            this.set(slot, null, null, 0);
+        } else {
+            Fluid resource = BuiltInRegistries.FLUID.byId(buf.readVarInt());
+            CompoundTag tag = buf.readNbt();
+            this.set(slot, resource, tag, amount);
+        }
+    }
+}
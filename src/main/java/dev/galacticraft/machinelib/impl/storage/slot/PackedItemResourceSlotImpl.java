@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage.slot;
+
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.display.ItemSlotDisplay;
+import dev.galacticraft.machinelib.impl.Utils;
+import net.fabricmc.fabric.api.lookup.v1.item.ItemApiLookup;
+import net.fabricmc.fabric.api.transfer.v1.context.ContainerItemContext;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.storage.StoragePreconditions;
+import net.fabricmc.fabric.api.transfer.v1.storage.base.SingleSlotStorage;
+import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+public class PackedItemResourceSlotImpl extends PackedResourceSlotImpl<Item, ItemStack> implements ItemResourceSlot {
+    private final @NotNull ItemSlotDisplay display;
+    private long cachedExpiry = -1;
+    private SingleSlotStorage<ItemVariant> cachedStorage = null;
+    private final VariantCache<Item, ItemVariant> cachedVariant = new VariantCache<>((item, tag) -> item != null ? ItemVariant.of(item, tag) : ItemVariant.blank());
+    private ItemApiLookup<?, ContainerItemContext> cachedLookup = null;
+    private Object cachedApi = null;
+
+    public PackedItemResourceSlotImpl(@NotNull PackedItemSlotGroupImpl group, int index, @NotNull ItemSlotDisplay display) {
+        super(group, index);
+        this.display = display;
+    }
+
+    @Override
+    public @NotNull ItemSlotDisplay getDisplay() {
+        return this.display;
+    }
+
+    @Override
+    public <A> @Nullable A find(ItemApiLookup<A, ContainerItemContext> lookup) {
+        if (this.cachedExpiry != this.getModifications() || this.cachedLookup != lookup) {
+            this.cachedExpiry = this.getModifications();
+            this.cachedApi = ItemResourceSlot.super.find(lookup);
+            this.cachedLookup = lookup;
+        }
+        return (A) this.cachedApi;
+    }
+
+    @Override
+    public SingleSlotStorage<ItemVariant> getMainSlot() {
+        if (this.cachedStorage == null) {
+            this.cachedStorage = new SingleSlotStorage<>() {
+                @Override
+                public long insert(ItemVariant resource, long maxAmount, TransactionContext transaction) {
+                    return PackedItemResourceSlotImpl.this.insert(resource.getItem(), resource.getNbt(), maxAmount, transaction);
+                }
+
+                @Override
+                public long extract(ItemVariant resource, long maxAmount, TransactionContext transaction) {
+                    return PackedItemResourceSlotImpl.this.extract(resource.getItem(), resource.getNbt(), maxAmount, transaction);
+                }
+
+                @Override
+                public boolean isResourceBlank() {
+                    return PackedItemResourceSlotImpl.this.isEmpty();
+                }
+
+                @Override
+                public ItemVariant getResource() {
+                    return PackedItemResourceSlotImpl.this.getItemVariant();
+                }
+
+                @Override
+                public long simulateInsert(ItemVariant resource, long maxAmount, @Nullable TransactionContext transaction) {
+                    return PackedItemResourceSlotImpl.this.tryInsert(resource.getItem(), resource.getNbt(), maxAmount);
+                }
+
+                @Override
+                public long simulateExtract(ItemVariant resource, long maxAmount, @Nullable TransactionContext transaction) {
+                    return PackedItemResourceSlotImpl.this.tryExtract(resource.getItem(), resource.getNbt(), maxAmount);
+                }
+
+                @Override
+                public long getAmount() {
+                    return PackedItemResourceSlotImpl.this.getAmount();
+                }
+
+                @Override
+                public long getCapacity() {
+                    return PackedItemResourceSlotImpl.this.getRealCapacity();
+                }
+
+                @Override
+                public long getVersion() {
+                    return PackedItemResourceSlotImpl.this.getModifications();
+                }
+            };
+        }
+        return this.cachedStorage;
+    }
+
+    @Override
+    public ItemVariant getItemVariant() {
+        return this.cachedVariant.get(this);
+    }
+
+    @Override
+    public long extract(ItemVariant resource, long maxAmount, TransactionContext transaction) {
+        return this.extract(resource.getItem(), resource.getNbt(), maxAmount, transaction);
+    }
+
+    @Override
+    public long exchange(ItemVariant newVariant, long maxAmount, TransactionContext transaction) {
+        StoragePreconditions.notBlankNotNegative(newVariant, maxAmount);
+
+        if (newVariant.getItem() == this.getResource() && Utils.tagsEqual(this.getTag(), newVariant.getNbt())) {
+            return Math.min(this.getAmount(), maxAmount);
+        }
+
+        if (this.getAmount() == maxAmount && this.getCapacityFor(newVariant.getItem()) >= maxAmount) {
+            this.markModified(transaction);
+            this.group.replace(this.index, newVariant.getItem(), newVariant.getNbt(), maxAmount);
+            return maxAmount;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public long insert(ItemVariant resource, long maxAmount, TransactionContext transaction) {
+        return this.insert(resource.getItem(), resource.getNbt(), maxAmount, transaction);
+    }
+
+    @Override
+    public long insertOverflow(ItemVariant itemVariant, long maxAmount, TransactionContext transactionContext) {
+        return 0;
+    }
+
+    @Override
+    public List<SingleSlotStorage<ItemVariant>> getAdditionalSlots() {
+        return Collections.emptyList();
+    }
+}
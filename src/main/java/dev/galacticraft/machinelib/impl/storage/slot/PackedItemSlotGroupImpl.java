@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage.slot;
+
+import dev.galacticraft.machinelib.api.storage.slot.ContainerSlotGroup;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.impl.Utils;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+public class PackedItemSlotGroupImpl extends PackedSlotGroupImpl<Item, ItemStack, ItemResourceSlot> implements ContainerSlotGroup<ItemResourceSlot> {
+    public PackedItemSlotGroupImpl(@NotNull ItemResourceSlot @NotNull [] slots) {
+        super(slots);
+    }
+
+    @Override
+    protected @NotNull ItemResourceSlot createView(int slot, @NotNull ItemResourceSlot definition) {
+        assert definition.getCapacity() > 0 && definition.getCapacity() <= 64;
+        return new PackedItemResourceSlotImpl(this, slot, definition.getDisplay());
+    }
+
+    @Override
+    public long getCapacityFor(int slot, @NotNull Item item) {
+        return Math.min(this.getCapacity(slot), item.getMaxStackSize());
+    }
+
+    @Override
+    public long getRealCapacity(int slot) {
+        Item item = this.getResource(slot);
+        return Math.min(this.getCapacity(slot), item == null ? 64 : item.getMaxStackSize());
+    }
+
+    @Override
+    public @NotNull ItemStack createStack(int slot) {
+        if (this.isEmpty(slot)) return ItemStack.EMPTY;
+        ItemStack stack = new ItemStack(this.getResource(slot), (int) this.getAmount(slot));
+        stack.setTag(this.getTag(slot));
+        return stack;
+    }
+
+    @Override
+    public @NotNull ItemStack copyStack(int slot) {
+        if (this.isEmpty(slot)) return ItemStack.EMPTY;
+        ItemStack stack = new ItemStack(this.getResource(slot), (int) this.getAmount(slot));
+        stack.setTag(this.copyTag(slot));
+        return stack;
+    }
+
+    @Override
+    public boolean canInsertStack(@NotNull ItemStack stack) {
+        if (stack.isEmpty()) return true;
+        assert stack.getItem() != Items.AIR && stack.getCount() > 0;
+        return this.canInsert(stack.getItem(), stack.getTag(), stack.getCount());
+    }
+
+    @Override
+    public long tryInsertStack(@NotNull ItemStack stack) {
+        if (stack.isEmpty()) return 0;
+        assert stack.getItem() != Items.AIR && stack.getCount() > 0;
+        return this.tryInsert(stack.getItem(), stack.getTag(), stack.getCount());
+    }
+
+    @Override
+    public long insertStack(@NotNull ItemStack stack) {
+        if (stack.isEmpty()) return 0;
+        assert stack.getItem() != Items.AIR && stack.getCount() > 0;
+        return this.insert(stack.getItem(), stack.getTag(), stack.getCount());
+    }
+
+    @Override
+    public boolean canInsertStack(int slot, @NotNull ItemStack stack) {
+        if (stack.isEmpty()) return true;
+        assert stack.getItem() != Items.AIR && stack.getCount() > 0;
+        return this.canInsert(slot, stack.getItem(), stack.getTag(), stack.getCount());
+    }
+
+    @Override
+    public long tryInsertStack(int slot, @NotNull ItemStack stack) {
+        if (stack.isEmpty()) return 0;
+        assert stack.getItem() != Items.AIR && stack.getCount() > 0;
+        return this.tryInsert(slot, stack.getItem(), stack.getTag(), stack.getCount());
+    }
+
+    @Override
+    public long insertStack(int slot, @NotNull ItemStack stack) {
+        if (stack.isEmpty()) return 0;
+        assert stack.getItem() != Items.AIR && stack.getCount() > 0;
+        return this.insert(slot, stack.getItem(), stack.getTag(), stack.getCount());
+    }
+
+    @Override
+    protected @NotNull CompoundTag createTag(int slot) {
+        CompoundTag tag = new CompoundTag();
+        if (this.isEmpty(slot)) return tag;
+        tag.putString(ResourceSlotImpl.RESOURCE_KEY, BuiltInRegistries.ITEM.getKey(this.getResource(slot)).toString());
+        tag.putInt(ResourceSlotImpl.AMOUNT_KEY, (int) this.getAmount(slot));
+        CompoundTag itemTag = this.getTag(slot);
+        if (itemTag != null && !itemTag.isEmpty()) tag.put(ResourceSlotImpl.TAG_KEY, itemTag);
+        return tag;
+    }
+
+    @Override
+    protected void readTag(int slot, @NotNull CompoundTag tag) {
+        if (tag.isEmpty()) {
+            this.set(slot, null, null, 0);
+        } else {
+            this.set(slot, BuiltInRegistries.ITEM.get(new ResourceLocation(tag.getString(ResourceSlotImpl.RESOURCE_KEY))), tag.contains(ResourceSlotImpl.TAG_KEY, Tag.TAG_COMPOUND) ? tag.getCompound(ResourceSlotImpl.TAG_KEY) : null, tag.getInt(ResourceSlotImpl.AMOUNT_KEY));
+        }
+    }
+
+    @Override
+    protected void writePacket(int slot, @NotNull FriendlyByteBuf buf) {
+        if (this.getAmount(slot) > 0) {
+            buf.writeVarLong(this.getAmount(slot));
+            buf.writeVarInt(BuiltInRegistries.ITEM.getId(this.getResource(slot)));
+            buf.writeNbt(this.getTag(slot));
+        } else {
+            buf.writeVarLong(0);
+        }
+    }
+
+    @Override
+    protected void readPacket(int slot, @NotNull FriendlyByteBuf buf) {
+        long amount = buf.readVarLong();
+        if (amount == 0) {
+            this.set(slot, null, null, 0);
+        } else {
+            Item resource = BuiltInRegistries.ITEM.byId(buf.readVarInt());
+            CompoundTag tag = buf.readNbt();
+            this.set(slot, resource, tag, amount);
+        }
+    }
+
+    @Override
+    public int getContainerSize() {
+        return this.size();
+    }
+
+    @Override
+    public @NotNull ItemStack getItem(int i) {
+        return this.copyStack(i);
+    }
+
+    @Override
+    public @NotNull ItemStack removeItem(int slot, int amount) {
+        Utils.breakpointMe("attempted to remove item from recipe test container!");
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public @NotNull ItemStack removeItemNoUpdate(int i) {
+        Utils.breakpointMe("attempted to remove item from recipe test container!");
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public void setItem(int i, ItemStack itemStack) {
+        Utils.breakpointMe("attempted to modify item from recipe test container!");
+    }
+
+    @Override
+    public void setChanged() {
+        Utils.breakpointMe("attempted to mark recipe test container as modified!");
+    }
+
+    @Override
+    public boolean stillValid(Player player) {
+        Utils.breakpointMe("testing player validity of inv view");
+        return false;
+    }
+
+    @Override
+    public void clearContent() {
+        Utils.breakpointMe("attempted to clear items in a recipe test container!");
+    }
+}
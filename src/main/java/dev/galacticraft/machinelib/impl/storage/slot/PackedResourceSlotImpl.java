@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage.slot;
+
+import dev.galacticraft.machinelib.api.storage.MutableModifiable;
+import dev.galacticraft.machinelib.api.storage.ResourceFilter;
+import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
+import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A view of a single slot in a {@link PackedSlotGroupImpl}.
+ * Holds no state of its own - every method delegates to the group.
+ *
+ * @param <Resource> the type of resource stored in the slot.
+ * @param <Stack>    the type of stack the resource can be represented as.
+ */
+public abstract class PackedResourceSlotImpl<Resource, Stack> implements ResourceSlot<Resource, Stack> {
+    protected final @NotNull PackedSlotGroupImpl<Resource, Stack, ?> group;
+    protected final int index;
+
+    protected PackedResourceSlotImpl(@NotNull PackedSlotGroupImpl<Resource, Stack, ?> group, int index) {
+        this.group = group;
+        this.index = index;
+    }
+
+    @Override
+    public @NotNull ResourceFilter<Resource> getFilter() {
+        return this.group.getFilter(this.index);
+    }
+
+    @Override
+    public @NotNull ResourceFilter<Resource> getStrictFilter() {
+        return this.group.getStrictFilter(this.index);
+    }
+
+    @Override
+    public void _setParent(MutableModifiable parent) {
+        throw new UnsupportedOperationException("Packed slots cannot be moved to another group");
+    }
+
+    @Override
+    public @Nullable Resource getResource() {
+        return this.group.getResource(this.index);
+    }
+
+    @Override
+    public long getAmount() {
+        return this.group.getAmount(this.index);
+    }
+
+    @Override
+    public @Nullable CompoundTag getTag() {
+        return this.group.getTag(this.index);
+    }
+
+    @Override
+    public @Nullable CompoundTag copyTag() {
+        return this.group.copyTag(this.index);
+    }
+
+    @Override
+    public long getCapacity() {
+        return this.group.getCapacity(this.index);
+    }
+
+    @Override
+    public long getCapacityFor(@NotNull Resource resource) {
+        return this.group.getCapacityFor(this.index, resource);
+    }
+
+    @Override
+    public long getRealCapacity() {
+        return this.group.getRealCapacity(this.index);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.group.isEmpty(this.index);
+    }
+
+    @Override
+    public boolean isFull() {
+        return this.group.isFull(this.index);
+    }
+
+    @Override
+    public @NotNull Stack createStack() {
+        return this.group.createStack(this.index);
+    }
+
+    @Override
+    public @NotNull Stack copyStack() {
+        return this.group.copyStack(this.index);
+    }
+
+    @Override
+    public boolean canInsert(@NotNull Resource resource) {
+        return this.group.canInsert(this.index, resource);
+    }
+
+    @Override
+    public boolean canInsert(@NotNull Resource resource, @Nullable CompoundTag tag) {
+        return this.group.canInsert(this.index, resource, tag);
+    }
+
+    @Override
+    public boolean canInsert(@NotNull Resource resource, long amount) {
+        return this.group.canInsert(this.index, resource, amount);
+    }
+
+    @Override
+    public boolean canInsert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        return this.group.canInsert(this.index, resource, tag, amount);
+    }
+
+    @Override
+    public boolean canInsertStack(@NotNull Stack stack) {
+        return this.group.canInsertStack(this.index, stack);
+    }
+
+    @Override
+    public long tryInsert(@NotNull Resource resource, long amount) {
+        return this.group.tryInsert(this.index, resource, amount);
+    }
+
+    @Override
+    public long tryInsert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        return this.group.tryInsert(this.index, resource, tag, amount);
+    }
+
+    @Override
+    public long tryInsertStack(@NotNull Stack stack) {
+        return this.group.tryInsertStack(this.index, stack);
+    }
+
+    @Override
+    public long insert(@NotNull Resource resource, long amount) {
+        return this.group.insert(this.index, resource, amount);
+    }
+
+    @Override
+    public long insert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        return this.group.insert(this.index, resource, tag, amount);
+    }
+
+    @Override
+    public long insertStack(@NotNull Stack stack) {
+        return this.group.insertStack(this.index, stack);
+    }
+
+    @Override
+    public boolean contains(@NotNull Resource resource) {
+        return this.group.containsAny(this.index, resource);
+    }
+
+    @Override
+    public boolean contains(@NotNull Resource resource, @Nullable CompoundTag tag) {
+        return this.group.containsAny(this.index, resource, tag);
+    }
+
+    @Override
+    public boolean canExtract(long amount) {
+        return this.group.canExtract(this.index, amount);
+    }
+
+    @Override
+    public boolean canExtract(@NotNull Resource resource, long amount) {
+        return this.group.canExtract(this.index, resource, amount);
+    }
+
+    @Override
+    public boolean canExtract(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        return this.group.canExtract(this.index, resource, tag, amount);
+    }
+
+    @Override
+    public long tryExtract(long amount) {
+        return this.group.tryExtract(this.index, amount);
+    }
+
+    @Override
+    public long tryExtract(@Nullable Resource resource, long amount) {
+        return this.group.tryExtract(this.index, resource, amount);
+    }
+
+    @Override
+    public long tryExtract(@Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
+        return this.group.tryExtract(this.index, resource, tag, amount);
+    }
+
+    @Override
+    public boolean extractOne() {
+        return this.group.extractOne(this.index);
+    }
+
+    @Override
+    public boolean extractOne(@Nullable Resource resource) {
+        return this.group.extractOne(this.index, resource);
+    }
+
+    @Override
+    public boolean extractOne(@Nullable Resource resource, @Nullable CompoundTag tag) {
+        return this.group.extractOne(this.index, resource, tag);
+    }
+
+    @Override
+    public long extract(long amount) {
+        return this.group.extract(this.index, amount);
+    }
+
+    @Override
+    public long extract(@Nullable Resource resource, long amount) {
+        return this.group.extract(this.index, resource, amount);
+    }
+
+    @Override
+    public long extract(@Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
+        return this.group.extract(this.index, resource, tag, amount);
+    }
+
+    @Override
+    public long insert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount, @Nullable TransactionContext context) {
+        return this.group.insert(this.index, resource, tag, amount, context);
+    }
+
+    @Override
+    public long extract(@Nullable Resource resource, @Nullable CompoundTag tag, long amount, @Nullable TransactionContext context) {
+        return this.group.extract(this.index, resource, tag, amount, context);
+    }
+
+    @Override
+    public void set(@Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
+        this.group.set(this.index, resource, tag, amount);
+    }
+
+    @Override
+    public void set(@Nullable Resource resource, long amount) {
+        this.group.set(this.index, resource, null, amount);
+    }
+
+    @Override
+    public long getModifications() {
+        return this.group.getModifications(this.index);
+    }
+
+    @Override
+    public void revertModification() {
+        this.group.revertModification(this.index);
+    }
+
+    @Override
+    public void markModified() {
+        this.group.markModified(this.index);
+    }
+
+    @Override
+    public void markModified(@Nullable TransactionContext context) {
+        this.group.markModified(this.index, context);
+    }
+
+    @Override
+    public @NotNull CompoundTag createTag() {
+        return this.group.createTag(this.index);
+    }
+
+    @Override
+    public void readTag(@NotNull CompoundTag tag) {
+        this.group.readTag(this.index, tag);
+    }
+
+    @Override
+    public void writePacket(@NotNull FriendlyByteBuf buf) {
+        this.group.writePacket(this.index, buf);
+    }
+
+    @Override
+    public void readPacket(@NotNull FriendlyByteBuf buf) {
+        this.group.readPacket(this.index, buf);
+    }
+}
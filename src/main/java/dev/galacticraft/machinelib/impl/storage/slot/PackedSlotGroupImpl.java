@@ -0,0 +1,875 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage.slot;
+
+import com.google.common.collect.Iterators;
+import dev.galacticraft.machinelib.api.storage.MutableModifiable;
+import dev.galacticraft.machinelib.api.storage.ResourceFilter;
+import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.SlotGroup;
+import dev.galacticraft.machinelib.impl.Utils;
+import net.fabricmc.fabric.api.transfer.v1.storage.StoragePreconditions;
+import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A slot group that stores the state of all of its slots in parallel arrays, rather than in the slots themselves.
+ * The slots of this group are lightweight views that delegate to the group.
+ * <p>
+ * Transactions are tracked by the group as a whole: the first time a slot is modified in a transaction,
+ * its previous state is recorded in a journal that is re-used for every transaction at that nesting depth.
+ * <p>
+ * The group also keeps an index of which slots contain each resource, as well as which slots are empty,
+ * so that matching insertions and extractions only visit the slots that could be affected.
+ * <p>
+ * Behaves exactly like {@link SlotGroupImpl} with {@link ResourceSlotImpl} slots (and uses the same serialized format).
+ *
+ * @see SlotGroup#packedItem()
+ * @see SlotGroup#packedFluid()
+ */
+// assertions made (for every slot):
+// if AMOUNT > 0 then RESOURCE is NOT NULL (and the inverse - if RESOURCE is NOT NULL then AMOUNT > 0)
+// the associated TAG will either be NULL or contain a value - it will never be EMPTY
+@SuppressWarnings("unchecked")
+public abstract class PackedSlotGroupImpl<Resource, Stack, Slot extends ResourceSlot<Resource, Stack>> implements SlotGroup<Resource, Stack, Slot>, TransactionContext.CloseCallback {
+    private final @NotNull Slot @NotNull [] slots;
+    private final @NotNull ResourceFilter<Resource> @NotNull [] filters;
+    private final @NotNull ResourceFilter<Resource> @NotNull [] strictFilters;
+    private final long @NotNull [] capacities;
+    private final @Nullable Object @NotNull [] resources;
+    private final @Nullable CompoundTag @NotNull [] tags;
+    private final long @NotNull [] amounts;
+    private final long @NotNull [] slotModifications;
+    private final @NotNull Map<Object, BitSet> index = new IdentityHashMap<>();
+    private final @NotNull BitSet empty;
+    private final @NotNull BitSet full;
+    private int emptySlots;
+    private int fullSlots = 0;
+    private @Nullable Journal @NotNull [] journals = new Journal[0];
+    private MutableModifiable parent;
+    private long modifications = 0;
+
+    /**
+     * Creates a new packed slot group.
+     * The passed slots are only used as definitions (filters and capacity), and are replaced by views of this group.
+     *
+     * @param slots the slot definitions.
+     */
+    protected PackedSlotGroupImpl(@NotNull Slot @NotNull [] slots) {
+        int size = slots.length;
+        this.filters = new ResourceFilter[size];
+        this.strictFilters = new ResourceFilter[size];
+        this.capacities = new long[size];
+        this.resources = new Object[size];
+        this.tags = new CompoundTag[size];
+        this.amounts = new long[size];
+        this.slotModifications = new long[size];
+        this.empty = new BitSet(size);
+        this.empty.set(0, size);
+        this.emptySlots = size;
+        this.full = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            Slot definition = slots[i];
+            assert definition.isEmpty();
+            this.filters[i] = definition.getFilter();
+            this.strictFilters[i] = definition.getStrictFilter();
+            this.capacities[i] = definition.getCapacity();
+            slots[i] = this.createView(i, definition);
+        }
+        this.slots = slots;
+        for (int i = 0; i < size; i++) {
+            this.updateFull(i);
+        }
+    }
+
+    /**
+     * Creates a view of the given slot.
+     * Called in the constructor - implementations may not depend on any state of the subclass.
+     *
+     * @param slot       the index of the slot.
+     * @param definition the slot definition passed to the constructor.
+     * @return a view of the slot.
+     */
+    protected abstract @NotNull Slot createView(int slot, @NotNull Slot definition);
+
+    protected abstract @NotNull CompoundTag createTag(int slot);
+
+    protected abstract void readTag(int slot, @NotNull CompoundTag tag);
+
+    protected abstract void writePacket(int slot, @NotNull FriendlyByteBuf buf);
+
+    protected abstract void readPacket(int slot, @NotNull FriendlyByteBuf buf);
+
+    @Contract("null -> null")
+    private static @Nullable CompoundTag stripTag(@Nullable CompoundTag tag) {
+        return tag == null ? null : (tag.isEmpty() ? null : tag);
+    }
+
+    @Override
+    public void _setParent(@NotNull MutableModifiable modifiable) {
+        this.parent = modifiable;
+    }
+
+    @Override
+    public int size() {
+        return this.slots.length;
+    }
+
+    @Override
+    public int slots() {
+        return this.slots.length;
+    }
+
+    @Override
+    public Slot[] getSlots() {
+        return this.slots;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.emptySlots == this.slots.length;
+    }
+
+    @Override
+    public boolean isFull() {
+        return this.fullSlots == this.slots.length;
+    }
+
+    @Override
+    public @NotNull ResourceFilter<Resource> getStrictFilter(int slot) {
+        return this.strictFilters[slot];
+    }
+
+    @Override
+    public boolean canInsert(@NotNull Resource resource) {
+        BitSet containing = this.index.get(resource);
+        for (int i = this.nextAccepting(containing, 0); i != -1; i = this.nextAccepting(containing, i + 1)) {
+            if (this.canInsert(i, resource)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canInsert(@NotNull Resource resource, @Nullable CompoundTag tag) {
+        BitSet containing = this.index.get(resource);
+        for (int i = this.nextAccepting(containing, 0); i != -1; i = this.nextAccepting(containing, i + 1)) {
+            if (this.canInsert(i, resource, tag)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canInsert(@NotNull Resource resource, long amount) {
+        return this.tryInsert(resource, amount) == amount;
+    }
+
+    @Override
+    public boolean canInsert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        return this.tryInsert(resource, tag, amount) == amount;
+    }
+
+    @Override
+    public long tryInsert(@NotNull Resource resource, long amount) {
+        return this.tryInsert(resource, null, amount);
+    }
+
+    @Override
+    public long tryInsert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        long inserted = 0;
+        BitSet containing = this.index.get(resource);
+        for (int i = this.nextAccepting(containing, 0); i != -1; i = this.nextAccepting(containing, i + 1)) {
+            inserted += this.tryInsert(i, resource, tag, amount - inserted);
+            if (inserted == amount) break;
+        }
+        return inserted;
+    }
+
+    @Override
+    public long insert(@NotNull Resource resource, long amount) {
+        return this.insert(resource, null, amount);
+    }
+
+    @Override
+    public long insert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        long inserted = 0;
+        // the index is updated as slots are filled - take the next candidate only after inserting
+        for (int i = this.nextAccepting(this.index.get(resource), 0); i != -1; i = this.nextAccepting(this.index.get(resource), i + 1)) {
+            inserted += this.insert(i, resource, tag, amount - inserted);
+            if (inserted == amount) break;
+        }
+        return inserted;
+    }
+
+    @Override
+    public long insertMatching(@NotNull Resource resource, long amount) {
+        return this.insertMatching(resource, null, amount);
+    }
+
+    @Override
+    public long insertMatching(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        long inserted = 0;
+        BitSet containing = this.index.get(resource);
+        if (containing != null) {
+            for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+                if (Utils.tagsEqual(this.tags[i], tag)) {
+                    inserted += this.insert(i, resource, tag, amount - inserted);
+                    if (inserted == amount) return inserted;
+                }
+            }
+        }
+
+        // every slot that already contains the resource has been tried, so only empty slots remain
+        for (int i = this.empty.nextSetBit(0); i != -1; i = this.empty.nextSetBit(i + 1)) {
+            inserted += this.insert(i, resource, tag, amount - inserted);
+            if (inserted == amount) break;
+        }
+        return inserted;
+    }
+
+    @Override
+    public boolean containsAny(@NotNull Resource resource) {
+        BitSet containing = this.index.get(resource);
+        return containing != null && !containing.isEmpty();
+    }
+
+    @Override
+    public boolean containsAny(@NotNull Resource resource, @Nullable CompoundTag tag) {
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return false;
+        for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+            if (Utils.tagsEqual(this.tags[i], tag)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canExtract(@NotNull Resource resource, long amount) {
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return false;
+        for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+            if (this.amounts[i] >= amount) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canExtract(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return false;
+        for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+            if (this.canExtract(i, resource, tag, amount)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long tryExtract(@NotNull Resource resource, long amount) {
+        long extracted = 0;
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return 0;
+        for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+            extracted += this.tryExtract(i, resource, amount - extracted);
+            if (extracted == amount) break;
+        }
+        return extracted;
+    }
+
+    @Override
+    public long tryExtract(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        long extracted = 0;
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return 0;
+        for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+            extracted += this.tryExtract(i, resource, tag, amount - extracted);
+            if (extracted == amount) break;
+        }
+        return extracted;
+    }
+
+    @Override
+    public boolean extractOne(@NotNull Resource resource) {
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return false;
+        int slot = containing.nextSetBit(0);
+        return slot != -1 && this.extractOne(slot, resource);
+    }
+
+    @Override
+    public boolean extractOne(@NotNull Resource resource, @Nullable CompoundTag tag) {
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return false;
+        for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+            if (this.extractOne(i, resource, tag)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long extract(@NotNull Resource resource, long amount) {
+        long extracted = 0;
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return 0;
+        // slots that are emptied are removed from the index, but never before the current slot
+        for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+            extracted += this.extract(i, resource, amount - extracted);
+            if (extracted == amount) break;
+        }
+        return extracted;
+    }
+
+    @Override
+    public long extract(@NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        long extracted = 0;
+        BitSet containing = this.index.get(resource);
+        if (containing == null) return 0;
+        for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+            extracted += this.extract(i, resource, tag, amount - extracted);
+            if (extracted == amount) break;
+        }
+        return extracted;
+    }
+
+    @Override
+    public long insert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount, @Nullable TransactionContext context) {
+        long inserted = 0;
+        for (int i = this.nextAccepting(this.index.get(resource), 0); i != -1; i = this.nextAccepting(this.index.get(resource), i + 1)) {
+            inserted += this.insert(i, resource, tag, amount - inserted, context);
+            if (inserted == amount) break;
+        }
+        return inserted;
+    }
+
+    @Override
+    public long extract(@Nullable Resource resource, @Nullable CompoundTag tag, long amount, @Nullable TransactionContext context) {
+        long extracted = 0;
+        if (resource == null) {
+            for (int i = this.empty.nextClearBit(0); i < this.slots.length; i = this.empty.nextClearBit(i + 1)) {
+                extracted += this.extract(i, null, tag, amount - extracted, context);
+                if (extracted == amount) break;
+            }
+        } else {
+            BitSet containing = this.index.get(resource);
+            if (containing == null) return 0;
+            for (int i = containing.nextSetBit(0); i != -1; i = containing.nextSetBit(i + 1)) {
+                extracted += this.extract(i, resource, tag, amount - extracted, context);
+                if (extracted == amount) break;
+            }
+        }
+        return extracted;
+    }
+
+    @Override
+    public @NotNull Slot getSlot(int slot) {
+        return this.slots[slot];
+    }
+
+    @Override
+    public @NotNull ResourceFilter<Resource> getFilter(int slot) {
+        return this.filters[slot];
+    }
+
+    @Override
+    public @Nullable Resource getResource(int slot) {
+        return (Resource) this.resources[slot];
+    }
+
+    @Override
+    public long getAmount(int slot) {
+        return this.amounts[slot];
+    }
+
+    @Override
+    public @Nullable CompoundTag getTag(int slot) {
+        return this.tags[slot];
+    }
+
+    @Override
+    public @Nullable CompoundTag copyTag(int slot) {
+        CompoundTag tag = this.tags[slot];
+        return tag == null ? null : tag.copy();
+    }
+
+    @Override
+    public long getCapacity(int slot) {
+        return this.capacities[slot];
+    }
+
+    @Override
+    public boolean isEmpty(int slot) {
+        return this.amounts[slot] == 0;
+    }
+
+    @Override
+    public boolean isFull(int slot) {
+        return this.amounts[slot] == this.getRealCapacity(slot);
+    }
+
+    @Override
+    public boolean canInsert(int slot, @NotNull Resource resource) {
+        return this.amounts[slot] < this.getCapacityFor(slot, resource) && this.canAccept(slot, resource, null);
+    }
+
+    @Override
+    public boolean canInsert(int slot, @NotNull Resource resource, @Nullable CompoundTag tag) {
+        return this.amounts[slot] < this.getCapacityFor(slot, resource) && this.canAccept(slot, resource, tag);
+    }
+
+    @Override
+    public boolean canInsert(int slot, @NotNull Resource resource, long amount) {
+        StoragePreconditions.notNegative(amount);
+        return this.amounts[slot] + amount < this.getCapacityFor(slot, resource) && this.canAccept(slot, resource, null);
+    }
+
+    @Override
+    public boolean canInsert(int slot, @NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        StoragePreconditions.notNegative(amount);
+        return this.amounts[slot] + amount < this.getCapacityFor(slot, resource) && this.canAccept(slot, resource, tag);
+    }
+
+    @Override
+    public long tryInsert(int slot, @NotNull Resource resource, long amount) {
+        return this.tryInsert(slot, resource, null, amount);
+    }
+
+    @Override
+    public long tryInsert(int slot, @NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        StoragePreconditions.notNegative(amount);
+        long current = this.amounts[slot];
+        return this.canAccept(slot, resource, tag) ? Math.min(current + amount, this.getCapacityFor(slot, resource)) - current : 0;
+    }
+
+    @Override
+    public long insert(int slot, @NotNull Resource resource, long amount) {
+        return this.insert(slot, resource, null, amount);
+    }
+
+    @Override
+    public long insert(int slot, @NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        long inserted = this.tryInsert(slot, resource, tag, amount);
+        if (inserted > 0) {
+            this.setResource(slot, resource);
+            this.tags[slot] = stripTag(tag);
+            this.setAmount(slot, this.amounts[slot] + inserted);
+            this.markModified(slot);
+            return inserted;
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean containsAny(int slot, @NotNull Resource resource) {
+        return this.resources[slot] == resource;
+    }
+
+    @Override
+    public boolean containsAny(int slot, @NotNull Resource resource, @Nullable CompoundTag tag) {
+        return this.resources[slot] == resource && Utils.tagsEqual(this.tags[slot], tag);
+    }
+
+    @Override
+    public boolean canExtract(int slot, long amount) {
+        StoragePreconditions.notNegative(amount);
+        return this.amounts[slot] > amount;
+    }
+
+    @Override
+    public boolean canExtract(int slot, @NotNull Resource resource, long amount) {
+        StoragePreconditions.notNegative(amount);
+        return this.resources[slot] == resource && this.amounts[slot] >= amount;
+    }
+
+    @Override
+    public boolean canExtract(int slot, @NotNull Resource resource, @Nullable CompoundTag tag, long amount) {
+        StoragePreconditions.notNegative(amount);
+        return this.containsAny(slot, resource, tag) && this.amounts[slot] >= amount;
+    }
+
+    @Override
+    public long tryExtract(int slot, long amount) {
+        return Math.min(this.amounts[slot], amount);
+    }
+
+    @Override
+    public long tryExtract(int slot, @Nullable Resource resource, long amount) {
+        StoragePreconditions.notNegative(amount);
+        long current = this.amounts[slot];
+        return current > 0 && (resource == null || resource == this.resources[slot]) ? Math.min(current, amount) : 0;
+    }
+
+    @Override
+    public long tryExtract(int slot, @Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
+        StoragePreconditions.notNegative(amount);
+        long current = this.amounts[slot];
+        return current > 0 && (resource == null || resource == this.resources[slot]) && Utils.tagsEqual(this.tags[slot], tag) ? Math.min(current, amount) : 0;
+    }
+
+    @Override
+    public boolean extractOne(int slot) {
+        return this.extract(slot, 1) == 1;
+    }
+
+    @Override
+    public boolean extractOne(int slot, @Nullable Resource resource) {
+        return this.extract(slot, resource, 1) == 1;
+    }
+
+    @Override
+    public boolean extractOne(int slot, @Nullable Resource resource, @Nullable CompoundTag tag) {
+        return resource == null ? this.extract(slot, 1) == 1 : this.extract(slot, resource, tag, 1) == 1;
+    }
+
+    @Override
+    public long extract(int slot, long amount) {
+        return this.doExtraction(slot, this.tryExtract(slot, amount));
+    }
+
+    @Override
+    public long extract(int slot, @Nullable Resource resource, long amount) {
+        return this.doExtraction(slot, this.tryExtract(slot, resource, amount));
+    }
+
+    @Override
+    public long extract(int slot, @Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
+        return this.doExtraction(slot, this.tryExtract(slot, resource, tag, amount));
+    }
+
+    public long insert(int slot, @NotNull Resource resource, @Nullable CompoundTag tag, long amount, @Nullable TransactionContext context) {
+        long inserted = this.tryInsert(slot, resource, tag, amount);
+        if (inserted > 0) {
+            this.markModified(slot, context);
+            this.setResource(slot, resource);
+            this.tags[slot] = stripTag(tag);
+            this.setAmount(slot, this.amounts[slot] + inserted);
+            return inserted;
+        }
+        return 0;
+    }
+
+    public long extract(int slot, @Nullable Resource resource, @Nullable CompoundTag tag, long amount, @Nullable TransactionContext context) {
+        long extracted = this.tryExtract(slot, resource, tag, amount);
+        if (extracted > 0) {
+            this.markModified(slot, context);
+            this.setAmount(slot, this.amounts[slot] - extracted);
+            if (this.amounts[slot] == 0) {
+                this.setResource(slot, null);
+                this.tags[slot] = null;
+            }
+            return extracted;
+        }
+        return 0;
+    }
+
+    public void set(int slot, @Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
+        this.replace(slot, resource, tag, amount);
+        this.markModified(slot);
+    }
+
+    /**
+     * Replaces the contents of a slot without marking it as modified.
+     * Callers are responsible for marking the slot as modified.
+     *
+     * @param slot the index of the slot
+     * @param resource the new resource
+     * @param tag the new tag
+     * @param amount the new amount
+     */
+    void replace(int slot, @Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
+        this.setResource(slot, resource);
+        this.tags[slot] = tag;
+        this.setAmount(slot, amount);
+        assert this.isSane(slot);
+    }
+
+    public long getModifications(int slot) {
+        return this.slotModifications[slot];
+    }
+
+    public void revertModification(int slot) {
+        this.slotModifications[slot]--;
+        this.revertModification();
+    }
+
+    public void markModified(int slot) {
+        this.slotModifications[slot]++;
+        this.markModified();
+    }
+
+    public void markModified(int slot, @Nullable TransactionContext context) {
+        if (context != null) {
+            Journal journal = this.journal(context);
+            if (!journal.contains(slot)) {
+                journal.add(slot, this.resources[slot], this.tags[slot], this.amounts[slot], this.slotModifications[slot]);
+            }
+        }
+        this.slotModifications[slot]++;
+        this.markModified(context);
+    }
+
+    @NotNull
+    @Override
+    public Iterator<Slot> iterator() {
+        return Iterators.forArray(this.slots);
+    }
+
+    @Override
+    public long getModifications() {
+        return this.modifications;
+    }
+
+    @Override
+    public void revertModification() {
+        if (this.parent != null) this.parent.revertModification();
+        this.modifications--;
+    }
+
+    @Override
+    public void markModified() {
+        if (this.parent != null) this.parent.markModified();
+        this.modifications++;
+    }
+
+    @Override
+    public void markModified(@Nullable TransactionContext context) {
+        if (context != null) this.journal(context);
+        if (this.parent != null) this.parent.markModified(context);
+        this.modifications++;
+    }
+
+    @Override
+    public void onClose(TransactionContext transaction, TransactionContext.Result result) {
+        int depth = transaction.nestingDepth();
+        Journal journal = this.journals[depth];
+        assert journal != null && journal.active;
+
+        if (result.wasAborted()) {
+            for (int i = journal.size - 1; i >= 0; i--) {
+                int slot = journal.slots[i];
+                this.setResource(slot, journal.resources[i]);
+                this.tags[slot] = journal.tags[i];
+                this.setAmount(slot, journal.amounts[i]);
+                this.slotModifications[slot] = journal.slotModifications[i];
+            }
+            this.modifications = journal.modifications;
+        } else if (depth > 0) {
+            Journal parent = this.journal(depth - 1);
+            if (!parent.active) {
+                parent.active = true;
+                parent.modifications = journal.modifications;
+                transaction.getOpenTransaction(depth - 1).addCloseCallback(this);
+            }
+            for (int i = 0; i < journal.size; i++) {
+                int slot = journal.slots[i];
+                if (!parent.contains(slot)) {
+                    parent.add(slot, journal.resources[i], journal.tags[i], journal.amounts[i], journal.slotModifications[i]);
+                }
+            }
+        }
+        journal.clear();
+    }
+
+    @Override
+    public @NotNull ListTag createTag() {
+        ListTag tag = new ListTag();
+        for (int i = 0; i < this.slots.length; i++) {
+            tag.add(this.createTag(i));
+        }
+        return tag;
+    }
+
+    @Override
+    public void readTag(@NotNull ListTag tag) {
+        for (int i = 0; i < tag.size(); i++) {
+            this.readTag(i, tag.getCompound(i));
+        }
+    }
+
+    @Override
+    public void writePacket(@NotNull FriendlyByteBuf buf) {
+        for (int i = 0; i < this.slots.length; i++) {
+            this.writePacket(i, buf);
+        }
+    }
+
+    @Override
+    public void readPacket(@NotNull FriendlyByteBuf buf) {
+        for (int i = 0; i < this.slots.length; i++) {
+            this.readPacket(i, buf);
+        }
+    }
+
+    private @NotNull Journal journal(@NotNull TransactionContext transaction) {
+        Journal journal = this.journal(transaction.nestingDepth());
+        if (!journal.active) {
+            journal.active = true;
+            journal.modifications = this.modifications;
+            transaction.addCloseCallback(this);
+        }
+        return journal;
+    }
+
+    private @NotNull Journal journal(int depth) {
+        if (depth >= this.journals.length) {
+            this.journals = Arrays.copyOf(this.journals, depth + 1);
+        }
+        Journal journal = this.journals[depth];
+        if (journal == null) {
+            journal = this.journals[depth] = new Journal(this.slots.length);
+        }
+        return journal;
+    }
+
+    private void setResource(int slot, @Nullable Object resource) {
+        Object previous = this.resources[slot];
+        if (previous == resource) return;
+
+        if (previous == null) {
+            this.empty.clear(slot);
+            this.emptySlots--;
+        } else {
+            BitSet containing = this.index.get(previous);
+            containing.clear(slot);
+            if (containing.isEmpty()) this.index.remove(previous);
+        }
+
+        if (resource == null) {
+            this.empty.set(slot);
+            this.emptySlots++;
+        } else {
+            BitSet containing = this.index.get(resource);
+            if (containing == null) {
+                containing = new BitSet(this.slots.length);
+                this.index.put(resource, containing);
+            }
+            containing.set(slot);
+        }
+        this.resources[slot] = resource;
+    }
+
+    private void setAmount(int slot, long amount) {
+        this.amounts[slot] = amount;
+        this.updateFull(slot);
+    }
+
+    private void updateFull(int slot) {
+        boolean full = this.amounts[slot] == this.getRealCapacity(slot);
+        if (full != this.full.get(slot)) {
+            this.full.set(slot, full);
+            this.fullSlots += full ? 1 : -1;
+        }
+    }
+
+    /**
+     * Returns the next slot (at or after {@code from}) that is either empty or already contains the resource.
+     * These are the only slots that could possibly accept the resource.
+     */
+    private int nextAccepting(@Nullable BitSet containing, int from) {
+        int empty = this.empty.nextSetBit(from);
+        if (containing == null) return empty;
+        int match = containing.nextSetBit(from);
+        if (empty == -1) return match;
+        if (match == -1) return empty;
+        return Math.min(empty, match);
+    }
+
+    @Contract(pure = true)
+    private boolean canAccept(int slot, @NotNull Resource resource, @Nullable CompoundTag tag) {
+        Object current = this.resources[slot];
+        return (current == resource && Utils.tagsEqual(this.tags[slot], tag)) || (current == null && this.filters[slot].test(resource, tag));
+    }
+
+    private long doExtraction(int slot, long extracted) {
+        if (extracted > 0) {
+            this.setAmount(slot, this.amounts[slot] - extracted);
+            if (this.amounts[slot] == 0) {
+                this.setResource(slot, null);
+                this.tags[slot] = null;
+            }
+            this.markModified(slot);
+            return extracted;
+        }
+        return 0;
+    }
+
+    private boolean isSane(int slot) {
+        Object resource = this.resources[slot];
+        CompoundTag tag = this.tags[slot];
+        long amount = this.amounts[slot];
+        return (resource == null && tag == null && amount == 0) || (resource != null && amount > 0 && (tag == null || !tag.isEmpty()));
+    }
+
+    /**
+     * The state of every slot modified in a transaction, before it was modified.
+     */
+    private static final class Journal {
+        private final int[] slots;
+        private final Object[] resources;
+        private final CompoundTag[] tags;
+        private final long[] amounts;
+        private final long[] slotModifications;
+        private boolean active = false;
+        private long modifications = 0;
+        private int size = 0;
+
+        private Journal(int capacity) {
+            this.slots = new int[capacity];
+            this.resources = new Object[capacity];
+            this.tags = new CompoundTag[capacity];
+            this.amounts = new long[capacity];
+            this.slotModifications = new long[capacity];
+        }
+
+        private boolean contains(int slot) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.slots[i] == slot) return true;
+            }
+            return false;
+        }
+
+        private void add(int slot, Object resource, CompoundTag tag, long amount, long slotModifications) {
+            this.slots[this.size] = slot;
+            this.resources[this.size] = resource;
+            this.tags[this.size] = tag;
+            this.amounts[this.size] = amount;
+            this.slotModifications[this.size] = slotModifications;
+            this.size++;
+        }
+
+        private void clear() {
+            Arrays.fill(this.resources, 0, this.size, null);
+            Arrays.fill(this.tags, 0, this.size, null);
+            this.size = 0;
+            this.active = false;
+        }
+    }
+}
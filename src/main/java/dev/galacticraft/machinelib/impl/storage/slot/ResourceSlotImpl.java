@@ -28,17 +28,18 @@
 import dev.galacticraft.machinelib.impl.Utils;
 import net.fabricmc.fabric.api.transfer.v1.storage.StoragePreconditions;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
-import net.fabricmc.fabric.api.transfer.v1.transaction.base.SnapshotParticipant;
 import net.minecraft.nbt.CompoundTag;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 // assertions made:
 // if AMOUNT > 0 then RESOURCE is NOT NULL (and the inverse - if RESOURCE is NOT NULL then AMOUNT > 0)
 // the associated TAG will either be NULL or contain a value - it will never be EMPTY
 // EVERY aborted transaction will unwind - if it skips then MODIFICATIONS will be off
-public abstract class ResourceSlotImpl<Resource, Stack> extends SnapshotParticipant<ResourceSlotImpl.Snapshot<Resource>> implements ResourceSlot<Resource, Stack> {
+public abstract class ResourceSlotImpl<Resource, Stack> implements ResourceSlot<Resource, Stack>, TransactionContext.CloseCallback {
     protected static final String RESOURCE_KEY = "Resource";
     protected static final String AMOUNT_KEY = "Amount";
     protected static final String TAG_KEY = "Tag";
@@ -51,6 +52,15 @@
     private @Nullable CompoundTag tag = null;
     private long amount = 0;
     private long modifications = 0;
+    private @Nullable SlotGroupImpl<?, ?, ?> group = null;
+    private boolean empty = true;
+    private boolean full = false;
+
+    // snapshots of the slot's state, indexed by transaction depth (an amount of -1 means that there is no snapshot at that depth)
+    private @Nullable Object @NotNull [] snapshotResources = new Object[0];
+    private @Nullable CompoundTag @NotNull [] snapshotTags = new CompoundTag[0];
+    private long @NotNull [] snapshotAmounts = new long[0];
+    private long @NotNull [] snapshotModifications = new long[0];
 
     protected ResourceSlotImpl(ResourceFilter<Resource> filter, ResourceFilter<Resource> externalFilter, long capacity) {
         this.filter = filter;
@@ -76,6 +86,9 @@ protected ResourceSlotImpl(ResourceFilter<Resource> filter, ResourceFilter<Resou
     @Override
     public void _setParent(MutableModifiable parent) {
         this.parent = parent;
+        this.group = parent instanceof SlotGroupImpl<?, ?, ?> group ? group : null;
+        this.empty = this.amount == 0;
+        this.full = this.amount == this.getRealCapacity();
     }
 
     @Override
@@ -86,6 +99,7 @@ public void _setParent(MutableModifiable parent) {
 
     protected void setResource(@Nullable Resource resource) {
         this.resource = resource;
+        this.updateOccupancy();
     }
 
     @Override
@@ -96,6 +110,7 @@ public long getAmount() {
 
     protected void setAmount(long amount) {
         this.amount = amount;
+        this.updateOccupancy();
     }
 
     @Override
@@ -180,6 +195,7 @@ public long insert(@NotNull Resource resource, long amount) {
             this.resource = resource;
             this.tag = null;
             this.amount += inserted;
+            this.updateOccupancy();
             this.markModified();
             return inserted;
         }
@@ -193,6 +209,7 @@ public long insert(@NotNull Resource resource, @Nullable CompoundTag tag, long a
             this.resource = resource;
             this.tag = stripTag(tag);
             this.amount += inserted;
+            this.updateOccupancy();
             this.markModified();
             return inserted;
         }
@@ -263,6 +280,7 @@ public boolean extractOne() {
                 this.resource = null;
                 this.tag = null;
             }
+            this.updateOccupancy();
             this.markModified();
             return true;
         }
@@ -276,6 +294,7 @@ public boolean extractOne(@Nullable Resource resource) {
                 this.resource = null;
                 this.tag = null;
             }
+            this.updateOccupancy();
             this.markModified();
             return true;
         }
@@ -289,6 +308,7 @@ public boolean extractOne(@Nullable Resource resource, @Nullable CompoundTag tag
                 this.resource = null;
                 this.tag = null;
             }
+            this.updateOccupancy();
             this.markModified();
             return true;
         }
@@ -325,6 +345,7 @@ public long insert(@NotNull Resource resource, @Nullable CompoundTag tag, long a
             this.resource = resource;
             this.tag = stripTag(tag);
             this.amount += inserted;
+            this.updateOccupancy();
             return inserted;
         }
         return 0;
@@ -336,9 +357,12 @@ public long extract(@Nullable Resource resource, @Nullable CompoundTag tag, long
 
         if (extracted > 0) {
             this.updateSnapshots(context);
-            this.resource = resource;
-            this.tag = stripTag(tag);
             this.amount -= extracted;
+            if (this.amount == 0) {
+                this.resource = null;
+                this.tag = null;
+            }
+            this.updateOccupancy();
             return extracted;
         }
         return 0;
@@ -363,60 +387,106 @@ public void markModified() {
 
     @Override
     public void markModified(@Nullable TransactionContext context) {
+        if (context != null) this.snapshot(context);
         this.modifications++;
         if (this.parent != null) this.parent.markModified(context);
-
-        if (context != null) {
-            context.addCloseCallback((context1, result) -> {
-                if (result.wasAborted()) {
-                    this.modifications--;
-                }
-            });
-        }
     }
 
-    @Override
-    protected Snapshot<Resource> createSnapshot() {
-        return new Snapshot<>(this.resource, this.amount, this.tag);
+    public void updateSnapshots(@Nullable TransactionContext transaction) {
+        this.markModified(transaction);
     }
 
     @Override
-    protected void readSnapshot(Snapshot<Resource> snapshot) {
-        this.resource = snapshot.resource;
-        this.amount = snapshot.amount;
-        this.tag = snapshot.tag;
-        assert this.isSane();
-    }
+    @SuppressWarnings("unchecked")
+    public void onClose(TransactionContext transaction, TransactionContext.Result result) {
+        int depth = transaction.nestingDepth();
+        assert this.snapshotAmounts[depth] != -1;
+
+        if (result.wasAborted()) {
+            this.resource = (Resource) this.snapshotResources[depth];
+            this.tag = this.snapshotTags[depth];
+            this.amount = this.snapshotAmounts[depth];
+            this.modifications = this.snapshotModifications[depth];
+            assert this.isSane();
+            this.updateOccupancy();
+        } else if (depth > 0 && this.snapshotAmounts[depth - 1] == -1) {
+            // the parent transaction has not seen this slot yet - hand the snapshot over to it
+            this.snapshotResources[depth - 1] = this.snapshotResources[depth];
+            this.snapshotTags[depth - 1] = this.snapshotTags[depth];
+            this.snapshotAmounts[depth - 1] = this.snapshotAmounts[depth];
+            this.snapshotModifications[depth - 1] = this.snapshotModifications[depth];
+            transaction.getOpenTransaction(depth - 1).addCloseCallback(this);
+        }
 
-    @Override
-    public void updateSnapshots(TransactionContext transaction) {
-        this.markModified(transaction);
+        this.snapshotResources[depth] = null;
+        this.snapshotTags[depth] = null;
+        this.snapshotAmounts[depth] = -1;
+    }
+
+    private void snapshot(@NotNull TransactionContext transaction) {
+        int depth = transaction.nestingDepth();
+        if (depth >= this.snapshotAmounts.length) {
+            int length = this.snapshotAmounts.length;
+            int newLength = Math.max(depth + 1, length * 2);
+            this.snapshotResources = Arrays.copyOf(this.snapshotResources, newLength);
+            this.snapshotTags = Arrays.copyOf(this.snapshotTags, newLength);
+            this.snapshotAmounts = Arrays.copyOf(this.snapshotAmounts, newLength);
+            this.snapshotModifications = Arrays.copyOf(this.snapshotModifications, newLength);
+            Arrays.fill(this.snapshotAmounts, length, newLength, -1);
+        }
 
-        if (transaction != null) {
-            super.updateSnapshots(transaction);
+        if (this.snapshotAmounts[depth] == -1) {
+            this.snapshotResources[depth] = this.resource;
+            this.snapshotTags[depth] = this.tag;
+            this.snapshotAmounts[depth] = this.amount;
+            this.snapshotModifications[depth] = this.modifications;
+            transaction.addCloseCallback(this);
         }
     }
 
     protected void setEmpty() {
-        this.resource = null;
-        this.tag = null;
-        this.amount = 0;
+        this.set(null, null, 0);
     }
 
     @Override
     public void set(@Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
-        this.resource = resource;
-        this.tag = tag;
-        this.amount = amount;
-        assert this.isSane();
+        this.replace(resource, tag, amount);
+        this.markModified();
     }
 
     @Override
     public void set(@Nullable Resource resource, long amount) {
+        this.set(resource, null, amount);
+    }
+
+    /**
+     * Replaces the contents of this slot without marking it as modified.
+     * Callers are responsible for marking the slot as modified.
+     *
+     * @param resource the new resource
+     * @param tag the new tag
+     * @param amount the new amount
+     */
+    protected void replace(@Nullable Resource resource, @Nullable CompoundTag tag, long amount) {
         this.resource = resource;
-        this.tag = null;
+        this.tag = tag;
         this.amount = amount;
         assert this.isSane();
+        this.updateOccupancy();
+    }
+
+    /**
+     * Keeps the parent group's empty/full slot counts up to date.
+     * Must be called after every change to the resource or amount of this slot.
+     */
+    private void updateOccupancy() {
+        boolean empty = this.amount == 0;
+        boolean full = this.amount == this.getRealCapacity();
+        if (empty != this.empty || full != this.full) {
+            if (this.group != null) this.group.updateOccupancy(this.empty, this.full, empty, full);
+            this.empty = empty;
+            this.full = full;
+        }
     }
 
     @Contract(pure = true)
@@ -440,12 +510,10 @@ private long doExtraction(long extracted) {
                 this.resource = null;
                 this.tag = null;
             }
+            this.updateOccupancy();
             this.markModified();
             return extracted;
         }
         return 0;
     }
-
-    protected record Snapshot<Resource>(@Nullable Resource resource, long amount, @Nullable CompoundTag tag) {
-    }
 }
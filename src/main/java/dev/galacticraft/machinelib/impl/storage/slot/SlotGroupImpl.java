@@ -27,6 +27,7 @@
 import dev.galacticraft.machinelib.api.storage.ResourceFilter;
 import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
 import dev.galacticraft.machinelib.api.storage.slot.SlotGroup;
+import dev.galacticraft.machinelib.impl.storage.LongSnapshotStack;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -36,16 +37,26 @@
 
 import java.util.Iterator;
 
-public abstract class SlotGroupImpl<Resource, Stack, Slot extends ResourceSlot<Resource, Stack>> implements SlotGroup<Resource, Stack, Slot> {
+public abstract class SlotGroupImpl<Resource, Stack, Slot extends ResourceSlot<Resource, Stack>> implements SlotGroup<Resource, Stack, Slot>, TransactionContext.CloseCallback {
     private final @NotNull Slot @NotNull [] slots;
     private MutableModifiable parent;
+    private final LongSnapshotStack snapshots = new LongSnapshotStack();
     private long modifications = 0;
+    // whether every slot reports changes in occupancy to this group (see ResourceSlotImpl)
+    private final boolean trackOccupancy;
+    private int emptySlots = 0;
+    private int fullSlots = 0;
 
     public SlotGroupImpl(@NotNull Slot @NotNull [] slots) {
         this.slots = slots;
+        boolean trackOccupancy = true;
         for (Slot slot : this.slots) {
             slot._setParent(this);
+            if (!(slot instanceof ResourceSlotImpl<?, ?>)) trackOccupancy = false;
+            if (slot.isEmpty()) this.emptySlots++;
+            if (slot.isFull()) this.fullSlots++;
         }
+        this.trackOccupancy = trackOccupancy;
     }
 
     @Override
@@ -60,6 +71,7 @@ public int size() {
 
     @Override
     public boolean isEmpty() {
+        if (this.trackOccupancy) return this.emptySlots == this.slots.length;
         for (Slot slot : this.slots) {
             if (!slot.isEmpty()) return false;
         }
@@ -68,6 +80,7 @@ public boolean isEmpty() {
 
     @Override
     public boolean isFull() {
+        if (this.trackOccupancy) return this.fullSlots == this.slots.length;
         for (Slot slot : this.slots) {
             if (!slot.isFull()) return false;
         }
@@ -281,7 +294,7 @@ public long extract(@NotNull Resource resource, @Nullable CompoundTag tag, long
     public long insert(@NotNull Resource resource, @Nullable CompoundTag tag, long amount, @Nullable TransactionContext context) {
         long inserted = 0;
         for (Slot slot : this.slots) {
-            inserted += slot.insert(resource, tag, amount - inserted);
+            inserted += slot.insert(resource, tag, amount - inserted, context);
             if (inserted == amount) break;
         }
         return inserted;
@@ -513,14 +526,25 @@ public void markModified() {
     @Override
     public void markModified(@Nullable TransactionContext context) {
         if (this.parent != null) this.parent.markModified(context);
+        if (context != null && this.snapshots.save(context.nestingDepth(), this.modifications)) {
+            context.addCloseCallback(this);
+        }
         this.modifications++;
+    }
 
-        if (context != null) {
-            context.addCloseCallback((context1, result) -> {
-                if (result.wasAborted()) {
-                    this.modifications--;
-                }
-            });
+    void updateOccupancy(boolean wasEmpty, boolean wasFull, boolean empty, boolean full) {
+        if (wasEmpty != empty) this.emptySlots += empty ? 1 : -1;
+        if (wasFull != full) this.fullSlots += full ? 1 : -1;
+    }
+
+    @Override
+    public void onClose(TransactionContext transaction, TransactionContext.Result result) {
+        int depth = transaction.nestingDepth();
+        long modifications = this.snapshots.take(depth);
+        if (result.wasAborted()) {
+            this.modifications = modifications;
+        } else if (depth > 0 && this.snapshots.save(depth - 1, modifications)) {
+            transaction.getOpenTransaction(depth - 1).addCloseCallback(this);
         }
     }
 
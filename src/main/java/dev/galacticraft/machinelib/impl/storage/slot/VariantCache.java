@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.storage.slot;
+
+import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
+import net.minecraft.nbt.CompoundTag;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiFunction;
+
+/**
+ * Caches the variant of a slot's current contents, so that it is not rebuilt on every query.
+ * The variant is rebuilt when the slot's modification count changes.
+ * As the count is rewound when a transaction is aborted, the cached resource and tag are compared as well.
+ *
+ * @param <Resource> the type of resource stored in the slot
+ * @param <Variant> the type of variant to create
+ */
+@ApiStatus.Internal
+public final class VariantCache<Resource, Variant> {
+    private final @NotNull BiFunction<Resource, CompoundTag, Variant> factory;
+    private long modifications = -1;
+    private @Nullable Resource resource = null;
+    private @Nullable CompoundTag tag = null;
+    private @Nullable Variant variant = null;
+
+    public VariantCache(@NotNull BiFunction<Resource, CompoundTag, Variant> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the variant of the slot's current contents.
+     *
+     * @param slot the slot to query
+     * @return the variant of the slot's current contents
+     */
+    public @NotNull Variant get(@NotNull ResourceSlot<Resource, ?> slot) {
+        long modifications = slot.getModifications();
+        Resource resource = slot.getResource();
+        CompoundTag tag = slot.getTag();
+        if (this.variant == null || this.modifications != modifications || this.resource != resource || this.tag != tag) {
+            this.modifications = modifications;
+            this.resource = resource;
+            this.tag = tag;
+            this.variant = this.factory.apply(resource, tag);
+        }
+        return this.variant;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.transfer;
+
+import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tracks failed pushes out of a single machine face, and delays further attempts.
+ * Every push that moves nothing doubles the retry interval (up to {@link #MAX_INTERVAL} ticks).
+ * The backoff is cleared as soon as the source or target storage changes, or either reports a new version.
+ * If both versions are known, no attempt is made at all until one of them changes.
+ */
+@ApiStatus.Internal
+public final class PushBackoff {
+    /**
+     * Version used for storages that do not report a meaningful version.
+     */
+    public static final long UNKNOWN_VERSION = Long.MIN_VALUE;
+    /**
+     * The longest time (in ticks) a face will wait before retrying a push.
+     */
+    public static final int MAX_INTERVAL = 32;
+
+    private @Nullable Object source = null;
+    private @Nullable Object target = null;
+    private long sourceVersion = UNKNOWN_VERSION;
+    private long targetVersion = UNKNOWN_VERSION;
+    private int interval = 0;
+    private long nextAttempt = 0;
+
+    /**
+     * Returns the version of the given storage, if it is meaningful.
+     * Storages using the default implementation of {@link Storage#getVersion()} return a new value on every call,
+     * so they are reported as {@link #UNKNOWN_VERSION}.
+     * Must not be called while a transaction is open.
+     *
+     * @param storage the storage to query
+     * @return the version of the storage, or {@link #UNKNOWN_VERSION}
+     */
+    public static long versionOf(@Nullable Storage<?> storage) {
+        if (storage == null) return UNKNOWN_VERSION;
+        long version = storage.getVersion();
+        return version == storage.getVersion() ? version : UNKNOWN_VERSION;
+    }
+
+    /**
+     * Checks whether a push should be attempted this tick, and remembers the given state for {@link #onAttempt(long, boolean)}.
+     *
+     * @param time the current game time
+     * @param source the storage pushed from
+     * @param sourceVersion the version of the source storage
+     * @param target the storage pushed to, or {@code null} if there is none
+     * @param targetVersion the version of the target storage, or {@link #UNKNOWN_VERSION}
+     * @return whether a push should be attempted
+     */
+    public boolean shouldAttempt(long time, @Nullable Object source, long sourceVersion, @Nullable Object target, long targetVersion) {
+        boolean changed = source != this.source || target != this.target || sourceVersion != this.sourceVersion
+                || (targetVersion != UNKNOWN_VERSION && targetVersion != this.targetVersion);
+        this.source = source;
+        this.target = target;
+        this.sourceVersion = sourceVersion;
+        this.targetVersion = targetVersion;
+
+        if (this.interval == 0) return true;
+        if (changed) {
+            this.interval = 0;
+            return true;
+        }
+        if (sourceVersion != UNKNOWN_VERSION && targetVersion != UNKNOWN_VERSION) return false;
+        return time >= this.nextAttempt;
+    }
+
+    /**
+     * Records the result of a push attempt.
+     *
+     * @param time the current game time
+     * @param moved whether anything was moved
+     */
+    public void onAttempt(long time, boolean moved) {
+        if (moved) {
+            this.interval = 0;
+        } else {
+            this.interval = this.interval == 0 ? 1 : Math.min(this.interval * 2, MAX_INTERVAL);
+            this.nextAttempt = time + this.interval;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.transfer;
+
+import dev.galacticraft.machinelib.api.machine.configuration.DistributionStrategy;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Pushes a resource out of the faces (or routes) of a single machine, following its {@link DistributionStrategy}.
+ * Entries are identified by their index. Entries that should not be attempted (e.g. because they are backing off) are
+ * skipped, and {@link DistributionStrategy#PROPORTIONAL proportional} pushes are only split between the entries that
+ * are actually pushed to.
+ */
+@ApiStatus.Internal
+public abstract class PushDistributor {
+    private final int[] order;
+    private int cursor = 0;
+
+    /**
+     * Creates a distributor for machines with up to the given number of entries.
+     *
+     * @param capacity the maximum number of entries
+     */
+    protected PushDistributor(int capacity) {
+        this.order = new int[capacity];
+    }
+
+    /**
+     * Pushes to the given number of entries.
+     *
+     * @param strategy the distribution strategy of the machine
+     * @param size the number of entries
+     * @param time the current game time
+     */
+    public final void push(@NotNull DistributionStrategy strategy, int size, long time) {
+        int start = this.nextStart(strategy, size);
+        int count = 0;
+        for (int j = 0; j < size; j++) {
+            int i = (start + j) % size;
+            if (this.shouldAttempt(i, time)) this.order[count++] = i;
+        }
+
+        for (int k = 0; k < count; k++) {
+            int i = this.order[k];
+            long limit = this.getRateLimit(i);
+            if (strategy == DistributionStrategy.PROPORTIONAL) limit = Math.min(limit, strategy.share(this.getAmount(i), count - k));
+            this.move(i, limit, time);
+        }
+    }
+
+    /**
+     * Returns the entry to start pushing from.
+     * For strategies other than {@link DistributionStrategy#FIRST_AVAILABLE}, this rotates through the entries on
+     * every call, so that no entry is always served first.
+     *
+     * @param strategy the distribution strategy of the machine
+     * @param size the number of entries
+     * @return the index of the first entry to push to
+     */
+    public int nextStart(@NotNull DistributionStrategy strategy, int size) {
+        if (strategy == DistributionStrategy.FIRST_AVAILABLE || size == 0) return 0;
+        int start = this.cursor % size;
+        this.cursor = start + 1;
+        return start;
+    }
+
+    /**
+     * Checks whether the given entry should be pushed to this tick.
+     * Called once for every entry, before anything is moved.
+     *
+     * @param entry the index of the entry
+     * @param time the current game time
+     * @return whether to push to the entry
+     */
+    protected abstract boolean shouldAttempt(int entry, long time);
+
+    /**
+     * {@return the most the given entry may move in a single push}
+     *
+     * @param entry the index of the entry
+     */
+    protected abstract long getRateLimit(int entry);
+
+    /**
+     * Returns the amount left to push out of the given entry.
+     * Only called for {@link DistributionStrategy#PROPORTIONAL proportional} pushes.
+     *
+     * @param entry the index of the entry
+     * @return the amount left to push
+     */
+    protected abstract long getAmount(int entry);
+
+    /**
+     * Moves up to the given amount out of the given entry.
+     *
+     * @param entry the index of the entry
+     * @param limit the most to move
+     * @param time the current game time
+     */
+    protected abstract void move(int entry, long limit, long time);
+}
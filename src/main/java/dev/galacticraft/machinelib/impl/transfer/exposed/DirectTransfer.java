@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.transfer.exposed;
+
+import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
+import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
+import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+import net.minecraft.nbt.CompoundTag;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Moves resources between two exposed MachineLib storages without going through the variant-based transfer API.
+ * The movable amount is computed from {@link ResourceSlot#tryExtract(Object, CompoundTag, long)} and
+ * {@link ResourceSlot#tryInsert(Object, CompoundTag, long)}, so every change is final and nothing ever needs to be
+ * rolled back. Changes are made directly in the caller's transaction, or applied immediately if there is none.
+ */
+@ApiStatus.Internal
+public final class DirectTransfer {
+    @Contract(value = " -> fail", pure = true)
+    private DirectTransfer() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * {@return whether the given storage can take part in a direct transfer}
+     *
+     * @param storage the storage to check
+     */
+    @Contract(value = "null -> false", pure = true)
+    public static boolean isSupported(@Nullable Storage<?> storage) {
+        return (storage instanceof ExposedStorageImpl<?, ?> exposed && exposed.getBackedSlots() != null) || storage instanceof SlotBackedStorage<?>;
+    }
+
+    /**
+     * Moves every resource from one storage to another, at most {@code maxPerSlot} out of each source slot
+     * and at most {@code maxAmount} in total.
+     * Both storages must be {@link #isSupported(Storage) supported}.
+     *
+     * @param from the storage to extract from
+     * @param to the storage to insert into
+     * @param maxPerSlot the maximum amount to move out of each source slot
+     * @param maxAmount the maximum amount to move in total
+     * @param context the transaction to move in, or {@code null} to apply the changes immediately
+     * @return the total amount moved
+     */
+    public static long moveAll(@NotNull Storage<?> from, @NotNull Storage<?> to, long maxPerSlot, long maxAmount, @Nullable TransactionContext context) {
+        SlotBackedStorage<?>[] sources = slots(from);
+        SlotBackedStorage<?>[] targets = slots(to);
+
+        long moved = 0;
+        for (SlotBackedStorage<?> source : sources) {
+            if (moved == maxAmount) break;
+            if (!source.supportsExtraction()) continue;
+            moved += moveSlot(source.getBackingSlot(), null, null, targets, Math.min(maxPerSlot, maxAmount - moved), context);
+        }
+        return moved;
+    }
+
+    /**
+     * Moves a specific resource from one storage to another.
+     * Both storages must be {@link #isSupported(Storage) supported}.
+     *
+     * @param resource the resource to move
+     * @param tag the tag of the resource to move
+     * @param from the storage to extract from
+     * @param to the storage to insert into
+     * @param maxAmount the maximum amount to move
+     * @param context the transaction to move in, or {@code null} to apply the changes immediately
+     * @return the amount moved
+     */
+    public static long move(@NotNull Object resource, @Nullable CompoundTag tag, @NotNull Storage<?> from, @NotNull Storage<?> to, long maxAmount, @Nullable TransactionContext context) {
+        SlotBackedStorage<?>[] sources = slots(from);
+        SlotBackedStorage<?>[] targets = slots(to);
+
+        long moved = 0;
+        for (SlotBackedStorage<?> source : sources) {
+            if (moved == maxAmount) break;
+            if (!source.supportsExtraction()) continue;
+            moved += moveSlot(source.getBackingSlot(), resource, tag, targets, maxAmount - moved, context);
+        }
+        return moved;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Resource> long moveSlot(@NotNull ResourceSlot<Resource, ?> source, @Nullable Object filter, @Nullable CompoundTag filterTag, SlotBackedStorage<?> @NotNull [] targets, long maxAmount, @Nullable TransactionContext transaction) {
+        if (source.isEmpty()) return 0;
+        Resource resource = source.getResource();
+        CompoundTag tag = source.getTag();
+        assert resource != null;
+        if (filter != null && (filter != resource || !source.contains(resource, filterTag))) return 0;
+
+        long available = source.tryExtract(resource, tag, maxAmount);
+        if (available == 0) return 0;
+
+        long moved = 0;
+        for (SlotBackedStorage<?> target : targets) {
+            if (!target.supportsInsertion()) continue;
+            ResourceSlot<Resource, ?> slot = (ResourceSlot<Resource, ?>) target.getBackingSlot();
+            if (slot == source) continue;
+
+            long accepted = slot.tryInsert(resource, tag, available - moved);
+            if (accepted == 0) continue;
+            // slots keep the tag they are given, so every target needs its own copy
+            slot.insert(resource, tag == null ? null : tag.copy(), accepted, transaction);
+            source.extract(resource, tag, accepted, transaction);
+            moved += accepted;
+            if (moved == available) break;
+        }
+        return moved;
+    }
+
+    private static SlotBackedStorage<?> @NotNull [] slots(@NotNull Storage<?> storage) {
+        if (storage instanceof ExposedStorageImpl<?, ?> exposed) return exposed.getBackedSlots();
+        return new SlotBackedStorage<?>[]{(SlotBackedStorage<?>) storage};
+    }
+}
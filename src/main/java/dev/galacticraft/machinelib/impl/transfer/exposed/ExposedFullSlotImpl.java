@@ -24,19 +24,26 @@
 
 import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
 import dev.galacticraft.machinelib.api.transfer.exposed.ExposedSlot;
+import dev.galacticraft.machinelib.impl.storage.slot.VariantCache;
 import net.fabricmc.fabric.api.transfer.v1.storage.TransferVariant;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
 import net.minecraft.nbt.CompoundTag;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public abstract class ExposedFullSlotImpl<Resource, Stack, Variant extends TransferVariant<Resource>> implements ExposedSlot<Resource, Variant> {
+public abstract class ExposedFullSlotImpl<Resource, Stack, Variant extends TransferVariant<Resource>> implements ExposedSlot<Resource, Variant>, SlotBackedStorage<Resource> {
     private final @NotNull ResourceSlot<Resource, Stack> slot;
+    private final @NotNull VariantCache<Resource, Variant> variant = new VariantCache<>(this::createVariant);
 
     public ExposedFullSlotImpl(@NotNull ResourceSlot<Resource, Stack> slot) {
         this.slot = slot;
     }
 
+    @Override
+    public @NotNull ResourceSlot<Resource, ?> getBackingSlot() {
+        return this.slot;
+    }
+
     protected abstract @NotNull Variant createVariant(@Nullable Resource resource, @Nullable CompoundTag tag);
 
     @Override
@@ -49,6 +56,16 @@ public long extract(Variant variant, long maxAmount, TransactionContext transact
         return this.slot.extract(variant.getObject(), variant.getNbt(), maxAmount, transaction);
     }
 
+    @Override
+    public long simulateInsert(Variant variant, long maxAmount, @Nullable TransactionContext transaction) {
+        return this.slot.tryInsert(variant.getObject(), variant.getNbt(), maxAmount);
+    }
+
+    @Override
+    public long simulateExtract(Variant variant, long maxAmount, @Nullable TransactionContext transaction) {
+        return this.slot.tryExtract(variant.getObject(), variant.getNbt(), maxAmount);
+    }
+
     @Override
     public boolean supportsInsertion() {
         return true;
@@ -66,7 +83,7 @@ public boolean isResourceBlank() {
 
     @Override
     public Variant getResource() {
-        return this.createVariant(this.slot.getResource(), this.slot.getTag());
+        return this.variant.get(this.slot);
     }
 
     @Override
@@ -24,14 +24,16 @@
 
 import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
 import dev.galacticraft.machinelib.api.transfer.exposed.ExposedSlot;
+import dev.galacticraft.machinelib.impl.storage.slot.VariantCache;
 import net.fabricmc.fabric.api.transfer.v1.storage.TransferVariant;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
 import net.minecraft.nbt.CompoundTag;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public abstract class ExposedSlotImpl<Resource, Stack, Variant extends TransferVariant<Resource>> implements ExposedSlot<Resource, Variant> {
+public abstract class ExposedSlotImpl<Resource, Stack, Variant extends TransferVariant<Resource>> implements ExposedSlot<Resource, Variant>, SlotBackedStorage<Resource> {
     private final @NotNull ResourceSlot<Resource, Stack> slot;
+    private final @NotNull VariantCache<Resource, Variant> variant = new VariantCache<>(this::createVariant);
     private final boolean insertion;
     private final boolean extraction;
 
@@ -41,6 +43,11 @@ public ExposedSlotImpl(@NotNull ResourceSlot<Resource, Stack> slot, boolean inse
         this.extraction = extraction;
     }
 
+    @Override
+    public @NotNull ResourceSlot<Resource, ?> getBackingSlot() {
+        return this.slot;
+    }
+
     protected abstract @NotNull Variant createVariant(@Nullable Resource resource, @Nullable CompoundTag tag);
 
     @Override
@@ -55,6 +62,18 @@ public long extract(Variant variant, long maxAmount, TransactionContext transact
         return 0;
     }
 
+    @Override
+    public long simulateInsert(Variant variant, long maxAmount, @Nullable TransactionContext transaction) {
+        if (this.insertion) return this.slot.tryInsert(variant.getObject(), variant.getNbt(), maxAmount);
+        return 0;
+    }
+
+    @Override
+    public long simulateExtract(Variant variant, long maxAmount, @Nullable TransactionContext transaction) {
+        if (this.extraction) return this.slot.tryExtract(variant.getObject(), variant.getNbt(), maxAmount);
+        return 0;
+    }
+
     @Override
     public boolean supportsInsertion() {
         return this.insertion;
@@ -72,7 +91,7 @@ public boolean isResourceBlank() {
 
     @Override
     public Variant getResource() {
-        return this.createVariant(this.slot.getResource(), this.slot.getTag());
+        return this.variant.get(this.slot);
     }
 
     @Override
@@ -28,23 +28,83 @@
 import dev.galacticraft.machinelib.api.transfer.exposed.ExposedStorage;
 import net.fabricmc.fabric.api.transfer.v1.storage.StorageView;
 import net.fabricmc.fabric.api.transfer.v1.storage.TransferVariant;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Iterator;
 
 public class ExposedStorageImpl<Resource, Variant extends TransferVariant<Resource>> implements ExposedStorage<Resource, Variant> {
+    private static final ExposedSlot<?, ?>[] NO_SLOTS = new ExposedSlot[0];
+
     private final Modifiable modifiable;
     private final ExposedSlot<Resource, Variant>[] slots;
+    private final SlotBackedStorage<?> @Nullable [] backedSlots;
+    private final boolean supportsInsertion;
+    private final boolean supportsExtraction;
+
+    /**
+     * The modification count of {@link #modifiable} when the slot index was last built.
+     * Modification counts are rewound when a transaction is aborted, so an index built inside a transaction is
+     * discarded if that transaction (or any transaction enclosing it) is aborted.
+     */
+    private long indexedModifications = Long.MIN_VALUE;
+    /**
+     * The slots that currently hold a resource.
+     */
+    private ExposedSlot<Resource, Variant>[] nonEmptySlots;
+    /**
+     * The slots that currently accept insertion and have room left.
+     */
+    private ExposedSlot<Resource, Variant>[] insertableSlots;
 
     public ExposedStorageImpl(Modifiable modifiable, ExposedSlot<Resource, Variant>[] slots) {
         this.modifiable = modifiable;
         this.slots = slots;
+        this.nonEmptySlots = slots;
+        this.insertableSlots = slots;
+
+        boolean supportsInsertion = false;
+        boolean supportsExtraction = false;
+        for (ExposedSlot<Resource, Variant> slot : slots) {
+            supportsInsertion |= slot.supportsInsertion();
+            supportsExtraction |= slot.supportsExtraction();
+        }
+        this.supportsInsertion = supportsInsertion;
+        this.supportsExtraction = supportsExtraction;
+
+        SlotBackedStorage<?>[] backedSlots = new SlotBackedStorage<?>[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            if (!(slots[i] instanceof SlotBackedStorage<?> backed)) {
+                backedSlots = null;
+                break;
+            }
+            backedSlots[i] = backed;
+        }
+        this.backedSlots = backedSlots;
+    }
+
+    /**
+     * {@return the slots of this storage as direct slot views, or {@code null} if any slot is not backed by a resource slot}
+     */
+    SlotBackedStorage<?> @Nullable [] getBackedSlots() {
+        return this.backedSlots;
+    }
+
+    @Override
+    public boolean supportsInsertion() {
+        return this.supportsInsertion;
+    }
+
+    @Override
+    public boolean supportsExtraction() {
+        return this.supportsExtraction;
     }
 
     @Override
     public long insert(Variant variant, long maxAmount, TransactionContext transaction) {
         long requested = maxAmount;
-        for (ExposedSlot<Resource, Variant> slot : slots) {
+        for (ExposedSlot<Resource, Variant> slot : this.getInsertableSlots(transaction)) {
             if (maxAmount == 0) return requested;
             maxAmount -= slot.insert(variant, maxAmount, transaction);
         }
@@ -54,20 +114,113 @@ public long insert(Variant variant, long maxAmount, TransactionContext transacti
     @Override
     public long extract(Variant variant, long maxAmount, TransactionContext transaction) {
         long requested = maxAmount;
-        for (ExposedSlot<Resource, Variant> slot : slots) {
+        for (ExposedSlot<Resource, Variant> slot : this.getNonEmptySlots(transaction)) {
             if (maxAmount == 0) return requested;
+            if (slot.isResourceBlank() || !slot.getResource().equals(variant)) continue;
             maxAmount -= slot.extract(variant, maxAmount, transaction);
         }
         return requested - maxAmount;
     }
 
+    @Override
+    public long simulateInsert(Variant variant, long maxAmount, @Nullable TransactionContext transaction) {
+        long requested = maxAmount;
+        for (ExposedSlot<Resource, Variant> slot : this.getInsertableSlots(transaction)) {
+            if (maxAmount == 0) return requested;
+            maxAmount -= slot.simulateInsert(variant, maxAmount, transaction);
+        }
+        return requested - maxAmount;
+    }
+
+    @Override
+    public long simulateExtract(Variant variant, long maxAmount, @Nullable TransactionContext transaction) {
+        long requested = maxAmount;
+        for (ExposedSlot<Resource, Variant> slot : this.getNonEmptySlots(transaction)) {
+            if (maxAmount == 0) return requested;
+            if (slot.isResourceBlank() || !slot.getResource().equals(variant)) continue;
+            maxAmount -= slot.simulateExtract(variant, maxAmount, transaction);
+        }
+        return requested - maxAmount;
+    }
+
     @Override
     public Iterator<StorageView<Variant>> iterator() {
         return Iterators.forArray(this.slots);
     }
 
+    @Override
+    public Iterator<StorageView<Variant>> nonEmptyIterator() {
+        if (this.isIndexed(null)) return Iterators.forArray(this.nonEmptySlots);
+        return Iterators.filter(this.iterator(), view -> !view.isResourceBlank());
+    }
+
     @Override
     public long getVersion() {
         return this.modifiable.getModifications();
     }
+
+    /**
+     * {@return the slots that may hold a resource} If the index is stale, all slots are returned.
+     */
+    private ExposedSlot<Resource, Variant>[] getNonEmptySlots(@Nullable TransactionContext transaction) {
+        return this.isIndexed(transaction) ? this.nonEmptySlots : this.slots;
+    }
+
+    /**
+     * {@return the slots that may accept an insertion} If the index is stale, all slots are returned.
+     */
+    private ExposedSlot<Resource, Variant>[] getInsertableSlots(@Nullable TransactionContext transaction) {
+        return this.isIndexed(transaction) ? this.insertableSlots : this.slots;
+    }
+
+    /**
+     * Rebuilds the slot index if this storage has been modified since it was last built.
+     * The index cannot be rebuilt if a transaction is open but was not passed in.
+     *
+     * @param transaction the current transaction, or {@code null} if there is none
+     * @return whether the index is up-to-date
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isIndexed(@Nullable TransactionContext transaction) {
+        long modifications = this.modifiable.getModifications();
+        if (this.indexedModifications == modifications) return true;
+        if (transaction == null && Transaction.isOpen()) return false;
+
+        int nonEmpty = 0;
+        int insertable = 0;
+        for (ExposedSlot<Resource, Variant> slot : this.slots) {
+            if (!slot.isResourceBlank()) nonEmpty++;
+            if (slot.supportsInsertion() && slot.getAmount() < slot.getCapacity()) insertable++;
+        }
+
+        ExposedSlot<Resource, Variant>[] nonEmptySlots = nonEmpty == 0 ? (ExposedSlot<Resource, Variant>[]) NO_SLOTS : new ExposedSlot[nonEmpty];
+        ExposedSlot<Resource, Variant>[] insertableSlots = insertable == 0 ? (ExposedSlot<Resource, Variant>[]) NO_SLOTS : new ExposedSlot[insertable];
+        nonEmpty = 0;
+        insertable = 0;
+        for (ExposedSlot<Resource, Variant> slot : this.slots) {
+            if (!slot.isResourceBlank()) nonEmptySlots[nonEmpty++] = slot;
+            if (slot.supportsInsertion() && slot.getAmount() < slot.getCapacity()) insertableSlots[insertable++] = slot;
+        }
+
+        this.nonEmptySlots = nonEmptySlots;
+        this.insertableSlots = insertableSlots;
+        this.indexedModifications = modifications;
+        if (transaction != null) this.invalidateOnAbort(transaction);
+        return true;
+    }
+
+    /**
+     * Discards the slot index if the given transaction, or any transaction enclosing it, is aborted.
+     *
+     * @param transaction the transaction the index was built in
+     */
+    private void invalidateOnAbort(TransactionContext transaction) {
+        transaction.addCloseCallback((context, result) -> {
+            if (result.wasAborted()) {
+                this.indexedModifications = Long.MIN_VALUE;
+            } else if (context.nestingDepth() > 0) {
+                this.invalidateOnAbort(context.getOpenTransaction(context.nestingDepth() - 1));
+            }
+        });
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.transfer.exposed;
+
+import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An exposed slot that is directly backed by a {@link ResourceSlot}, allowing {@link DirectTransfer} to bypass the
+ * variant-based transfer API.
+ *
+ * @param <Resource> the type of resource stored in the slot
+ */
+interface SlotBackedStorage<Resource> {
+    @NotNull ResourceSlot<Resource, ?> getBackingSlot();
+
+    boolean supportsInsertion();
+
+    boolean supportsExtraction();
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.transfer.routing;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.machine.configuration.face.BlockFace;
+import dev.galacticraft.machinelib.api.storage.io.ResourceType;
+import dev.galacticraft.machinelib.api.transfer.exposed.ExposedStorage;
+import dev.galacticraft.machinelib.api.util.GenericApiUtil;
+import dev.galacticraft.machinelib.impl.Constant;
+import dev.galacticraft.machinelib.impl.grid.Grid;
+import dev.galacticraft.machinelib.impl.grid.GridNode;
+import dev.galacticraft.machinelib.impl.transfer.PushBackoff;
+import dev.galacticraft.machinelib.impl.transfer.PushDistributor;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.storage.TransferVariant;
+import net.minecraft.core.Direction;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.material.Fluid;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * A group of adjacent machines that move items and fluids between each other.
+ * A route exists wherever a member's face allows extraction and the touching face of the neighbouring member allows
+ * insertion. Routes are cached until a member joins, leaves or changes its I/O configuration or facing, and all of
+ * them are served in a single pass per tick, upstream routes first, so resources can cross a whole chain of machines
+ * in one tick. The routes out of a member are served like the faces of a machine pushing on its own: following the
+ * member's distribution strategy and push rate limits, and backing off after a failed move until either end changes.
+ */
+@ApiStatus.Internal
+public final class RoutingNetwork extends Grid<RoutingNode> {
+    private final List<Source<Item, ItemVariant>> itemSources = new ArrayList<>();
+    private final List<Source<Fluid, FluidVariant>> fluidSources = new ArrayList<>();
+    private boolean dirty = true;
+    /**
+     * The number of times this network has been ticked, used to time route backoff.
+     */
+    private long ticks = 0;
+
+    @Override
+    protected void add(@NotNull RoutingNode node) {
+        super.add(node);
+        this.dirty = true;
+    }
+
+    @Override
+    protected void remove(@NotNull RoutingNode node) {
+        super.remove(node);
+        this.dirty = true;
+    }
+
+    @Override
+    protected void tick() {
+        long time = this.ticks++;
+        for (RoutingNode member : this.members) {
+            this.dirty |= member.hasChanged();
+        }
+        if (this.dirty) {
+            this.dirty = false;
+            for (int i = 0; i < this.members.size(); i++) {
+                this.members.get(i).index = i;
+            }
+            this.buildRoutes(ResourceType.ITEM, MachineBlockEntity::getExposedItemStorageTowards, this.itemSources);
+            this.buildRoutes(ResourceType.FLUID, MachineBlockEntity::getExposedFluidStorageTowards, this.fluidSources);
+        }
+
+        for (Source<Item, ItemVariant> source : this.itemSources) {
+            source.push(time);
+        }
+        for (Source<Fluid, FluidVariant> source : this.fluidSources) {
+            source.push(time);
+        }
+    }
+
+    /**
+     * Finds every route for a resource type, grouped by the member they leave from. The groups are sorted so that the
+     * routes out of a machine come after the routes into it (where there are no cycles).
+     */
+    private <Resource, Variant extends TransferVariant<Resource>> void buildRoutes(@NotNull ResourceType type, @NotNull BiFunction<MachineBlockEntity, Direction, @Nullable ExposedStorage<Resource, Variant>> exposed, @NotNull List<Source<Resource, Variant>> sources) {
+        sources.clear();
+        int n = this.members.size();
+        List<List<Route<Resource, Variant>>> outgoing = new ArrayList<>(n);
+        int[] incoming = new int[n];
+        for (RoutingNode member : this.members) {
+            List<Route<Resource, Variant>> out = new ArrayList<>(0);
+            Direction facing = member.getMachine().getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+            for (Direction direction : Constant.Cache.DIRECTIONS) {
+                GridNode neighbour = member.getNeighbour(direction);
+                if (neighbour == null) continue;
+                ExposedStorage<Resource, Variant> from = exposed.apply(member.getMachine(), direction);
+                if (from == null || !from.supportsExtraction()) continue;
+                ExposedStorage<Resource, Variant> to = exposed.apply(neighbour.getMachine(), direction.getOpposite());
+                if (to == null || !to.supportsInsertion()) continue;
+
+                int target = ((RoutingNode) neighbour).index;
+                out.add(new Route<>(from, to, BlockFace.toFace(facing, direction), target, new PushBackoff()));
+                incoming[target]++;
+            }
+            outgoing.add(out);
+        }
+
+        boolean[] visited = new boolean[n];
+        IntArrayFIFOQueue queue = new IntArrayFIFOQueue();
+        for (int i = 0; i < n; i++) {
+            if (incoming[i] == 0) queue.enqueue(i);
+        }
+        int next = 0;
+        while (true) {
+            if (queue.isEmpty()) {
+                // only cycles are left, so break one at the first unvisited member
+                while (next < n && visited[next]) next++;
+                if (next == n) break;
+                queue.enqueue(next);
+            }
+            int i = queue.dequeueInt();
+            if (visited[i]) continue;
+            visited[i] = true;
+            List<Route<Resource, Variant>> out = outgoing.get(i);
+            if (!out.isEmpty()) sources.add(new Source<>(this.members.get(i).getMachine(), type, out));
+            for (Route<Resource, Variant> route : out) {
+                if (--incoming[route.target()] == 0) queue.enqueue(route.target());
+            }
+        }
+    }
+
+    /**
+     * A move out of a member's face into the touching face of a neighbouring member.
+     *
+     * @param face the face of the member the route leaves through
+     * @param target the index of the neighbouring member
+     */
+    private record Route<Resource, Variant extends TransferVariant<Resource>>(@NotNull ExposedStorage<Resource, Variant> from, @NotNull ExposedStorage<Resource, Variant> to, @NotNull BlockFace face, int target, @NotNull PushBackoff backoff) {
+    }
+
+    /**
+     * The routes out of a single member.
+     */
+    private static final class Source<Resource, Variant extends TransferVariant<Resource>> extends PushDistributor {
+        private final @NotNull MachineBlockEntity machine;
+        private final @NotNull ResourceType type;
+        private final @NotNull List<Route<Resource, Variant>> routes;
+
+        private Source(@NotNull MachineBlockEntity machine, @NotNull ResourceType type, @NotNull List<Route<Resource, Variant>> routes) {
+            super(routes.size());
+            this.machine = machine;
+            this.type = type;
+            this.routes = routes;
+        }
+
+        /**
+         * Moves as much as possible along the routes that are not backing off.
+         *
+         * @param time the current network time
+         */
+        void push(long time) {
+            this.push(this.machine.getDistributionStrategy(this.type), this.routes.size(), time);
+        }
+
+        @Override
+        protected boolean shouldAttempt(int entry, long time) {
+            Route<Resource, Variant> route = this.routes.get(entry);
+            return route.backoff().shouldAttempt(time, route.from(), route.from().getVersion(), route.to(), PushBackoff.versionOf(route.to()));
+        }
+
+        @Override
+        protected long getRateLimit(int entry) {
+            return this.machine.getPushRateLimit(this.type, this.routes.get(entry).face());
+        }
+
+        @Override
+        protected long getAmount(int entry) {
+            return GenericApiUtil.getAmount(this.routes.get(entry).from());
+        }
+
+        @Override
+        protected void move(int entry, long limit, long time) {
+            Route<Resource, Variant> route = this.routes.get(entry);
+            route.backoff().onAttempt(time, GenericApiUtil.moveAll(route.from(), route.to(), Long.MAX_VALUE, limit, null) > 0);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.transfer.routing;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.impl.grid.GridManager;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps track of the item and fluid routing networks in a level.
+ *
+ * @see MachineBlockEntity#joinsRoutingNetwork()
+ */
+@ApiStatus.Internal
+public final class RoutingNetworkManager extends GridManager<RoutingNode, RoutingNetwork> {
+    public static void register() {
+        register(MachineBlockEntity::joinsRoutingNetwork, RoutingNetworkManager::new);
+    }
+
+    @Override
+    protected @NotNull RoutingNode createNode(@NotNull MachineBlockEntity machine, long pos) {
+        return new RoutingNode(machine, pos);
+    }
+
+    @Override
+    protected @NotNull RoutingNetwork createGrid() {
+        return new RoutingNetwork();
+    }
+
+    @Override
+    protected @Nullable RoutingNode getNode(@NotNull MachineBlockEntity machine) {
+        return machine.getRoutingNode();
+    }
+
+    @Override
+    protected void setNode(@NotNull MachineBlockEntity machine, @Nullable RoutingNode node) {
+        machine.setRoutingNode(node);
+    }
+}
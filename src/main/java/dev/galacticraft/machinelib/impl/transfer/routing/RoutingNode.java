@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.transfer.routing;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.impl.grid.GridNode;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A machine that is part of a {@link RoutingNetwork}.
+ */
+@ApiStatus.Internal
+public final class RoutingNode extends GridNode {
+    /**
+     * The position of this node in its network's member list, as of the last route rebuild.
+     */
+    int index = -1;
+
+    private long modifications = -1;
+    private @Nullable Direction facing = null;
+
+    RoutingNode(@NotNull MachineBlockEntity machine, long pos) {
+        super(machine, pos);
+    }
+
+    /**
+     * Checks whether the I/O configuration or facing of this machine changed since the last call.
+     *
+     * @return whether the routes through this machine may have changed
+     */
+    boolean hasChanged() {
+        long modifications = this.machine.getIOConfig().getModifications();
+        Direction facing = this.machine.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+        if (modifications == this.modifications && facing == this.facing) return false;
+        this.modifications = modifications;
+        this.facing = facing;
+        return true;
+    }
+}
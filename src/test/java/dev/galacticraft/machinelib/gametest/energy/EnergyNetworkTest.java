@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.energy;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.machine.MachineStatus;
+import dev.galacticraft.machinelib.api.machine.MachineStatuses;
+import dev.galacticraft.machinelib.api.machine.MachineType;
+import dev.galacticraft.machinelib.api.machine.configuration.face.BlockFace;
+import dev.galacticraft.machinelib.api.menu.MachineMenu;
+import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
+import dev.galacticraft.machinelib.api.storage.MachineItemStorage;
+import dev.galacticraft.machinelib.api.storage.io.ResourceFlow;
+import dev.galacticraft.machinelib.api.storage.io.ResourceType;
+import dev.galacticraft.machinelib.impl.energy.EnergyNetwork;
+import dev.galacticraft.machinelib.impl.energy.EnergyNetworkManager;
+import dev.galacticraft.machinelib.testmod.block.TestModBlocks;
+import dev.galacticraft.machinelib.testmod.block.entity.SimpleMachineBlockEntity;
+import dev.galacticraft.machinelib.testmod.block.entity.TestModBlockEntityTypes;
+import dev.galacticraft.machinelib.testmod.menu.TestModMenuTypes;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class EnergyNetworkTest extends GameUnitTest<Object> {
+    private static final MachineType<SimpleMachineBlockEntity, MachineMenu<SimpleMachineBlockEntity>> CELL = MachineType.create(
+            TestModBlocks.SIMPLE_MACHINE_BLOCK,
+            TestModBlockEntityTypes.SIMPLE_MACHINE,
+            TestModMenuTypes.SIMPLE_MACHINE,
+            () -> MachineEnergyStorage.of(1000, 100, true, true),
+            MachineItemStorage::empty
+    );
+
+    public EnergyNetworkTest() {
+        super("energy_network_test", null);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void proportionalSupply() {
+        long[] provided = new long[3];
+        long[] received = new long[3];
+        assertEquals(100, EnergyNetwork.distribute(new long[]{300, 100, 0}, new long[]{0, 0, 100}, new int[3], 3, provided, received));
+        assertEquals(75, provided[0]);
+        assertEquals(25, provided[1]);
+        assertEquals(0, provided[2]);
+        assertEquals(100, received[2]);
+    }
+
+    @UnitTest
+    public void proportionalDemand() {
+        long[] provided = new long[3];
+        long[] received = new long[3];
+        assertEquals(10, EnergyNetwork.distribute(new long[]{10, 0, 0}, new long[]{0, 20, 20}, new int[3], 3, provided, received));
+        assertEquals(5, received[1]);
+        assertEquals(5, received[2]);
+    }
+
+    @UnitTest
+    public void priorityFirst() {
+        long[] provided = new long[3];
+        long[] received = new long[3];
+        assertEquals(30, EnergyNetwork.distribute(new long[]{0, 0, 30}, new long[]{20, 20, 0}, new int[]{1, 0, 0}, 3, provided, received));
+        assertEquals(20, received[0]);
+        assertEquals(10, received[1]);
+        assertEquals(30, provided[2]);
+    }
+
+    @UnitTest
+    public void conservesRemainder() {
+        long[] provided = new long[3];
+        long[] received = new long[3];
+        assertEquals(10, EnergyNetwork.distribute(new long[]{7, 7, 7}, new long[]{0, 0, 10}, new int[3], 3, provided, received));
+        assertEquals(10, provided[0] + provided[1] + provided[2]);
+        assertEquals(10, received[2]);
+    }
+
+    @UnitTest
+    public void networkMovesEnergy() {
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell source = new Cell(0, ResourceFlow.OUTPUT, 1000);
+        Cell relay = new Cell(1, ResourceFlow.BOTH, 0);
+        Cell sink = new Cell(2, ResourceFlow.INPUT, 0);
+        manager.join(source);
+        manager.join(relay);
+        manager.join(sink);
+
+        manager.tick();
+        assertEquals(900, source.energyStorage().getAmount());
+        assertEquals(100, relay.energyStorage().getAmount() + sink.energyStorage().getAmount());
+        assertTrue(sink.energyStorage().getAmount() > 0);
+    }
+
+    @UnitTest
+    public void partlyFilledReceiverConservesEnergy() {
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell source = new Cell(0, ResourceFlow.OUTPUT, 1000);
+        Cell sink = new Cell(1, ResourceFlow.INPUT, 950);
+        manager.join(source);
+        manager.join(sink);
+
+        manager.tick();
+        assertEquals(950, source.energyStorage().getAmount());
+        assertEquals(1000, sink.energyStorage().getAmount());
+        assertEquals(1950, source.energyStorage().getAmount() + sink.energyStorage().getAmount());
+    }
+
+    @UnitTest
+    public void fullReceiverConservesEnergy() {
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell source = new Cell(0, ResourceFlow.OUTPUT, 1000);
+        Cell sink = new Cell(1, ResourceFlow.INPUT, 1000);
+        manager.join(source);
+        manager.join(sink);
+
+        manager.tick();
+        assertEquals(1000, source.energyStorage().getAmount());
+        assertEquals(1000, sink.energyStorage().getAmount());
+    }
+
+    @UnitTest
+    public void energyFollowsFaceDirections() {
+        // A(out) -> B(in) <- C(out) -> D(in): A may only supply B, even though all four are linked
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell a = new Cell(0, ResourceFlow.OUTPUT, 1000);
+        Cell b = new Cell(1, ResourceFlow.INPUT, 0);
+        Cell c = new Cell(2, ResourceFlow.OUTPUT, 0);
+        Cell d = new Cell(3, ResourceFlow.INPUT, 0);
+        manager.join(a);
+        manager.join(b);
+        manager.join(c);
+        manager.join(d);
+
+        manager.tick();
+        assertTrue(b.getEnergyNetworkNode().isLinked(Direction.EAST));
+        assertTrue(c.getEnergyNetworkNode().isLinked(Direction.EAST));
+        assertEquals(900, a.energyStorage().getAmount());
+        assertEquals(100, b.energyStorage().getAmount());
+        assertEquals(0, d.energyStorage().getAmount());
+
+        c.energyStorage().setEnergy(1000);
+        manager.tick();
+        assertEquals(900, c.energyStorage().getAmount());
+        assertTrue(d.energyStorage().getAmount() > 0);
+        assertEquals(2000, a.energyStorage().getAmount() + b.energyStorage().getAmount() + c.energyStorage().getAmount() + d.energyStorage().getAmount());
+    }
+
+    @UnitTest
+    public void energyIsRelayedInFaceDirection() {
+        // A(out) -> B(in, out) -> C(in): B passes energy on, but nothing flows back to A
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell a = new Cell(0, ResourceFlow.OUTPUT, 0);
+        Cell b = new Cell(1, null, 1000);
+        b.configure(Direction.WEST, ResourceFlow.INPUT);
+        b.configure(Direction.EAST, ResourceFlow.OUTPUT);
+        Cell c = new Cell(2, ResourceFlow.INPUT, 0);
+        manager.join(a);
+        manager.join(b);
+        manager.join(c);
+
+        manager.tick();
+        assertEquals(0, a.energyStorage().getAmount());
+        assertEquals(900, b.energyStorage().getAmount());
+        assertEquals(100, c.energyStorage().getAmount());
+    }
+
+    @UnitTest
+    public void facesWithoutEnergyDoNotConnect() {
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell a = new Cell(0, ResourceFlow.BOTH, 1000);
+        Cell b = new Cell(1, null, 0);
+        Cell c = new Cell(2, ResourceFlow.BOTH, 0);
+        manager.join(a);
+        manager.join(b);
+        manager.join(c);
+
+        manager.tick();
+        assertFalse(a.getEnergyNetworkNode().isLinked(Direction.EAST));
+        assertFalse(c.getEnergyNetworkNode().isLinked(Direction.WEST));
+        assertEquals(1000, a.energyStorage().getAmount());
+        assertEquals(0, c.energyStorage().getAmount());
+    }
+
+    @UnitTest
+    public void incompatibleFacesDoNotConnect() {
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell a = new Cell(0, ResourceFlow.INPUT, 1000);
+        Cell b = new Cell(1, ResourceFlow.INPUT, 0);
+        manager.join(a);
+        manager.join(b);
+
+        manager.tick();
+        assertFalse(a.getEnergyNetworkNode().isLinked(Direction.EAST));
+        assertEquals(0, b.energyStorage().getAmount());
+    }
+
+    @UnitTest
+    public void relinksOnConfigurationChange() {
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell source = new Cell(0, ResourceFlow.OUTPUT, 1000);
+        Cell sink = new Cell(1, null, 0);
+        manager.join(source);
+        manager.join(sink);
+
+        manager.tick();
+        assertEquals(0, sink.energyStorage().getAmount());
+
+        sink.configure(ResourceFlow.INPUT);
+        manager.tick();
+        assertTrue(source.getEnergyNetworkNode().isLinked(Direction.EAST));
+        assertEquals(100, sink.energyStorage().getAmount());
+
+        sink.configure(null);
+        manager.tick();
+        assertFalse(source.getEnergyNetworkNode().isLinked(Direction.EAST));
+        assertEquals(100, sink.energyStorage().getAmount());
+    }
+
+    @UnitTest
+    public void splitsOnLeave() {
+        EnergyNetworkManager manager = new EnergyNetworkManager();
+        Cell source = new Cell(0, ResourceFlow.OUTPUT, 1000);
+        Cell relay = new Cell(1, ResourceFlow.BOTH, 0);
+        Cell sink = new Cell(2, ResourceFlow.INPUT, 0);
+        manager.join(source);
+        manager.join(relay);
+        manager.join(sink);
+
+        manager.leave(relay);
+        manager.tick();
+        assertEquals(1000, source.energyStorage().getAmount());
+        assertEquals(0, sink.energyStorage().getAmount());
+    }
+
+    private static final class Cell extends MachineBlockEntity {
+        private Cell(int x, @Nullable ResourceFlow flow, long energy) {
+            super(CELL, new BlockPos(x, 0, 0), TestModBlocks.SIMPLE_MACHINE_BLOCK.defaultBlockState());
+            this.configure(flow);
+            this.energyStorage().setEnergy(energy);
+        }
+
+        private void configure(@Nullable ResourceFlow flow) {
+            for (BlockFace face : BlockFace.values()) {
+                this.configure(face, flow);
+            }
+        }
+
+        private void configure(@NotNull Direction direction, @Nullable ResourceFlow flow) {
+            this.configure(BlockFace.toFace(this.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING), direction), flow);
+        }
+
+        private void configure(@NotNull BlockFace face, @Nullable ResourceFlow flow) {
+            this.getIOConfig().get(face).setOption(flow == null ? ResourceType.NONE : ResourceType.ENERGY, flow == null ? ResourceFlow.BOTH : flow);
+        }
+
+        @Override
+        protected @NotNull MachineStatus tick(@NotNull ServerLevel world, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler) {
+            return MachineStatuses.IDLE;
+        }
+
+        @Override
+        public @Nullable AbstractContainerMenu createMenu(int syncId, Inventory inv, Player player) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.recipe;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.machine.MachineStatuses;
+import dev.galacticraft.machinelib.testmod.slot.TestModSlotGroupTypes;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class RecipeInputModificationsTest extends GameUnitTest<Object> {
+    private static final TestRecipeMachine.Conversion DIRT_TO_DIAMOND = new TestRecipeMachine.Conversion(new ResourceLocation("machinelib-test", "dirt_to_diamond"), Items.DIRT, Items.DIAMOND, 10);
+
+    public RecipeInputModificationsTest() {
+        super("recipe_input_modifications", null);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void tracksCraftingInventory() {
+        TestRecipeMachine machine = new TestRecipeMachine(BlockPos.ZERO);
+        long modifications = machine.getInputModifications();
+        assertEquals(machine.itemStorage().getModifications(TestModSlotGroupTypes.DIRT), modifications);
+
+        machine.output().insert(Items.STONE, 1);
+        assertEquals(modifications, machine.getInputModifications());
+
+        machine.input().insert(Items.DIRT, 1);
+        assertTrue(machine.getInputModifications() != modifications);
+        assertEquals(machine.itemStorage().getModifications(TestModSlotGroupTypes.DIRT), machine.getInputModifications());
+    }
+
+    @UnitTest
+    public void outputChangeDoesNotSearch(@NotNull GameTestHelper helper) {
+        TestRecipeMachine machine = new TestRecipeMachine(helper.absolutePos(BlockPos.ZERO));
+        machine.recipes.add(DIRT_TO_DIAMOND);
+        machine.input().insert(Items.DIRT, 2);
+
+        machine.tickOnce(helper.getLevel());
+        assertEquals(MachineStatuses.ACTIVE, machine.getStatus());
+        assertEquals(1, machine.getSearches());
+
+        // taking items out of the output (e.g. by a pipe) keeps the active recipe
+        machine.output().insert(Items.DIAMOND, 1);
+        machine.output().extract(Items.DIAMOND, 1);
+        machine.tickOnce(helper.getLevel());
+        assertEquals(MachineStatuses.ACTIVE, machine.getStatus());
+        assertEquals(1, machine.getSearches());
+        assertIdentityEquals(DIRT_TO_DIAMOND, machine.getActiveRecipe());
+    }
+}
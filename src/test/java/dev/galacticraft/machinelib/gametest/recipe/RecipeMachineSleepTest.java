@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.recipe;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.machine.MachineStatuses;
+import dev.galacticraft.machinelib.testmod.block.TestModBlocks;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class RecipeMachineSleepTest extends GameUnitTest<Object> {
+    private static final TestRecipeMachine.Conversion DIRT_TO_DIAMOND = new TestRecipeMachine.Conversion(new ResourceLocation("machinelib-test", "dirt_to_diamond"), Items.DIRT, Items.DIAMOND, 10);
+
+    public RecipeMachineSleepTest() {
+        super("recipe_machine_sleep", null);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void sleepsOnInvalidRecipe(@NotNull GameTestHelper helper) {
+        TestRecipeMachine machine = new TestRecipeMachine(helper.absolutePos(BlockPos.ZERO));
+        machine.recipes.add(DIRT_TO_DIAMOND);
+        machine.input().insert(Items.STONE, 1);
+
+        machine.tickOnce(helper.getLevel());
+        assertEquals(MachineStatuses.INVALID_RECIPE, machine.getStatus());
+        assertTrue(machine.isSleeping());
+        assertEquals(1, machine.getSearches());
+
+        machine.tickOnce(helper.getLevel());
+        assertTrue(machine.isSleeping());
+        assertEquals(1, machine.getSearches());
+    }
+
+    @UnitTest
+    public void sleepsOnOutputFull(@NotNull GameTestHelper helper) {
+        TestRecipeMachine machine = new TestRecipeMachine(helper.absolutePos(BlockPos.ZERO));
+        machine.recipes.add(DIRT_TO_DIAMOND);
+        machine.input().insert(Items.DIRT, 1);
+        machine.output().insert(Items.STONE, 64);
+
+        machine.tickOnce(helper.getLevel());
+        assertEquals(MachineStatuses.OUTPUT_FULL, machine.getStatus());
+        assertTrue(machine.isSleeping());
+
+        machine.tickOnce(helper.getLevel());
+        assertEquals(MachineStatuses.OUTPUT_FULL, machine.getStatus());
+        assertEquals(1, machine.getSearches());
+
+        // freeing the output wakes the machine, and the blocked recipe is used without searching again
+        machine.output().extract(Items.STONE, 64);
+        assertFalse(machine.isSleeping());
+        machine.tickOnce(helper.getLevel());
+        assertEquals(MachineStatuses.ACTIVE, machine.getStatus());
+        assertEquals(1, machine.getSearches());
+    }
+
+    @UnitTest
+    public void wakesOnStorageChange(@NotNull GameTestHelper helper) {
+        TestRecipeMachine machine = new TestRecipeMachine(helper.absolutePos(BlockPos.ZERO));
+        machine.recipes.add(DIRT_TO_DIAMOND);
+
+        machine.tickOnce(helper.getLevel());
+        assertTrue(machine.isSleeping());
+
+        machine.input().insert(Items.DIRT, 1);
+        assertFalse(machine.isSleeping());
+        machine.tickOnce(helper.getLevel());
+        assertEquals(MachineStatuses.ACTIVE, machine.getStatus());
+        assertIdentityEquals(DIRT_TO_DIAMOND, machine.getActiveRecipe());
+    }
+
+    @UnitTest
+    public void wakesOnNeighbourUpdate(@NotNull GameTestHelper helper) {
+        helper.setBlock(BlockPos.ZERO, TestModBlocks.SIMPLE_MACHINE_BLOCK);
+        TestRecipeMachine machine = new TestRecipeMachine(helper.absolutePos(BlockPos.ZERO));
+        helper.getLevel().setBlockEntity(machine);
+
+        machine.tickOnce(helper.getLevel());
+        assertTrue(machine.isSleeping());
+
+        helper.setBlock(BlockPos.ZERO.above(), Blocks.STONE);
+        assertFalse(machine.isSleeping());
+    }
+
+    @UnitTest
+    public void wakesOnReload(@NotNull GameTestHelper helper) {
+        TestRecipeMachine machine = new TestRecipeMachine(helper.absolutePos(BlockPos.ZERO));
+        machine.input().insert(Items.DIRT, 1);
+
+        machine.tickOnce(helper.getLevel());
+        assertEquals(MachineStatuses.INVALID_RECIPE, machine.getStatus());
+        assertTrue(machine.isSleeping());
+
+        // the recipe only becomes visible once the reload finishes
+        machine.recipes.add(DIRT_TO_DIAMOND);
+        machine.tickOnce(helper.getLevel());
+        assertTrue(machine.isSleeping());
+        assertEquals(1, machine.getSearches());
+
+        MachineBlockEntity.wakeAll();
+        machine.tickOnce(helper.getLevel());
+        assertFalse(machine.isSleeping());
+        assertEquals(2, machine.getSearches());
+        assertEquals(MachineStatuses.ACTIVE, machine.getStatus());
+        assertIdentityEquals(DIRT_TO_DIAMOND, machine.getActiveRecipe());
+    }
+}
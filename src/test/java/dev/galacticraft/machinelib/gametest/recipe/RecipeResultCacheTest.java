@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package dev.galacticraft.machinelib.gametest.recipe;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.impl.recipe.RecipeResultCache;
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.Container;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeSerializer;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class RecipeResultCacheTest extends GameUnitTest<Object> {
+    private static final RecipeType<TestRecipe> TYPE = new RecipeType<>() {
+        @Override
+        public String toString() {
+            return "machinelib-test:recipe_cache";
+        }
+    };
+
+    public RecipeResultCacheTest() {
+        super("recipe_cache", null);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void hitIgnoresCounts(@NotNull GameTestHelper helper) {
+        Level level = helper.getLevel();
+        TestRecipe recipe = new TestRecipe(new ResourceLocation("machinelib-test", "dirt"), Items.DIRT, null);
+        RecipeManager manager = manager(recipe);
+
+        assertIdentityEquals(recipe, RecipeResultCache.find(manager, level, TYPE, new SimpleContainer(new ItemStack(Items.DIRT, 1))));
+        assertIdentityEquals(recipe, RecipeResultCache.find(manager, level, TYPE, new SimpleContainer(new ItemStack(Items.DIRT, 5))));
+        assertEquals(1, RecipeResultCache.getMisses());
+        assertEquals(1, RecipeResultCache.getHits());
+        assertEquals(1, RecipeResultCache.size());
+    }
+
+    @UnitTest
+    public void missWithoutCandidatesIsCached(@NotNull GameTestHelper helper) {
+        Level level = helper.getLevel();
+        RecipeManager manager = manager(new TestRecipe(new ResourceLocation("machinelib-test", "dirt"), Items.DIRT, null));
+
+        assertIdentityEquals(null, RecipeResultCache.find(manager, level, TYPE, new SimpleContainer(new ItemStack(Items.STONE))));
+        assertIdentityEquals(null, RecipeResultCache.find(manager, level, TYPE, new SimpleContainer(new ItemStack(Items.STONE))));
+        assertEquals(1, RecipeResultCache.getMisses());
+        assertEquals(1, RecipeResultCache.getHits());
+        assertEquals(1, RecipeResultCache.size());
+    }
+
+    @UnitTest
+    public void missWithCandidatesIsRepeated(@NotNull GameTestHelper helper) {
+        Level level = helper.getLevel();
+        TestRecipe recipe = new TestRecipe(new ResourceLocation("machinelib-test", "tagged_dirt"), Items.DIRT, "Key");
+        RecipeManager manager = manager(recipe);
+        ItemStack stack = new ItemStack(Items.DIRT);
+        SimpleContainer container = new SimpleContainer(stack);
+
+        assertIdentityEquals(null, RecipeResultCache.find(manager, level, TYPE, container));
+        assertEquals(0, RecipeResultCache.size());
+
+        // the recipe depends on more than the items, so the negative result must not stick
+        stack.getOrCreateTag().putInt("Key", 1);
+        assertIdentityEquals(recipe, RecipeResultCache.find(manager, level, TYPE, container));
+        assertEquals(2, RecipeResultCache.getMisses());
+    }
+
+    @UnitTest
+    public void tagCollisionDoesNotHideRecipe(@NotNull GameTestHelper helper) {
+        Level level = helper.getLevel();
+        TestRecipe recipe = new TestRecipe(new ResourceLocation("machinelib-test", "tagged_dirt"), Items.DIRT, "BB");
+        RecipeManager manager = manager(recipe);
+        // "Aa" and "BB" have the same hash code, and so do the tags
+        ItemStack a = tagged("Aa");
+        ItemStack b = tagged("BB");
+        assertEquals(a.getTag().hashCode(), b.getTag().hashCode());
+
+        assertIdentityEquals(null, RecipeResultCache.find(manager, level, TYPE, new SimpleContainer(a)));
+        assertIdentityEquals(recipe, RecipeResultCache.find(manager, level, TYPE, new SimpleContainer(b)));
+        assertIdentityEquals(recipe, RecipeResultCache.find(manager, level, TYPE, new SimpleContainer(b)));
+        assertIdentityEquals(null, RecipeResultCache.find(manager, level, TYPE, new SimpleContainer(a)));
+    }
+
+    @UnitTest
+    public void reloadClearsCache(@NotNull GameTestHelper helper) {
+        Level level = helper.getLevel();
+        TestRecipe recipe = new TestRecipe(new ResourceLocation("machinelib-test", "dirt"), Items.DIRT, null);
+
+        assertIdentityEquals(null, RecipeResultCache.find(manager(), level, TYPE, new SimpleContainer(new ItemStack(Items.DIRT))));
+        assertEquals(1, RecipeResultCache.size());
+
+        RecipeManager reloaded = manager(recipe);
+        assertIdentityEquals(recipe, RecipeResultCache.find(reloaded, level, TYPE, new SimpleContainer(new ItemStack(Items.DIRT))));
+        assertEquals(0, RecipeResultCache.getHits());
+        assertEquals(1, RecipeResultCache.getMisses());
+        assertEquals(1, RecipeResultCache.size());
+    }
+
+    private static @NotNull ItemStack tagged(@NotNull String key) {
+        ItemStack stack = new ItemStack(Items.DIRT);
+        stack.getOrCreateTag().putInt(key, 1);
+        return stack;
+    }
+
+    /**
+     * Creates a new recipe manager (as a datapack reload would) holding the given recipes.
+     */
+    private static @NotNull RecipeManager manager(@NotNull Recipe<?>... recipes) {
+        RecipeManager manager = new RecipeManager();
+        manager.replaceRecipes(Arrays.asList(recipes));
+        return manager;
+    }
+
+    /**
+     * A recipe that matches a single item, optionally only if its NBT contains the given key.
+     */
+    private record TestRecipe(@NotNull ResourceLocation id, @NotNull Item item, @Nullable String key) implements Recipe<Container> {
+        @Override
+        public boolean matches(Container container, Level level) {
+            ItemStack stack = container.getItem(0);
+            return stack.is(this.item) && (this.key == null || stack.getTag() != null && stack.getTag().contains(this.key));
+        }
+
+        @Override
+        public @NotNull ItemStack assemble(Container container, RegistryAccess registryAccess) {
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public boolean canCraftInDimensions(int width, int height) {
+            return true;
+        }
+
+        @Override
+        public @NotNull ItemStack getResultItem(RegistryAccess registryAccess) {
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public @NotNull NonNullList<Ingredient> getIngredients() {
+            return NonNullList.of(Ingredient.EMPTY, Ingredient.of(this.item));
+        }
+
+        @Override
+        public @NotNull ResourceLocation getId() {
+            return this.id;
+        }
+
+        @Override
+        public @NotNull RecipeSerializer<?> getSerializer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull RecipeType<?> getType() {
+            return TYPE;
+        }
+    }
+}
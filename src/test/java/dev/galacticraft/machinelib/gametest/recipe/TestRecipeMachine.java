@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.recipe;
+
+import dev.galacticraft.machinelib.api.block.entity.RecipeMachineBlockEntity;
+import dev.galacticraft.machinelib.api.machine.MachineStatus;
+import dev.galacticraft.machinelib.api.machine.MachineStatuses;
+import dev.galacticraft.machinelib.api.machine.MachineType;
+import dev.galacticraft.machinelib.api.menu.RecipeMachineMenu;
+import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
+import dev.galacticraft.machinelib.api.storage.MachineItemStorage;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.SlotGroup;
+import dev.galacticraft.machinelib.testmod.block.TestModBlocks;
+import dev.galacticraft.machinelib.testmod.block.entity.TestModBlockEntityTypes;
+import dev.galacticraft.machinelib.testmod.menu.TestModMenuTypes;
+import dev.galacticraft.machinelib.testmod.slot.TestModSlotGroupTypes;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeSerializer;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recipe machine that turns one item in its {@link TestModSlotGroupTypes#DIRT dirt} slot into another in its
+ * {@link TestModSlotGroupTypes#DIAMONDS diamonds} slot, using recipes from {@link #recipes} instead of the recipe manager.
+ * Not placed in the level unless a test does so; tests drive it through {@link #tickOnce(ServerLevel)}.
+ */
+public final class TestRecipeMachine extends RecipeMachineBlockEntity<Container, TestRecipeMachine.Conversion> {
+    private static final RecipeType<Conversion> RECIPE_TYPE = new RecipeType<>() {
+        @Override
+        public String toString() {
+            return "machinelib-test:conversion";
+        }
+    };
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final MachineType<TestRecipeMachine, RecipeMachineMenu<Container, Conversion, TestRecipeMachine>> TYPE = MachineType.create(
+            TestModBlocks.SIMPLE_MACHINE_BLOCK,
+            (BlockEntityType) TestModBlockEntityTypes.SIMPLE_MACHINE,
+            (MenuType) TestModMenuTypes.SIMPLE_MACHINE,
+            MachineEnergyStorage::empty,
+            () -> MachineItemStorage.builder()
+                    .single(TestModSlotGroupTypes.DIRT, ItemResourceSlot.builder()::build)
+                    .single(TestModSlotGroupTypes.DIAMONDS, ItemResourceSlot.builder()::build)
+                    .build()
+    );
+
+    /**
+     * The recipes this machine can process. Modify it and call {@link #wakeAll()} to simulate a datapack reload.
+     */
+    public final List<Conversion> recipes = new ArrayList<>();
+    private final Container craftingInv;
+    private int searches = 0;
+
+    public TestRecipeMachine(@NotNull BlockPos pos) {
+        super(TYPE, pos, TestModBlocks.SIMPLE_MACHINE_BLOCK.defaultBlockState(), RECIPE_TYPE);
+        this.craftingInv = this.itemStorage().getCraftingView(TestModSlotGroupTypes.DIRT);
+    }
+
+    /**
+     * Runs one server tick of this machine.
+     *
+     * @param level the level to tick the machine in.
+     */
+    public void tickOnce(@NotNull ServerLevel level) {
+        this.tickBase(level, this.getBlockPos(), this.getBlockState(), level.getProfiler());
+    }
+
+    /**
+     * Returns the number of times this machine has searched for a recipe.
+     *
+     * @return the number of recipe searches.
+     */
+    public int getSearches() {
+        return this.searches;
+    }
+
+    @Override
+    public long getInputModifications() {
+        return super.getInputModifications();
+    }
+
+    public @NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> input() {
+        return this.itemStorage().getGroup(TestModSlotGroupTypes.DIRT);
+    }
+
+    public @NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> output() {
+        return this.itemStorage().getGroup(TestModSlotGroupTypes.DIAMONDS);
+    }
+
+    @Override
+    protected @Nullable Conversion findValidRecipe(@NotNull Level world) {
+        this.searches++;
+        for (Conversion recipe : this.recipes) {
+            if (recipe.matches(this.craftingInv, world)) return recipe;
+        }
+        return null;
+    }
+
+    @Override
+    protected @NotNull Container craftingInv() {
+        return this.craftingInv;
+    }
+
+    @Override
+    protected void outputStacks(@NotNull Conversion recipe) {
+        this.output().insert(recipe.output(), 1);
+    }
+
+    @Override
+    protected boolean canOutputStacks(@NotNull Conversion recipe) {
+        return this.output().canInsert(recipe.output());
+    }
+
+    @Override
+    protected void extractCraftingMaterials(@NotNull Conversion recipe) {
+        this.input().extract(recipe.input(), 1);
+    }
+
+    @Override
+    protected @NotNull MachineStatus workingStatus() {
+        return MachineStatuses.ACTIVE;
+    }
+
+    @Override
+    protected @Nullable MachineStatus hasResourcesToWork() {
+        return null;
+    }
+
+    @Override
+    protected void extractResourcesToWork() {
+    }
+
+    @Override
+    protected int getProcessTime(@NotNull Conversion recipe) {
+        return recipe.time();
+    }
+
+    @Override
+    public @Nullable AbstractContainerMenu createMenu(int syncId, Inventory inv, Player player) {
+        return null;
+    }
+
+    /**
+     * A recipe that converts one item into another.
+     */
+    public record Conversion(@NotNull ResourceLocation id, @NotNull Item input, @NotNull Item output, int time) implements Recipe<Container> {
+        @Override
+        public boolean matches(Container container, Level level) {
+            return container.getItem(0).is(this.input);
+        }
+
+        @Override
+        public @NotNull ItemStack assemble(Container container, RegistryAccess registryAccess) {
+            return new ItemStack(this.output);
+        }
+
+        @Override
+        public boolean canCraftInDimensions(int width, int height) {
+            return true;
+        }
+
+        @Override
+        public @NotNull ItemStack getResultItem(RegistryAccess registryAccess) {
+            return new ItemStack(this.output);
+        }
+
+        @Override
+        public @NotNull NonNullList<Ingredient> getIngredients() {
+            return NonNullList.of(Ingredient.EMPTY, Ingredient.of(this.input));
+        }
+
+        @Override
+        public @NotNull ResourceLocation getId() {
+            return this.id;
+        }
+
+        @Override
+        public @NotNull RecipeSerializer<?> getSerializer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull RecipeType<?> getType() {
+            return RECIPE_TYPE;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.serialization;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.menu.sync.MenuSyncHandler;
+import dev.galacticraft.machinelib.api.storage.MachineItemStorage;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.gametest.Util;
+import dev.galacticraft.machinelib.impl.menu.sync.ResourceStorageSyncHandler;
+import dev.galacticraft.machinelib.testmod.slot.TestModSlotGroupTypes;
+import io.netty.buffer.Unpooled;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class ItemStorageSyncTest extends GameUnitTest<Void> {
+    public ItemStorageSyncTest() {
+        super("item_storage_sync", null);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void syncContents() {
+        MachineItemStorage server = create();
+        MachineItemStorage client = create();
+        MenuSyncHandler serverHandler = Objects.requireNonNull(server.createSyncHandler());
+        MenuSyncHandler clientHandler = Objects.requireNonNull(client.createSyncHandler());
+
+        CompoundTag tag = Util.generateUniqueNbt();
+        assertEquals(12, server.getSlots()[0].insert(Items.GOLD_INGOT, tag, 12));
+        assertTrue(serverHandler.needsSyncing());
+        sync(serverHandler, clientHandler);
+        assertFalse(serverHandler.needsSyncing());
+
+        assertSlotEquals(server.getSlots()[0], client.getSlots()[0]);
+        assertTrue(client.getSlots()[1].isEmpty());
+    }
+
+    @UnitTest
+    public void tagOnlySentOnChange() {
+        MachineItemStorage server = create();
+        MachineItemStorage client = create();
+        MenuSyncHandler serverHandler = Objects.requireNonNull(server.createSyncHandler());
+        MenuSyncHandler clientHandler = Objects.requireNonNull(client.createSyncHandler());
+
+        CompoundTag tag = Util.generateUniqueNbt();
+        assertEquals(12, server.getSlots()[0].insert(Items.GOLD_INGOT, tag, 12));
+        int full = sync(serverHandler, clientHandler);
+
+        assertEquals(1, server.getSlots()[0].insert(Items.GOLD_INGOT, tag.copy(), 1));
+        int partial = sync(serverHandler, clientHandler);
+        assertTrue(partial < full);
+        assertSlotEquals(server.getSlots()[0], client.getSlots()[0]);
+
+        assertEquals(13, server.getSlots()[0].extract(Items.GOLD_INGOT, tag, 13));
+        sync(serverHandler, clientHandler);
+        assertTrue(client.getSlots()[0].isEmpty());
+
+        assertEquals(5, server.getSlots()[0].insert(Items.IRON_INGOT, Util.generateUniqueNbt(), 5));
+        sync(serverHandler, clientHandler);
+        assertSlotEquals(server.getSlots()[0], client.getSlots()[0]);
+    }
+
+    @UnitTest
+    public void idleStorageIsNotScanned() {
+        MachineItemStorage server = create();
+        MachineItemStorage client = create();
+        ResourceStorageSyncHandler<?, ?, ?, ?> serverHandler = (ResourceStorageSyncHandler<?, ?, ?, ?>) Objects.requireNonNull(server.createSyncHandler());
+        MenuSyncHandler clientHandler = Objects.requireNonNull(client.createSyncHandler());
+
+        // the menu asks every handler whether it needs syncing on every sync, even if nothing changed
+        for (int i = 0; i < 10; i++) {
+            assertFalse(serverHandler.needsSyncing());
+        }
+        assertEquals(0, serverHandler.getScans());
+
+        assertEquals(4, server.getSlots()[1].insert(Items.DIRT, 4));
+        sync(serverHandler, clientHandler);
+        assertEquals(1, serverHandler.getScans());
+        for (int i = 0; i < 10; i++) {
+            assertFalse(serverHandler.needsSyncing());
+        }
+        assertEquals(1, serverHandler.getScans());
+    }
+
+    private static int sync(@NotNull MenuSyncHandler server, @NotNull MenuSyncHandler client) {
+        assertTrue(server.needsSyncing());
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        server.sync(buf);
+        int size = buf.readableBytes();
+        client.read(buf);
+        assertEquals(0, buf.readableBytes());
+        return size;
+    }
+
+    private static void assertSlotEquals(@NotNull ItemResourceSlot expected, @NotNull ItemResourceSlot actual) {
+        assertIdentityEquals(expected.getResource(), actual.getResource());
+        assertEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getTag(), actual.getTag());
+    }
+
+    private static @NotNull MachineItemStorage create() {
+        return MachineItemStorage.builder()
+                .single(TestModSlotGroupTypes.CHARGE, ItemResourceSlot.builder()::build)
+                .single(TestModSlotGroupTypes.DIRT, ItemResourceSlot.builder()::build)
+                .build();
+    }
+}
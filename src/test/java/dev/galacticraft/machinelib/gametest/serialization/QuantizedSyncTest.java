@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.serialization;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.menu.sync.MenuSyncHandler;
+import dev.galacticraft.machinelib.impl.menu.sync.simple.QuantizedMenuSyncHandler;
+import io.netty.buffer.Unpooled;
+import net.minecraft.Util;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class QuantizedSyncTest extends GameUnitTest<Void> {
+    public QuantizedSyncTest() {
+        super("quantized_sync", null);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void step() {
+        assertEquals(0, QuantizedMenuSyncHandler.step(0, 1000, 48));
+        assertEquals(47, QuantizedMenuSyncHandler.step(999, 1000, 48));
+        assertEquals(48, QuantizedMenuSyncHandler.step(1000, 1000, 48));
+        assertEquals(123, QuantizedMenuSyncHandler.step(123, 1000, 0));
+    }
+
+    @UnitTest
+    public void shouldSync() {
+        long now = Util.getMillis();
+        assertFalse(QuantizedMenuSyncHandler.shouldSync(500, 500, 1000, 48, now));
+        assertFalse(QuantizedMenuSyncHandler.shouldSync(500, 505, 1000, 48, now));
+        assertTrue(QuantizedMenuSyncHandler.shouldSync(500, 530, 1000, 48, now));
+        assertTrue(QuantizedMenuSyncHandler.shouldSync(500, 505, 1000, 48, now - QuantizedMenuSyncHandler.MAX_STALENESS));
+    }
+
+    @UnitTest
+    public void handler() {
+        long[] value = {500};
+        long[] max = {1000};
+        long[] received = {0};
+        MenuSyncHandler handler = MenuSyncHandler.quantized(() -> value[0], () -> max[0], v -> received[0] = v, 48);
+
+        value[0] = 505;
+        assertFalse(handler.needsSyncing());
+        value[0] = 530;
+        assertTrue(handler.needsSyncing());
+
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        handler.sync(buf);
+        handler.read(buf);
+        assertEquals(530, received[0]);
+        assertFalse(handler.needsSyncing());
+
+        max[0] = 2000;
+        assertTrue(handler.needsSyncing());
+    }
+}
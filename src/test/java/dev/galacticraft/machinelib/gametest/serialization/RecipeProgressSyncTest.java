@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.serialization;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.menu.RecipeMachineMenu;
+import dev.galacticraft.machinelib.gametest.recipe.TestRecipeMachine;
+import dev.galacticraft.machinelib.impl.menu.sync.RecipeProgressSyncHandler;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class RecipeProgressSyncTest extends GameUnitTest<Object> {
+    private static final TestRecipeMachine.Conversion DIRT_TO_DIAMOND = new TestRecipeMachine.Conversion(new ResourceLocation("machinelib-test", "dirt_to_diamond"), Items.DIRT, Items.DIAMOND, 10);
+    private static final TestRecipeMachine.Conversion STONE_TO_DIAMOND = new TestRecipeMachine.Conversion(new ResourceLocation("machinelib-test", "stone_to_diamond"), Items.STONE, Items.DIAMOND, 20);
+
+    public RecipeProgressSyncTest() {
+        super("recipe_progress_sync", null);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void syncsOnStart(@NotNull GameTestHelper helper) {
+        Harness harness = new Harness(helper);
+        assertFalse(harness.handler.needsSyncing());
+
+        harness.machine.input().insert(Items.DIRT, 1);
+        harness.tick();
+        assertTrue(harness.handler.needsSyncing());
+
+        harness.sync();
+        assertEquals(1, harness.progress);
+        assertEquals(10, harness.maxProgress);
+        assertTrue(harness.working);
+        assertFalse(harness.handler.needsSyncing());
+    }
+
+    @UnitTest
+    public void predictedProgressIsNotSynced(@NotNull GameTestHelper helper) {
+        Harness harness = new Harness(helper);
+        harness.machine.input().insert(Items.DIRT, 1);
+        harness.tick();
+        harness.sync();
+
+        for (int i = 0; i < 5; i++) {
+            harness.tick();
+            assertFalse(harness.handler.needsSyncing());
+        }
+    }
+
+    @UnitTest
+    public void syncsOnDeviation(@NotNull GameTestHelper helper) {
+        Harness harness = new Harness(helper);
+        harness.machine.input().insert(Items.DIRT, 1);
+        harness.tick();
+        harness.sync();
+
+        harness.machine.setProgress(5);
+        assertTrue(harness.handler.needsSyncing());
+        harness.sync();
+        assertEquals(5, harness.progress);
+        assertFalse(harness.handler.needsSyncing());
+    }
+
+    @UnitTest
+    public void syncsOnCompletion(@NotNull GameTestHelper helper) {
+        Harness harness = new Harness(helper);
+        harness.machine.input().insert(Items.DIRT, 2);
+        harness.tick();
+        harness.sync();
+
+        for (int i = 1; i < 9; i++) {
+            harness.tick();
+            assertFalse(harness.handler.needsSyncing());
+        }
+        harness.tick(); // completes the recipe, the second item is processed from the next tick on
+        assertEquals(0, harness.machine.getProgress());
+        assertTrue(harness.handler.needsSyncing());
+    }
+
+    @UnitTest
+    public void syncsOnStop(@NotNull GameTestHelper helper) {
+        Harness harness = new Harness(helper);
+        harness.machine.input().insert(Items.DIRT, 1);
+        harness.tick();
+        harness.sync();
+
+        harness.machine.input().extract(Items.DIRT, 1);
+        harness.tick();
+        assertTrue(harness.handler.needsSyncing());
+        harness.sync();
+        assertFalse(harness.working);
+
+        // an idle machine is not expected to make progress
+        harness.time += 5;
+        assertFalse(harness.handler.needsSyncing());
+    }
+
+    @UnitTest
+    public void syncsOnMaxProgressChange(@NotNull GameTestHelper helper) {
+        Harness harness = new Harness(helper);
+        harness.machine.input().insert(Items.DIRT, 1);
+        harness.tick();
+        harness.sync();
+
+        harness.machine.setMaxProgress(15);
+        assertTrue(harness.handler.needsSyncing());
+        harness.sync();
+        assertEquals(15, harness.maxProgress);
+
+        // a different recipe with a different processing time
+        harness.machine.input().extract(Items.DIRT, 1);
+        harness.machine.input().insert(Items.STONE, 1);
+        harness.tick();
+        assertTrue(harness.handler.needsSyncing());
+        harness.sync();
+        assertEquals(20, harness.maxProgress);
+        assertEquals(1, harness.progress);
+    }
+
+    @UnitTest
+    public void interpolationIsClamped() {
+        assertEquals(5.5f, RecipeMachineMenu.interpolateProgress(5, 10, 0, 0.5f));
+        assertEquals(8.25f, RecipeMachineMenu.interpolateProgress(5, 10, 3, 0.25f));
+        assertEquals(10.0f, RecipeMachineMenu.interpolateProgress(5, 10, 100, 0.5f));
+        assertEquals(5.0f, RecipeMachineMenu.interpolateProgress(5, 10, -3, 0.5f)); // the client clock may lag behind
+        assertEquals(10.0f, RecipeMachineMenu.interpolateProgress(10, 10, 0, 0.0f));
+
+        assertEquals(7, RecipeProgressSyncHandler.expectedProgress(5, 10, true, 2));
+        assertEquals(10, RecipeProgressSyncHandler.expectedProgress(5, 10, true, 20));
+        assertEquals(5, RecipeProgressSyncHandler.expectedProgress(5, 10, false, 20));
+    }
+
+    /**
+     * A recipe machine with a progress sync handler that uses a manually advanced clock.
+     */
+    private static final class Harness {
+        private final GameTestHelper helper;
+        private final TestRecipeMachine machine;
+        private final RecipeProgressSyncHandler handler;
+        private long time = 0;
+        private int progress = -1;
+        private int maxProgress = -1;
+        private boolean working = false;
+
+        private Harness(@NotNull GameTestHelper helper) {
+            this.helper = helper;
+            this.machine = new TestRecipeMachine(helper.absolutePos(BlockPos.ZERO));
+            this.machine.recipes.add(DIRT_TO_DIAMOND);
+            this.machine.recipes.add(STONE_TO_DIAMOND);
+            this.handler = new RecipeProgressSyncHandler(this.machine, () -> this.time, (progress, maxProgress, working) -> {
+                this.progress = progress;
+                this.maxProgress = maxProgress;
+                this.working = working;
+            });
+        }
+
+        /**
+         * Ticks the machine and advances the clock by one tick.
+         */
+        private void tick() {
+            this.machine.tickOnce(this.helper.getLevel());
+            this.time++;
+        }
+
+        /**
+         * Writes the handler's update and reads it back, as the client would.
+         */
+        private void sync() {
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            this.handler.sync(buf);
+            this.handler.read(buf);
+        }
+    }
+}
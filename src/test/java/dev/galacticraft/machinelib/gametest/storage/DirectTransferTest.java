@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.storage;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.storage.ResourceFilters;
+import dev.galacticraft.machinelib.api.storage.io.ResourceFlow;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.display.ItemSlotDisplay;
+import dev.galacticraft.machinelib.api.transfer.exposed.ExposedSlot;
+import dev.galacticraft.machinelib.api.util.GenericApiUtil;
+import dev.galacticraft.machinelib.gametest.Util;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class DirectTransferTest extends GameUnitTest<ItemResourceSlot[]> {
+    public DirectTransferTest() {
+        super("direct_transfer_test", () -> new ItemResourceSlot[]{
+                ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()),
+                ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any())
+        });
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void moveAllCopiesTag(ItemResourceSlot @NotNull [] slots) {
+        CompoundTag tag = Util.generateUniqueNbt();
+        slots[0].set(Items.GOLD_INGOT, tag, 16);
+        slots[1].set(Items.GOLD_INGOT, tag.copy(), 60);
+
+        assertEquals(4, GenericApiUtil.moveAll(ExposedSlot.createItem(slots[0], ResourceFlow.BOTH), ExposedSlot.createItem(slots[1], ResourceFlow.BOTH), Long.MAX_VALUE, null));
+        assertEquals(12, slots[0].getAmount());
+        assertEquals(64, slots[1].getAmount());
+        assertEquals(tag, slots[1].getTag());
+    }
+
+    @UnitTest
+    public void moveRespectsFlow(ItemResourceSlot @NotNull [] slots) {
+        slots[0].set(Items.GOLD_INGOT, 16);
+
+        assertEquals(0, GenericApiUtil.move(ItemVariant.of(Items.GOLD_INGOT), ExposedSlot.createItem(slots[0], ResourceFlow.INPUT), ExposedSlot.createItem(slots[1], ResourceFlow.BOTH), 16, null));
+        assertEquals(0, GenericApiUtil.move(ItemVariant.of(Items.GOLD_INGOT), ExposedSlot.createItem(slots[0], ResourceFlow.BOTH), ExposedSlot.createItem(slots[1], ResourceFlow.OUTPUT), 16, null));
+        assertEquals(0, GenericApiUtil.move(ItemVariant.of(Items.IRON_INGOT), ExposedSlot.createItem(slots[0], ResourceFlow.BOTH), ExposedSlot.createItem(slots[1], ResourceFlow.BOTH), 16, null));
+        assertEquals(8, GenericApiUtil.move(ItemVariant.of(Items.GOLD_INGOT), ExposedSlot.createItem(slots[0], ResourceFlow.OUTPUT), ExposedSlot.createItem(slots[1], ResourceFlow.INPUT), 8, null));
+        assertEquals(8, slots[0].getAmount());
+        assertEquals(8, slots[1].getAmount());
+    }
+
+    @UnitTest
+    public void abortRestores(ItemResourceSlot @NotNull [] slots) {
+        slots[0].set(Items.GOLD_INGOT, 16);
+
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(16, GenericApiUtil.moveAll(ExposedSlot.createItem(slots[0], ResourceFlow.BOTH), ExposedSlot.createItem(slots[1], ResourceFlow.BOTH), Long.MAX_VALUE, transaction));
+            assertTrue(slots[0].isEmpty());
+        }
+        assertEquals(16, slots[0].getAmount());
+        assertTrue(slots[1].isEmpty());
+    }
+}
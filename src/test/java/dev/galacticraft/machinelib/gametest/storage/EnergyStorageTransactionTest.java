@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.storage;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class EnergyStorageTransactionTest extends GameUnitTest<MachineEnergyStorage> {
+    public EnergyStorageTransactionTest() {
+        super("energy_storage_transaction_test", () -> {
+            MachineEnergyStorage storage = MachineEnergyStorage.of(1000, 100, true, true);
+            storage.setEnergy(500);
+            return storage;
+        });
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void abortRestores(@NotNull MachineEnergyStorage storage) {
+        int[] changes = listen(storage);
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(100, storage.insert(100, transaction));
+            assertEquals(50, storage.extract(50, transaction));
+            assertEquals(550, storage.getAmount());
+        }
+        assertEquals(500, storage.getAmount());
+        assertEquals(0, changes[0]);
+    }
+
+    @UnitTest
+    public void nestedCommitOuterCommit(@NotNull MachineEnergyStorage storage) {
+        int[] changes = listen(storage);
+        try (Transaction outer = Transaction.openOuter()) {
+            assertEquals(50, storage.insert(50, outer));
+            try (Transaction inner = outer.openNested()) {
+                assertEquals(50, storage.insert(50, inner));
+                inner.commit();
+            }
+            assertEquals(600, storage.getAmount());
+            outer.commit();
+        }
+        assertEquals(600, storage.getAmount());
+        assertEquals(1, changes[0]);
+    }
+
+    @UnitTest
+    public void nestedCommitOuterAbort(@NotNull MachineEnergyStorage storage) {
+        int[] changes = listen(storage);
+        try (Transaction outer = Transaction.openOuter()) {
+            try (Transaction inner = outer.openNested()) {
+                assertEquals(100, storage.insert(100, inner));
+                inner.commit();
+            }
+            assertEquals(600, storage.getAmount());
+        }
+        assertEquals(500, storage.getAmount());
+        assertEquals(0, changes[0]);
+    }
+
+    @UnitTest
+    public void nestedAbortOuterCommit(@NotNull MachineEnergyStorage storage) {
+        int[] changes = listen(storage);
+        try (Transaction outer = Transaction.openOuter()) {
+            assertEquals(50, storage.insert(50, outer));
+            try (Transaction inner = outer.openNested()) {
+                assertEquals(50, storage.extract(50, inner));
+                assertEquals(500, storage.getAmount());
+            }
+            assertEquals(550, storage.getAmount());
+            outer.commit();
+        }
+        assertEquals(550, storage.getAmount());
+        assertEquals(1, changes[0]);
+    }
+
+    @UnitTest
+    public void listenerOnlyOnOutermostCommit(@NotNull MachineEnergyStorage storage) {
+        int[] changes = listen(storage);
+        try (Transaction outer = Transaction.openOuter()) {
+            try (Transaction middle = outer.openNested()) {
+                try (Transaction inner = middle.openNested()) {
+                    assertEquals(10, storage.insert(10, inner));
+                    inner.commit();
+                }
+                assertEquals(0, changes[0]);
+                assertEquals(10, storage.insert(10, middle));
+                middle.commit();
+            }
+            assertEquals(0, changes[0]);
+            outer.commit();
+        }
+        assertEquals(520, storage.getAmount());
+        assertEquals(1, changes[0]);
+    }
+
+    @UnitTest
+    public void repeatedTransactions(@NotNull MachineEnergyStorage storage) {
+        int[] changes = listen(storage);
+        for (int i = 0; i < 4; i++) {
+            try (Transaction transaction = Transaction.openOuter()) {
+                assertEquals(10, storage.insert(10, transaction));
+                if (i % 2 == 0) transaction.commit();
+            }
+        }
+        assertEquals(520, storage.getAmount());
+        assertEquals(2, changes[0]);
+    }
+
+    private static int @NotNull [] listen(@NotNull MachineEnergyStorage storage) {
+        int[] changes = {0};
+        storage.setListener(() -> changes[0]++);
+        return changes;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.storage;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.storage.ResourceFilters;
+import dev.galacticraft.machinelib.api.storage.io.ResourceFlow;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.SlotGroup;
+import dev.galacticraft.machinelib.api.storage.slot.display.ItemSlotDisplay;
+import dev.galacticraft.machinelib.api.transfer.exposed.ExposedSlot;
+import dev.galacticraft.machinelib.api.transfer.exposed.ExposedStorage;
+import dev.galacticraft.machinelib.impl.transfer.exposed.ExposedStorageImpl;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.storage.StorageView;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class ExposedStorageIndexTest extends GameUnitTest<SlotGroup<Item, ItemStack, ItemResourceSlot>> {
+    public ExposedStorageIndexTest() {
+        super("exposed_storage_index", () -> SlotGroup.item()
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .build());
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void nonEmptyIteration(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        ExposedStorage<Item, ItemVariant> storage = expose(group);
+        assertFalse(storage.nonEmptyIterator().hasNext());
+
+        group.getSlot(1).set(Items.GOLD_INGOT, 4);
+        Iterator<StorageView<ItemVariant>> iterator = storage.nonEmptyIterator();
+        assertTrue(iterator.hasNext());
+        assertEquals(4, iterator.next().getAmount());
+        assertFalse(iterator.hasNext());
+    }
+
+    @UnitTest
+    public void fullRejectsInsertion(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        ExposedStorage<Item, ItemVariant> storage = expose(group);
+        for (ItemResourceSlot slot : group) {
+            slot.set(Items.GOLD_INGOT, 64);
+        }
+
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(0, storage.insert(ItemVariant.of(Items.GOLD_INGOT), 1, transaction));
+            assertEquals(1, storage.extract(ItemVariant.of(Items.GOLD_INGOT), 1, transaction));
+            assertEquals(1, storage.insert(ItemVariant.of(Items.GOLD_INGOT), 1, transaction));
+        }
+
+        group.getSlot(2).extract(Items.GOLD_INGOT, null, 1);
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(1, storage.insert(ItemVariant.of(Items.GOLD_INGOT), 2, transaction));
+        }
+    }
+
+    @UnitTest
+    public void extractMatchesResource(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        ExposedStorage<Item, ItemVariant> storage = expose(group);
+        group.getSlot(0).set(Items.IRON_INGOT, 8);
+        group.getSlot(2).set(Items.GOLD_INGOT, 8);
+
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(8, storage.extract(ItemVariant.of(Items.GOLD_INGOT), 16, transaction));
+            assertEquals(0, storage.extract(ItemVariant.of(Items.DIAMOND), 16, transaction));
+            transaction.commit();
+        }
+        assertEquals(8, group.getSlot(0).getAmount());
+        assertTrue(group.getSlot(2).isEmpty());
+    }
+
+    @UnitTest
+    public void abortDiscardsIndex(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        ExposedStorage<Item, ItemVariant> storage = expose(group);
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(4, storage.insert(ItemVariant.of(Items.GOLD_INGOT), 4, transaction));
+            assertEquals(4, storage.simulateExtract(ItemVariant.of(Items.GOLD_INGOT), 4, transaction));
+        }
+
+        group.getSlot(2).insert(Items.IRON_INGOT, null, 4);
+        Iterator<StorageView<ItemVariant>> iterator = storage.nonEmptyIterator();
+        assertTrue(iterator.hasNext());
+        assertIdentityEquals(Items.IRON_INGOT, iterator.next().getResource().getItem());
+        assertFalse(iterator.hasNext());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull ExposedStorage<Item, ItemVariant> expose(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        ExposedSlot<Item, ItemVariant>[] slots = new ExposedSlot[group.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = ExposedSlot.createItem(group.getSlot(i), ResourceFlow.BOTH);
+        }
+        return new ExposedStorageImpl<>(group, slots);
+    }
+}
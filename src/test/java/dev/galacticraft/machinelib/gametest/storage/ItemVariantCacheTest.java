@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.storage;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.storage.ResourceFilters;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.display.ItemSlotDisplay;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class ItemVariantCacheTest extends GameUnitTest<ItemResourceSlot> {
+    public ItemVariantCacheTest() {
+        super("item_variant_cache", () -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()));
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void emptyIsBlank(@NotNull ItemResourceSlot slot) {
+        assertTrue(slot.getItemVariant().isBlank());
+    }
+
+    @UnitTest
+    public void reusedWhileUnchanged(@NotNull ItemResourceSlot slot) {
+        slot.set(Items.GOLD_INGOT, 4);
+        ItemVariant variant = slot.getItemVariant();
+
+        assertEquals(ItemVariant.of(Items.GOLD_INGOT), variant);
+        assertIdentityEquals(variant, slot.getItemVariant());
+        assertIdentityEquals(variant, slot.getMainSlot().getResource());
+    }
+
+    @UnitTest
+    public void refreshedOnChange(@NotNull ItemResourceSlot slot) {
+        slot.set(Items.GOLD_INGOT, 4);
+        slot.getItemVariant();
+        slot.set(Items.IRON_INGOT, 4);
+
+        assertEquals(ItemVariant.of(Items.IRON_INGOT), slot.getItemVariant());
+    }
+
+    @UnitTest
+    public void refreshedAfterAbort(@NotNull ItemResourceSlot slot) {
+        slot.set(Items.GOLD_INGOT, 4);
+        try (Transaction transaction = Transaction.openOuter()) {
+            slot.extract(Items.GOLD_INGOT, null, 4, transaction);
+            assertTrue(slot.getItemVariant().isBlank());
+        }
+        assertEquals(ItemVariant.of(Items.GOLD_INGOT), slot.getItemVariant());
+
+        try (Transaction transaction = Transaction.openOuter()) {
+            slot.extract(Items.GOLD_INGOT, null, 4, transaction);
+            slot.insert(Items.IRON_INGOT, null, 4, transaction);
+            assertEquals(ItemVariant.of(Items.IRON_INGOT), slot.getItemVariant());
+        }
+        slot.extract(Items.GOLD_INGOT, 4);
+        slot.insert(Items.DIAMOND, 4);
+        assertEquals(ItemVariant.of(Items.DIAMOND), slot.getItemVariant());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.storage;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.storage.ResourceFilters;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.SlotGroup;
+import dev.galacticraft.machinelib.api.storage.slot.display.ItemSlotDisplay;
+import dev.galacticraft.machinelib.gametest.Util;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class PackedSlotGroupTest extends GameUnitTest<SlotGroup<Item, ItemStack, ItemResourceSlot>> {
+    public PackedSlotGroupTest() {
+        super("packed_slot_group_test", () -> SlotGroup.packedItem()
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .build());
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void slotViews(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        group.getSlot(1).set(Items.GOLD_INGOT, 16);
+        assertIdentityEquals(Items.GOLD_INGOT, group.getResource(1));
+        assertEquals(16, group.getAmount(1));
+        assertTrue(group.getSlot(0).isEmpty());
+        assertFalse(group.isEmpty());
+    }
+
+    @UnitTest
+    public void insertSpills(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        assertEquals(100, group.insert(Items.GOLD_INGOT, 100));
+        assertEquals(64, group.getAmount(0));
+        assertEquals(36, group.getAmount(1));
+        assertEquals(2, group.getModifications());
+    }
+
+    @UnitTest
+    public void extractClears(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        group.getSlot(0).set(Items.GOLD_INGOT, Util.generateUniqueNbt(), 8);
+        assertEquals(8, group.getSlot(0).extract(Items.GOLD_INGOT, 8));
+        assertTrue(group.isEmpty(0));
+        assertIdentityEquals(null, group.getResource(0));
+        assertIdentityEquals(null, group.getTag(0));
+    }
+
+    @UnitTest
+    public void transactionAbort(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        CompoundTag tag = Util.generateUniqueNbt();
+        group.getSlot(0).set(Items.GOLD_INGOT, tag, 10);
+        long modifications = group.getModifications();
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(10, group.extract(Items.GOLD_INGOT, tag, 10, transaction));
+            assertEquals(64, group.insert(Items.IRON_INGOT, null, 64, transaction));
+            assertIdentityEquals(Items.IRON_INGOT, group.getResource(0));
+        }
+        assertIdentityEquals(Items.GOLD_INGOT, group.getResource(0));
+        assertEquals(tag, group.getTag(0));
+        assertEquals(10, group.getAmount(0));
+        assertTrue(group.isEmpty(1));
+        assertEquals(modifications, group.getModifications());
+    }
+
+    @UnitTest
+    public void nestedTransactionCommit(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        try (Transaction outer = Transaction.openOuter()) {
+            assertEquals(32, group.insert(Items.GOLD_INGOT, null, 32, outer));
+            try (Transaction inner = outer.openNested()) {
+                assertEquals(32, group.extract(Items.GOLD_INGOT, null, 32, inner));
+                assertEquals(16, group.insert(Items.IRON_INGOT, null, 16, inner));
+                inner.commit();
+            }
+            assertIdentityEquals(Items.IRON_INGOT, group.getResource(0));
+            assertEquals(16, group.getAmount(0));
+        }
+        assertTrue(group.isEmpty());
+        assertEquals(0, group.getModifications());
+    }
+
+    @UnitTest
+    public void insertMatchingPrefersMatchingSlots(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        group.getSlot(1).set(Items.GOLD_INGOT, 8);
+        assertEquals(60, group.insertMatching(Items.GOLD_INGOT, 60));
+        assertEquals(64, group.getAmount(1));
+        assertEquals(4, group.getAmount(0));
+    }
+
+    @UnitTest
+    public void indexFollowsChanges(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        group.getSlot(1).set(Items.GOLD_INGOT, 8);
+        assertTrue(group.containsAny(Items.GOLD_INGOT));
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(8, group.extract(Items.GOLD_INGOT, null, 8, transaction));
+            assertFalse(group.containsAny(Items.GOLD_INGOT));
+        }
+        assertTrue(group.containsAny(Items.GOLD_INGOT));
+        assertTrue(group.canExtract(Items.GOLD_INGOT, 8));
+        assertEquals(8, group.extract(Items.GOLD_INGOT, 16));
+        assertFalse(group.containsAny(Items.GOLD_INGOT));
+        assertTrue(group.isEmpty());
+    }
+
+    @UnitTest
+    public void occupancy(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        SlotGroup<Item, ItemStack, ItemResourceSlot> regular = SlotGroup.item()
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .build();
+        for (SlotGroup<Item, ItemStack, ItemResourceSlot> g : List.of(group, regular)) {
+            assertTrue(g.isEmpty());
+            assertFalse(g.isFull());
+            try (Transaction transaction = Transaction.openOuter()) {
+                assertEquals(16, g.insert(Items.ENDER_PEARL, null, 16, transaction));
+                assertFalse(g.isEmpty());
+                assertFalse(g.isFull());
+                assertEquals(64, g.insert(Items.GOLD_INGOT, null, 64, transaction));
+                assertTrue(g.isFull());
+            }
+            assertTrue(g.isEmpty());
+            assertFalse(g.isFull());
+            g.getSlot(0).set(Items.ENDER_PEARL, 16);
+            g.getSlot(1).set(Items.GOLD_INGOT, 64);
+            assertTrue(g.isFull());
+            assertTrue(g.extractOne(Items.GOLD_INGOT));
+            assertFalse(g.isFull());
+        }
+    }
+
+    @UnitTest
+    public void serializationMatches(@NotNull SlotGroup<Item, ItemStack, ItemResourceSlot> group) {
+        SlotGroup<Item, ItemStack, ItemResourceSlot> regular = SlotGroup.item()
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .add(() -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()))
+                .build();
+        group.getSlot(0).set(Items.GOLD_INGOT, Util.generateUniqueNbt(), 8);
+        group.getSlot(1).set(Items.IRON_INGOT, 3);
+
+        regular.readTag(group.createTag());
+        assertEquals(group.createTag(), regular.createTag());
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.storage;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.storage.ResourceFilter;
+import dev.galacticraft.machinelib.api.storage.ResourceFilters;
+import dev.galacticraft.machinelib.gametest.Util;
+import dev.galacticraft.machinelib.impl.storage.CachingResourceFilter;
+import dev.galacticraft.machinelib.impl.storage.CompiledResourceFilter;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.tags.ItemTags;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.material.Fluids;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class ResourceFilterTest extends GameUnitTest<Object> {
+    public ResourceFilterTest() {
+        super("resource_filter_test", null);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void itemTag() {
+        ResourceFilter<Item> filter = ResourceFilters.itemTag(ItemTags.LOGS);
+        assertTrue(filter.test(Items.OAK_LOG, null));
+        assertFalse(filter.test(Items.OAK_LOG, Util.generateUniqueNbt()));
+        assertFalse(filter.test(Items.STONE, null));
+        assertFalse(filter.test(null, null));
+    }
+
+    @UnitTest
+    public void itemTagNbt() {
+        CompoundTag nbt = Util.generateUniqueNbt();
+        ResourceFilter<Item> filter = ResourceFilters.itemTag(ItemTags.LOGS, nbt);
+        assertTrue(filter.test(Items.OAK_LOG, nbt.copy()));
+        assertFalse(filter.test(Items.OAK_LOG, null));
+        assertTrue(ResourceFilters.itemTagAnyNBT(ItemTags.LOGS).test(Items.OAK_LOG, nbt));
+    }
+
+    @UnitTest
+    public void fluidTag() {
+        assertTrue(ResourceFilters.fluidTag(FluidTags.WATER).test(Fluids.FLOWING_WATER, null));
+        assertFalse(ResourceFilters.fluidTagAnyNBT(FluidTags.WATER).test(Fluids.LAVA, null));
+    }
+
+    @UnitTest
+    public void composition() {
+        ResourceFilter<Item> logsButNotOak = ResourceFilters.and(ResourceFilters.itemTagAnyNBT(ItemTags.LOGS), ResourceFilters.not(ResourceFilters.ofResourceAnyNBT(Items.OAK_LOG)));
+        assertTrue(logsButNotOak.test(Items.BIRCH_LOG, null));
+        assertFalse(logsButNotOak.test(Items.OAK_LOG, null));
+        assertFalse(logsButNotOak.test(Items.STONE, null));
+
+        ResourceFilter<Item> stoneOrLogs = ResourceFilters.or(ResourceFilters.ofResource(Items.STONE), ResourceFilters.itemTag(ItemTags.LOGS));
+        assertTrue(stoneOrLogs.test(Items.STONE, null));
+        assertTrue(stoneOrLogs.test(Items.SPRUCE_LOG, null));
+        assertFalse(stoneOrLogs.test(Items.STONE, Util.generateUniqueNbt()));
+        assertFalse(stoneOrLogs.test(Items.DIRT, null));
+
+        ResourceFilter<Item> mixed = ResourceFilters.or(ResourceFilters.ofResourceAnyNBT(Items.STONE), ResourceFilters.itemTag(ItemTags.LOGS));
+        assertTrue(mixed.test(Items.STONE, Util.generateUniqueNbt()));
+        assertFalse(mixed.test(Items.OAK_LOG, Util.generateUniqueNbt()));
+    }
+
+    @UnitTest
+    public void sharedAcrossReload() {
+        ResourceFilter<Item> a = ResourceFilters.itemTag(ItemTags.LOGS);
+        ResourceFilter<Item> b = ResourceFilters.itemTag(ItemTags.LOGS);
+        assertTrue(a.test(Items.OAK_LOG, null));
+
+        CompiledResourceFilter.invalidateAll();
+        assertTrue(b.test(Items.OAK_LOG, null));
+        assertTrue(a.test(Items.OAK_LOG, null));
+        assertFalse(a.test(Items.STONE, null));
+        assertFalse(b.test(Items.STONE, null));
+    }
+
+    @UnitTest
+    public void cachedHit() {
+        int[] calls = {0};
+        ResourceFilter<Item> filter = ResourceFilters.cached((item, tag) -> {
+            calls[0]++;
+            return item == Items.STONE;
+        });
+        assertTrue(filter.test(Items.STONE, null));
+        assertTrue(filter.test(Items.STONE, new CompoundTag()));
+        assertFalse(filter.test(Items.DIRT, null));
+        assertFalse(filter.test(Items.DIRT, null));
+        assertEquals(2, calls[0]);
+    }
+
+    @UnitTest
+    public void cachedSkipsTagged() {
+        int[] calls = {0};
+        ResourceFilter<Item> filter = ResourceFilters.cached((item, tag) -> {
+            calls[0]++;
+            return true;
+        });
+        CompoundTag nbt = Util.generateUniqueNbt();
+        assertTrue(filter.test(Items.STONE, nbt));
+        assertTrue(filter.test(Items.STONE, nbt));
+        assertEquals(2, calls[0]);
+        assertEquals(0, ((CachingResourceFilter<Item>) filter).size());
+    }
+
+    @UnitTest
+    public void cachedAnyNbtIncludesTagged() {
+        int[] calls = {0};
+        ResourceFilter<Item> filter = ResourceFilters.cachedAnyNBT((item, tag) -> {
+            calls[0]++;
+            return item == Items.STONE;
+        });
+        assertTrue(filter.test(Items.STONE, Util.generateUniqueNbt()));
+        assertTrue(filter.test(Items.STONE, Util.generateUniqueNbt()));
+        assertTrue(filter.test(Items.STONE, null));
+        assertFalse(filter.test(Items.DIRT, Util.generateUniqueNbt()));
+        assertEquals(2, calls[0]);
+        assertEquals(2, ((CachingResourceFilter<Item>) filter).size());
+    }
+
+    @UnitTest
+    public void cachedReturnsCachingFilter() {
+        ResourceFilter<Item> filter = ResourceFilters.cached((item, tag) -> true);
+        assertIdentityEquals(filter, ResourceFilters.cached(filter));
+        assertTrue(((CachingResourceFilter<Item>) ResourceFilters.cachedAnyNBT(filter)).ignoresNbt());
+        assertIdentityEquals(ResourceFilters.CAN_EXTRACT_ENERGY, ResourceFilters.cachedAnyNBT(ResourceFilters.CAN_EXTRACT_ENERGY));
+    }
+
+    @UnitTest
+    public void cachedInvalidatedOnTagReload() {
+        int[] calls = {0};
+        ResourceFilter<Item> filter = ResourceFilters.cached((item, tag) -> {
+            calls[0]++;
+            return true;
+        });
+        assertTrue(filter.test(Items.STONE, null));
+        assertTrue(filter.test(Items.STONE, null));
+        assertEquals(1, calls[0]);
+
+        CachingResourceFilter.invalidateAll();
+        assertTrue(filter.test(Items.STONE, null));
+        assertEquals(2, calls[0]);
+    }
+
+    @UnitTest
+    public void cachedSizeBound() {
+        int[] calls = {0};
+        CachingResourceFilter<Item> filter = (CachingResourceFilter<Item>) ResourceFilters.<Item>cached((item, tag) -> {
+            calls[0]++;
+            return true;
+        }, 2);
+        filter.test(Items.STONE, null);
+        filter.test(Items.DIRT, null);
+        filter.test(Items.STONE, null); // stone is now the most recently used
+        filter.test(Items.SAND, null);
+        assertEquals(2, filter.size());
+        assertEquals(3, calls[0]);
+
+        filter.test(Items.STONE, null);
+        assertEquals(3, calls[0]);
+        filter.test(Items.DIRT, null);
+        assertEquals(4, calls[0]);
+    }
+}
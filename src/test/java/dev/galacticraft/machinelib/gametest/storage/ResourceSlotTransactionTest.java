@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.storage;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.storage.ResourceFilters;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.display.ItemSlotDisplay;
+import dev.galacticraft.machinelib.gametest.Util;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class ResourceSlotTransactionTest extends GameUnitTest<ItemResourceSlot> {
+    public ResourceSlotTransactionTest() {
+        super("resource_slot_transaction_test", () -> ItemResourceSlot.create(ItemSlotDisplay.create(0, 0), ResourceFilters.any()));
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void abortRestores(@NotNull ItemResourceSlot slot) {
+        CompoundTag tag = Util.generateUniqueNbt();
+        slot.set(Items.GOLD_INGOT, tag, 16);
+        long modifications = slot.getModifications();
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(16, slot.extract(Items.GOLD_INGOT, tag, 16, transaction));
+            assertEquals(4, slot.insert(Items.IRON_INGOT, null, 4, transaction));
+            assertEquals(modifications + 2, slot.getModifications());
+        }
+        assertIdentityEquals(Items.GOLD_INGOT, slot.getResource());
+        assertEquals(tag, slot.getTag());
+        assertEquals(16, slot.getAmount());
+        assertEquals(modifications, slot.getModifications());
+    }
+
+    @UnitTest
+    public void extractClears(@NotNull ItemResourceSlot slot) {
+        slot.set(Items.GOLD_INGOT, Util.generateUniqueNbt(), 8);
+        long modifications = slot.getModifications();
+        try (Transaction transaction = Transaction.openOuter()) {
+            assertEquals(8, slot.extract(null, null, 8, transaction));
+            transaction.commit();
+        }
+        assertTrue(slot.isEmpty());
+        assertIdentityEquals(null, slot.getResource());
+        assertIdentityEquals(null, slot.getTag());
+        assertEquals(modifications + 1, slot.getModifications());
+    }
+
+    @UnitTest
+    public void nestedCommitOuterAbort(@NotNull ItemResourceSlot slot) {
+        try (Transaction outer = Transaction.openOuter()) {
+            try (Transaction inner = outer.openNested()) {
+                assertEquals(8, slot.insert(Items.GOLD_INGOT, null, 8, inner));
+                inner.commit();
+            }
+            assertEquals(8, slot.getAmount());
+        }
+        assertTrue(slot.isEmpty());
+        assertEquals(0, slot.getModifications());
+    }
+
+    @UnitTest
+    public void nestedAbortOuterCommit(@NotNull ItemResourceSlot slot) {
+        try (Transaction outer = Transaction.openOuter()) {
+            assertEquals(8, slot.insert(Items.GOLD_INGOT, null, 8, outer));
+            try (Transaction inner = outer.openNested()) {
+                assertEquals(8, slot.insert(Items.GOLD_INGOT, null, 8, inner));
+            }
+            outer.commit();
+        }
+        assertEquals(8, slot.getAmount());
+        assertEquals(1, slot.getModifications());
+    }
+
+    @UnitTest
+    public void repeatedTransactions(@NotNull ItemResourceSlot slot) {
+        for (int i = 0; i < 4; i++) {
+            try (Transaction transaction = Transaction.openOuter()) {
+                assertEquals(1, slot.insert(Items.GOLD_INGOT, null, 1, transaction));
+                if (i % 2 == 0) transaction.commit();
+            }
+        }
+        assertEquals(2, slot.getAmount());
+        assertEquals(2, slot.getModifications());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.transfer;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.machine.configuration.DistributionStrategy;
+import dev.galacticraft.machinelib.impl.transfer.PushDistributor;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class DistributionStrategyTest extends GameUnitTest<DistributionStrategyTest.TestDistributor> {
+    public DistributionStrategyTest() {
+        super("distribution_strategy_test", TestDistributor::new);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void firstAvailableFixed(@NotNull TestDistributor distributor) {
+        assertEquals(0, distributor.nextStart(DistributionStrategy.FIRST_AVAILABLE, 4));
+        assertEquals(0, distributor.nextStart(DistributionStrategy.FIRST_AVAILABLE, 4));
+    }
+
+    @UnitTest
+    public void roundRobinRotates(@NotNull TestDistributor distributor) {
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i % 4, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 4));
+        }
+    }
+
+    @UnitTest
+    public void roundRobinFollowsSizeChanges(@NotNull TestDistributor distributor) {
+        assertEquals(0, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 4));
+        assertEquals(1, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 4));
+        assertEquals(2, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 4));
+        // a face was removed from the plan
+        assertEquals(0, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 3));
+        assertEquals(1, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 3));
+        assertEquals(0, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 0));
+        assertEquals(0, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 1));
+        assertEquals(0, distributor.nextStart(DistributionStrategy.ROUND_ROBIN, 1));
+    }
+
+    @UnitTest
+    public void proportionalShare(@NotNull TestDistributor distributor) {
+        assertEquals(3, DistributionStrategy.PROPORTIONAL.share(10, 4));
+        assertEquals(10, DistributionStrategy.PROPORTIONAL.share(10, 1));
+        assertEquals(Long.MAX_VALUE, DistributionStrategy.ROUND_ROBIN.share(10, 4));
+    }
+
+    @UnitTest
+    public void proportionalSplitsBetweenAttempted(@NotNull TestDistributor distributor) {
+        distributor.available = 90;
+        distributor.skipped = 1;
+        distributor.push(DistributionStrategy.PROPORTIONAL, 4, 0);
+        assertEquals(new IntArrayList(new int[]{0, 2, 3}), distributor.moved);
+        assertEquals(new LongArrayList(new long[]{30, 30, 30}), distributor.limits);
+        assertEquals(0, distributor.available);
+    }
+
+    @UnitTest
+    public void proportionalRespectsRateLimit(@NotNull TestDistributor distributor) {
+        distributor.available = 90;
+        distributor.rateLimit = 20;
+        distributor.push(DistributionStrategy.PROPORTIONAL, 3, 0);
+        assertEquals(new LongArrayList(new long[]{20, 20, 20}), distributor.limits);
+        assertEquals(30, distributor.available);
+    }
+
+    @UnitTest
+    public void otherStrategiesOnlyUseRateLimit(@NotNull TestDistributor distributor) {
+        distributor.available = 90;
+        distributor.rateLimit = 50;
+        distributor.push(DistributionStrategy.FIRST_AVAILABLE, 3, 0);
+        assertEquals(new LongArrayList(new long[]{50, 50, 50}), distributor.limits);
+        assertEquals(0, distributor.amountQueries);
+
+        distributor.available = 90;
+        distributor.push(DistributionStrategy.ROUND_ROBIN, 3, 0);
+        assertEquals(new IntArrayList(new int[]{0, 1, 2, 0, 1, 2}), distributor.moved);
+        assertEquals(0, distributor.amountQueries);
+    }
+
+    @UnitTest
+    public void roundRobinRotatesPushes(@NotNull TestDistributor distributor) {
+        distributor.available = Long.MAX_VALUE;
+        distributor.push(DistributionStrategy.ROUND_ROBIN, 3, 0);
+        distributor.push(DistributionStrategy.ROUND_ROBIN, 3, 1);
+        assertEquals(new IntArrayList(new int[]{0, 1, 2, 1, 2, 0}), distributor.moved);
+    }
+
+    /**
+     * Pushes out of a single shared pool, recording every move.
+     */
+    public static final class TestDistributor extends PushDistributor {
+        private final IntArrayList moved = new IntArrayList();
+        private final LongArrayList limits = new LongArrayList();
+        private long available = 0;
+        private long rateLimit = Long.MAX_VALUE;
+        private int skipped = -1;
+        private int amountQueries = 0;
+
+        private TestDistributor() {
+            super(6);
+        }
+
+        @Override
+        protected boolean shouldAttempt(int entry, long time) {
+            return entry != this.skipped;
+        }
+
+        @Override
+        protected long getRateLimit(int entry) {
+            return this.rateLimit;
+        }
+
+        @Override
+        protected long getAmount(int entry) {
+            this.amountQueries++;
+            return this.available;
+        }
+
+        @Override
+        protected void move(int entry, long limit, long time) {
+            this.moved.add(entry);
+            this.limits.add(limit);
+            this.available -= Math.min(limit, this.available);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.transfer;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.impl.transfer.PushBackoff;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class PushBackoffTest extends GameUnitTest<PushBackoff> {
+    private static final Object SOURCE = new Object();
+    private static final Object TARGET = new Object();
+
+    public PushBackoffTest() {
+        super("push_backoff_test", PushBackoff::new);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void intervalDoubles(@NotNull PushBackoff backoff) {
+        assertTrue(backoff.shouldAttempt(0, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+        backoff.onAttempt(0, false);
+        assertFalse(backoff.shouldAttempt(0, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+        assertTrue(backoff.shouldAttempt(1, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+        backoff.onAttempt(1, false);
+        assertFalse(backoff.shouldAttempt(2, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+        assertTrue(backoff.shouldAttempt(3, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+    }
+
+    @UnitTest
+    public void intervalCapped(@NotNull PushBackoff backoff) {
+        long time = 0;
+        assertTrue(backoff.shouldAttempt(time, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+        for (int i = 0; i < 16; i++) {
+            backoff.onAttempt(time, false);
+            time += PushBackoff.MAX_INTERVAL;
+        }
+        assertFalse(backoff.shouldAttempt(time - 1, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+        assertTrue(backoff.shouldAttempt(time, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+    }
+
+    @UnitTest
+    public void changeResets(@NotNull PushBackoff backoff) {
+        assertTrue(backoff.shouldAttempt(0, SOURCE, 0, TARGET, PushBackoff.UNKNOWN_VERSION));
+        backoff.onAttempt(0, false);
+        assertTrue(backoff.shouldAttempt(0, SOURCE, 1, TARGET, PushBackoff.UNKNOWN_VERSION));
+        backoff.onAttempt(0, false);
+        assertTrue(backoff.shouldAttempt(0, SOURCE, 1, null, PushBackoff.UNKNOWN_VERSION));
+        backoff.onAttempt(0, false);
+        assertTrue(backoff.shouldAttempt(0, SOURCE, 1, TARGET, PushBackoff.UNKNOWN_VERSION));
+    }
+
+    @UnitTest
+    public void knownVersionsWait(@NotNull PushBackoff backoff) {
+        assertTrue(backoff.shouldAttempt(0, SOURCE, 0, TARGET, 0));
+        backoff.onAttempt(0, false);
+        assertFalse(backoff.shouldAttempt(1000, SOURCE, 0, TARGET, 0));
+        assertTrue(backoff.shouldAttempt(1000, SOURCE, 0, TARGET, 1));
+    }
+}
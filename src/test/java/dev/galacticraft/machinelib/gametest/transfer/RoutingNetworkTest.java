@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.transfer;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.storage.io.ResourceFlow;
+import dev.galacticraft.machinelib.impl.transfer.routing.RoutingNetworkManager;
+import dev.galacticraft.machinelib.testmod.block.entity.CrateBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class RoutingNetworkTest extends GameUnitTest<RoutingNetworkManager> {
+    public RoutingNetworkTest() {
+        super("routing_network_test", RoutingNetworkManager::new);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void joinLinksNeighbours(@NotNull RoutingNetworkManager manager) {
+        CrateBlockEntity a = new CrateBlockEntity(new BlockPos(0, 0, 0));
+        CrateBlockEntity b = new CrateBlockEntity(new BlockPos(1, 0, 0));
+        CrateBlockEntity c = new CrateBlockEntity(new BlockPos(3, 0, 0));
+        manager.join(a);
+        manager.join(b);
+        manager.join(c);
+
+        assertTrue(a.getRoutingNode().isLinked(Direction.EAST));
+        assertTrue(b.getRoutingNode().isLinked(Direction.WEST));
+        assertFalse(c.getRoutingNode().isLinked(Direction.WEST));
+    }
+
+    @UnitTest
+    public void deliversAcrossChain(@NotNull RoutingNetworkManager manager) {
+        CrateBlockEntity[] chain = chain(manager, 4);
+        chain[0].slot().insert(Items.DIRT, 16);
+
+        manager.tick();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(chain[i].slot().isEmpty());
+        }
+        assertEquals(16, chain[3].slot().getAmount());
+    }
+
+    @UnitTest
+    public void routesUpstreamFirst(@NotNull RoutingNetworkManager manager) {
+        // join the chain back to front, so member order does not match route order
+        CrateBlockEntity[] chain = new CrateBlockEntity[3];
+        for (int i = chain.length - 1; i >= 0; i--) {
+            chain[i] = new CrateBlockEntity(new BlockPos(i, 0, 0));
+            chain[i].configure(Direction.WEST, i == 0 ? null : ResourceFlow.INPUT);
+            chain[i].configure(Direction.EAST, i == chain.length - 1 ? null : ResourceFlow.OUTPUT);
+            manager.join(chain[i]);
+        }
+        chain[0].slot().insert(Items.DIRT, 8);
+
+        manager.tick();
+        assertEquals(8, chain[2].slot().getAmount());
+    }
+
+    @UnitTest
+    public void mergeAndSplit(@NotNull RoutingNetworkManager manager) {
+        CrateBlockEntity[] chain = new CrateBlockEntity[4];
+        for (int i = 0; i < chain.length; i++) {
+            chain[i] = new CrateBlockEntity(new BlockPos(i, 0, 0));
+            chain[i].configure(Direction.WEST, i == 0 ? null : ResourceFlow.INPUT);
+            chain[i].configure(Direction.EAST, i == chain.length - 1 ? null : ResourceFlow.OUTPUT);
+        }
+        manager.join(chain[0]);
+        manager.join(chain[1]);
+        manager.join(chain[3]);
+        chain[0].slot().insert(Items.DIRT, 4);
+
+        manager.tick();
+        assertEquals(4, chain[1].slot().getAmount());
+        assertTrue(chain[3].slot().isEmpty());
+
+        manager.join(chain[2]);
+        manager.tick();
+        assertEquals(4, chain[3].slot().getAmount());
+
+        manager.leave(chain[2]);
+        assertFalse(chain[1].getRoutingNode().isLinked(Direction.EAST));
+        assertFalse(chain[3].getRoutingNode().isLinked(Direction.WEST));
+        chain[0].slot().insert(Items.DIRT, 4);
+        manager.tick();
+        assertEquals(4, chain[1].slot().getAmount());
+        assertEquals(4, chain[3].slot().getAmount());
+    }
+
+    @UnitTest
+    public void resumesWhenTargetChanges(@NotNull RoutingNetworkManager manager) {
+        CrateBlockEntity[] chain = chain(manager, 2);
+        chain[0].slot().insert(Items.DIRT, 4);
+        chain[1].slot().insert(Items.STONE, 64);
+
+        for (int i = 0; i < 4; i++) {
+            manager.tick();
+        }
+        assertEquals(4, chain[0].slot().getAmount());
+
+        chain[1].slot().extract(64);
+        manager.tick();
+        assertTrue(chain[0].slot().isEmpty());
+        assertEquals(4, chain[1].slot().getAmount());
+    }
+
+    @UnitTest
+    public void respectsPushRateLimit(@NotNull RoutingNetworkManager manager) {
+        CrateBlockEntity[] chain = chain(manager, 2);
+        chain[0].rateLimit = 4;
+        chain[0].slot().insert(Items.DIRT, 16);
+
+        manager.tick();
+        assertEquals(12, chain[0].slot().getAmount());
+        assertEquals(4, chain[1].slot().getAmount());
+
+        manager.tick();
+        assertEquals(8, chain[1].slot().getAmount());
+    }
+
+    /**
+     * Creates a row of crates along the x-axis, each passing items on to the next.
+     */
+    private static CrateBlockEntity @NotNull [] chain(@NotNull RoutingNetworkManager manager, int length) {
+        CrateBlockEntity[] chain = new CrateBlockEntity[length];
+        for (int i = 0; i < length; i++) {
+            chain[i] = new CrateBlockEntity(new BlockPos(i, 0, 0));
+            chain[i].configure(Direction.WEST, i == 0 ? null : ResourceFlow.INPUT);
+            chain[i].configure(Direction.EAST, i == length - 1 ? null : ResourceFlow.OUTPUT);
+            manager.join(chain[i]);
+        }
+        return chain;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.gametest.transfer;
+
+import dev.galacticraft.machinelib.api.gametest.GameUnitTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.UnitTest;
+import dev.galacticraft.machinelib.api.machine.configuration.face.BlockFace;
+import dev.galacticraft.machinelib.api.storage.io.ResourceFlow;
+import dev.galacticraft.machinelib.api.transfer.exposed.ExposedStorage;
+import dev.galacticraft.machinelib.impl.block.entity.TransferPlan;
+import dev.galacticraft.machinelib.testmod.block.entity.CrateBlockEntity;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.world.item.Item;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+import static dev.galacticraft.machinelib.gametest.Assertions.*;
+
+public final class TransferPlanTest extends GameUnitTest<TransferPlanTest.Crate> {
+    public TransferPlanTest() {
+        super("transfer_plan_test", Crate::new);
+    }
+
+    @Override
+    @GameTestGenerator
+    public @NotNull List<TestFunction> generateTests() {
+        return super.generateTests();
+    }
+
+    @UnitTest
+    public void followsFaceChanges(@NotNull Crate crate) {
+        crate.configure(BlockFace.FRONT, ResourceFlow.OUTPUT);
+        assertFalse(crate.isValid());
+        crate.rebuild();
+        assertTrue(crate.isValid());
+        assertEquals(1, crate.plan.size());
+        assertEquals(Direction.NORTH, crate.plan.getDirection(0));
+        assertEquals(BlockFace.FRONT, crate.plan.getFace(0));
+
+        crate.configure(BlockFace.RIGHT, ResourceFlow.BOTH);
+        assertFalse(crate.isValid());
+        crate.rebuild();
+        assertEquals(2, crate.plan.size());
+        assertEquals(Direction.EAST, crate.directionOf(BlockFace.RIGHT));
+
+        // faces that only accept resources are not pushed out of
+        crate.configure(BlockFace.FRONT, ResourceFlow.INPUT);
+        crate.rebuild();
+        assertEquals(1, crate.plan.size());
+        assertEquals(BlockFace.RIGHT, crate.plan.getFace(0));
+
+        crate.configure(BlockFace.RIGHT, null);
+        crate.rebuild();
+        assertEquals(0, crate.plan.size());
+    }
+
+    @UnitTest
+    public void followsFacingChanges(@NotNull Crate crate) {
+        crate.configure(BlockFace.FRONT, ResourceFlow.OUTPUT);
+        crate.configure(BlockFace.TOP, ResourceFlow.OUTPUT);
+        crate.rebuild();
+        assertEquals(Direction.NORTH, crate.directionOf(BlockFace.FRONT));
+
+        crate.face(Direction.EAST);
+        assertFalse(crate.isValid());
+        crate.rebuild();
+        assertTrue(crate.isValid());
+        assertEquals(2, crate.plan.size());
+        assertEquals(Direction.EAST, crate.directionOf(BlockFace.FRONT));
+        assertEquals(Direction.UP, crate.directionOf(BlockFace.TOP));
+
+        crate.face(Direction.SOUTH);
+        crate.rebuild();
+        assertEquals(Direction.SOUTH, crate.directionOf(BlockFace.FRONT));
+        assertEquals(Direction.UP, crate.directionOf(BlockFace.TOP));
+
+        // turning back does not reuse the old plan
+        crate.face(Direction.EAST);
+        assertFalse(crate.isValid());
+    }
+
+    /**
+     * A crate with a transfer plan built the same way as a machine's own plans.
+     */
+    public static final class Crate extends CrateBlockEntity {
+        private final TransferPlan<ExposedStorage<Item, ItemVariant>> plan = new TransferPlan<>();
+
+        private Crate() {
+            super(BlockPos.ZERO);
+        }
+
+        private boolean isValid() {
+            return this.plan.isValid(this.facing(), this.getIOConfig().getModifications());
+        }
+
+        private void rebuild() {
+            this.plan.rebuild(this.facing(), this.getIOConfig().getModifications(), (facing, direction) -> this.getIOConfig().get(BlockFace.toFace(facing, direction)).getExposedItemStorage(this.itemStorage()), Storage::supportsExtraction);
+        }
+
+        private @Nullable Direction directionOf(@NotNull BlockFace face) {
+            for (int i = 0; i < this.plan.size(); i++) {
+                if (this.plan.getFace(i) == face) return this.plan.getDirection(i);
+            }
+            return null;
+        }
+    }
+}
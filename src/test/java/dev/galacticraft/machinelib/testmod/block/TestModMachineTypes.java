@@ -82,6 +82,19 @@ public class TestModMachineTypes {
             )::build
     );
 
+    /**
+     * A single item slot and no energy. Uses the simple machine's block, as crates are never placed in a level.
+     */
+    public static final MachineType<SimpleMachineBlockEntity, MachineMenu<SimpleMachineBlockEntity>> CRATE = MachineType.create(
+            TestModBlocks.SIMPLE_MACHINE_BLOCK,
+            TestModBlockEntityTypes.SIMPLE_MACHINE,
+            TestModMenuTypes.SIMPLE_MACHINE,
+            MachineEnergyStorage::empty,
+            () -> MachineItemStorage.builder()
+                    .single(TestModSlotGroupTypes.DIRT, ItemResourceSlot.builder()::build)
+                    .build()
+    );
+
     public static void initialize() {
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021-2023 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.testmod.block.entity;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.machine.MachineStatus;
+import dev.galacticraft.machinelib.api.machine.MachineStatuses;
+import dev.galacticraft.machinelib.api.machine.configuration.face.BlockFace;
+import dev.galacticraft.machinelib.api.storage.io.ResourceFlow;
+import dev.galacticraft.machinelib.api.storage.io.ResourceType;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.testmod.block.TestModBlocks;
+import dev.galacticraft.machinelib.testmod.block.TestModMachineTypes;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A machine that does nothing but hold items in a single slot, for testing how items move between machines.
+ * It is never placed in a level, and faces north unless turned.
+ */
+public class CrateBlockEntity extends MachineBlockEntity {
+    public long rateLimit = Long.MAX_VALUE;
+
+    public CrateBlockEntity(@NotNull BlockPos pos) {
+        super(TestModMachineTypes.CRATE, pos, TestModBlocks.SIMPLE_MACHINE_BLOCK.defaultBlockState().setValue(BlockStateProperties.HORIZONTAL_FACING, Direction.NORTH));
+    }
+
+    public @NotNull ItemResourceSlot slot() {
+        return this.itemStorage().getSlots()[0];
+    }
+
+    public @NotNull Direction facing() {
+        return this.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+    }
+
+    public void face(@NotNull Direction facing) {
+        this.setBlockState(this.getBlockState().setValue(BlockStateProperties.HORIZONTAL_FACING, facing));
+    }
+
+    public void configure(@NotNull Direction direction, @Nullable ResourceFlow flow) {
+        BlockFace face = BlockFace.toFace(this.facing(), direction);
+        assert face != null;
+        this.configure(face, flow);
+    }
+
+    public void configure(@NotNull BlockFace face, @Nullable ResourceFlow flow) {
+        this.getIOConfig().get(face).setOption(flow == null ? ResourceType.NONE : ResourceType.ITEM, flow == null ? ResourceFlow.BOTH : flow);
+    }
+
+    @Override
+    public long getPushRateLimit(@NotNull ResourceType type, @NotNull BlockFace face) {
+        return this.rateLimit;
+    }
+
+    @Override
+    protected @NotNull MachineStatus tick(@NotNull ServerLevel world, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler) {
+        return MachineStatuses.IDLE;
+    }
+
+    @Override
+    public @Nullable AbstractContainerMenu createMenu(int syncId, Inventory inv, Player player) {
+        return null;
+    }
+}